@@ -1,6 +1,8 @@
 import { fetchEventSource } from "@microsoft/fetch-event-source";
 import { rootApi } from "./rootApi";
 
+class FatalSseError extends Error {}
+
 export const attendantApi = rootApi.injectEndpoints({
   endpoints: (builder) => ({
     getParticipantsByEvent: builder.query({
@@ -10,7 +12,13 @@ export const attendantApi = rootApi.injectEndpoints({
       ],
       async onCacheEntryAdded(
         eventId,
-        { updateCachedData, cacheDataLoaded, cacheEntryRemoved, getState },
+        {
+          updateCachedData,
+          cacheDataLoaded,
+          cacheEntryRemoved,
+          getState,
+          dispatch,
+        },
       ) {
         await cacheDataLoaded;
 
@@ -32,7 +40,27 @@ export const attendantApi = rootApi.injectEndpoints({
             },
             signal: controller.signal,
 
+            // fetchEventSource resends the last received id as Last-Event-ID when it
+            // reconnects, so the server only replays the check-ins we missed.
+            async onopen(response) {
+              if (response.status >= 400 && response.status < 500) {
+                throw new FatalSseError(
+                  `SSE connection rejected: ${response.status}`,
+                );
+              }
+              if (!response.ok) {
+                throw new Error(`SSE connection failed: ${response.status}`);
+              }
+            },
+
             onmessage(event) {
+              if (event.event === "resync-required") {
+                dispatch(
+                  attendantApi.util.invalidateTags([
+                    { type: "Attendants", id: eventId },
+                  ]),
+                );
+              }
               if (event.event === "participant-checked-in") {
                 const updatedParticipant = JSON.parse(event.data);
                 updateCachedData((draft) => {
@@ -45,10 +73,26 @@ export const attendantApi = rootApi.injectEndpoints({
                   }
                 });
               }
+              if (event.event === "participants-checked-in") {
+                const updatedParticipants = JSON.parse(event.data);
+                updateCachedData((draft) => {
+                  updatedParticipants.forEach((updatedParticipant) => {
+                    const participant = draft.find(
+                      (p) => p.user.id === updatedParticipant.user.id,
+                    );
+                    if (participant) {
+                      participant.check_in_time =
+                        updatedParticipant.check_in_time;
+                    }
+                  });
+                });
+              }
             },
             onerror(err) {
               console.error("EventSource failed:", err);
-              throw err;
+              if (err instanceof FatalSseError) {
+                throw err;
+              }
             },
           },
         );
@@ -1,5 +1,37 @@
+import { fetchEventSource } from '@microsoft/fetch-event-source';
 import { rootApi } from './rootApi';
 
+class FatalSseError extends Error {}
+
+// Streams live PollStatsResponse frames for every poll of one event, including polls created
+// after connecting. The server sends the current results on connect and then at most one frame
+// per poll per tick, only when they changed.
+const subscribePollResults = (eventId, token, signal, onStats) =>
+  fetchEventSource(`${import.meta.env.VITE_BASE_URL}/polls/events/${eventId}/results/stream`, {
+    method: 'GET',
+    headers: { Authorization: `Bearer ${token}` },
+    signal,
+    async onopen(response) {
+      if (response.status >= 400 && response.status < 500) {
+        throw new FatalSseError(`SSE connection rejected: ${response.status}`);
+      }
+      if (!response.ok) {
+        throw new Error(`SSE connection failed: ${response.status}`);
+      }
+    },
+    onmessage(event) {
+      if (event.event === 'poll_stats') {
+        onStats(JSON.parse(event.data));
+      }
+    },
+    onerror(err) {
+      console.error('Poll results stream failed:', err);
+      if (err instanceof FatalSseError) {
+        throw err;
+      }
+    },
+  });
+
 export const pollApi = rootApi.injectEndpoints({
   endpoints: (builder) => ({
     getPollsByEvent: builder.query({
@@ -15,9 +47,10 @@ export const pollApi = rootApi.injectEndpoints({
       providesTags: (result, error, pollId) => [{ type: 'MyVotedOptions', id: pollId }],
     }),
     votePoll: builder.mutation({
-      query: ({ pollId, optionIds }) => ({
+      query: ({ pollId, optionIds, idempotencyKey = crypto.randomUUID() }) => ({
         url: `/polls/${pollId}/vote`,
         method: 'POST',
+        headers: { 'Idempotency-Key': idempotencyKey },
         body: { option_ids: optionIds },
       }),
       invalidatesTags: (result, error, { pollId }) => [
@@ -47,8 +80,34 @@ export const pollApi = rootApi.injectEndpoints({
     }),
     getPollStatByEventId: builder.query({
       query: (eventId) => ({
-        url: `/polls/${eventId}/stats`,
+        url: `/polls/events/${eventId}/stats`,
       }),
+      async onCacheEntryAdded(
+        eventId,
+        { updateCachedData, cacheDataLoaded, cacheEntryRemoved, getState },
+      ) {
+        try {
+          await cacheDataLoaded;
+        } catch {
+          return;
+        }
+        const token = getState().auth.accessToken;
+        const controller = new AbortController();
+        if (token) {
+          subscribePollResults(eventId, token, controller.signal, (stats) =>
+            updateCachedData((draft) => {
+              const index = draft.findIndex((poll) => poll.id === stats.id);
+              if (index !== -1) {
+                draft[index] = stats;
+              } else {
+                draft.push(stats);
+              }
+            }),
+          );
+        }
+        await cacheEntryRemoved;
+        controller.abort();
+      },
     }),
   }),
   overrideExisting: false,
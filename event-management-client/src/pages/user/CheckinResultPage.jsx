@@ -24,7 +24,7 @@ const CheckinResultPage = () => {
     if (data) {
       dispatch(
         openSnackbar({
-          message: `🎉 Chúc mừng ${data.name}, bạn đã điểm danh thành công!`,
+          message: `🎉 Chúc mừng ${data.user?.name}, bạn đã điểm danh thành công!`,
           type: "success",
         }),
       );
@@ -65,9 +65,9 @@ const CheckinResultPage = () => {
               ✅ Thành công
             </p>
             <p className="mb-1 text-gray-700">
-              Chào {data.name}, bạn đã điểm danh vào sự kiện!
+              Chào {data.user?.name}, bạn đã điểm danh vào sự kiện!
             </p>
-            <p className="text-sm text-gray-500">{data.email}</p>
+            <p className="text-sm text-gray-500">{data.user?.email}</p>
           </div>
         ) : (
           <p className="text-sm text-gray-500">
@@ -0,0 +1,135 @@
+package API_BoPhieu.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import API_BoPhieu.constants.PollType;
+import API_BoPhieu.dto.poll.PollResponse;
+import API_BoPhieu.dto.poll.PollStatsResponse;
+import API_BoPhieu.entity.Option;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.mapper.PollMapper;
+import API_BoPhieu.service.poll.PollCountService;
+import API_BoPhieu.service.poll.PollTally;
+
+/**
+ * Read side of a poll: counting from a live {@link PollTally} or from the stored counters,
+ * building the responses (including the percentage computation of the stats view), and
+ * rebuilding a tally from scratch. Every voter picks one option at random.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PollCountsBenchmark {
+
+    @Param({"2", "20", "200"})
+    public int options;
+
+    @Param({"1000", "100000", "1000000"})
+    public int votes;
+
+    private Poll poll;
+    private List<Option> optionList;
+    private List<List<Integer>> selectionByOption;
+    private int[] choices;
+    private PollTally tally;
+    private PollCountService.StoredCounts storedCounts;
+    private Map<Integer, Integer> voteCounts;
+    private SplittableRandom random;
+    private long votedAtMs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Instant now = Instant.now();
+        poll = new Poll();
+        poll.setId(1);
+        poll.setEventId(1);
+        poll.setTitle("Benchmark poll");
+        poll.setPollType(PollType.SINGLE_CHOICE);
+        poll.setStartTime(now.minusSeconds(3600));
+        poll.setEndTime(now.plusSeconds(3600));
+        poll.setIsDelete(false);
+
+        optionList = new ArrayList<>(options);
+        selectionByOption = new ArrayList<>(options);
+        for (int i = 1; i <= options; i++) {
+            optionList.add(new Option(i, poll.getId(), "Option " + i, null));
+            selectionByOption.add(List.of(i));
+        }
+
+        random = new SplittableRandom(42);
+        choices = new int[votes];
+        for (int i = 0; i < votes; i++) {
+            choices[i] = random.nextInt(options);
+        }
+        tally = buildTally();
+        voteCounts = tally.voteCounts(optionList);
+        storedCounts = new PollCountService.StoredCounts(voteCounts, tally.totalVoters());
+        votedAtMs = 1;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> tallyVoteCounts() {
+        return tally.voteCounts(optionList);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> storedVoteCounts() {
+        return storedCounts.voteCounts(optionList);
+    }
+
+    @Benchmark
+    public PollResponse toPollResponse() {
+        return PollMapper.toPollResponse(poll, optionList, voteCounts);
+    }
+
+    @Benchmark
+    public PollStatsResponse toPollStatsResponse() {
+        return PollMapper.toPollStatsResponse(poll, optionList, voteCounts,
+                tally.totalVoters());
+    }
+
+    /**
+     * A revote of a random user, as relayed to the tally by the vote bus.
+     */
+    @Benchmark
+    public void applyVote() {
+        tally.apply(random.nextInt(votes), selectionByOption.get(random.nextInt(options)),
+                ++votedAtMs);
+    }
+
+    /**
+     * In-memory part of a cold start: applying every stored selection to an empty tally.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PollTally rebuildTally() {
+        return buildTally();
+    }
+
+    private PollTally buildTally() {
+        final PollTally rebuilt = new PollTally();
+        for (int userId = 0; userId < votes; userId++) {
+            rebuilt.apply(userId, selectionByOption.get(choices[userId]), 0);
+        }
+        return rebuilt;
+    }
+}
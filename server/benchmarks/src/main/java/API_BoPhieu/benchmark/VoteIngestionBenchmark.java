@@ -0,0 +1,125 @@
+package API_BoPhieu.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import API_BoPhieu.constants.PollType;
+import API_BoPhieu.entity.Option;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.repository.OptionRepository;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.service.poll.PollCountService;
+import API_BoPhieu.service.poll.VoteWriteQueue;
+import API_BoPhieu.service.poll.VoteWriteQueue.PendingVote;
+
+/**
+ * Vote ingestion throughput of {@link VoteWriteQueue} against an embedded H2 database: each
+ * invocation submits a burst of votes from distinct users and waits until all are committed.
+ * Users vote again in later invocations, so the revote path (delete, insert, counter deltas) is
+ * measured too. Absolute numbers are H2's; compare batch sizes and writer counts with each other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VoteIngestionBenchmark {
+
+    private static final int VOTES_PER_BURST = 1000;
+    private static final int VOTERS = 100_000;
+    private static final int OPTIONS = 4;
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    @Param({"1", "2", "4"})
+    public int writerThreads;
+
+    private ConfigurableApplicationContext context;
+    private VoteWriteQueue voteWriteQueue;
+    private Integer pollId;
+    private List<List<Integer>> selections;
+    private int nextUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(VoteIngestionConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=vote-ingestion-benchmark",
+                        "spring.main.banner-mode=off", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:votes;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "app.poll.vote.queue-capacity=" + 2 * VOTES_PER_BURST,
+                        "app.poll.vote.batch-size=" + batchSize,
+                        "app.poll.vote.writer-threads=" + writerThreads)
+                .run();
+        voteWriteQueue = context.getBean(VoteWriteQueue.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> createPoll());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOTES_PER_BURST)
+    public void submitBurst() throws Exception {
+        final CompletableFuture<?>[] burst = new CompletableFuture<?>[VOTES_PER_BURST];
+        for (int i = 0; i < VOTES_PER_BURST; i++) {
+            final int userId = nextUserId++ % VOTERS + 1;
+            final CompletableFuture<Void> done = new CompletableFuture<>();
+            if (!voteWriteQueue.offer(new PendingVote(pollId, userId,
+                    selections.get(userId % OPTIONS), null, done))) {
+                throw new IllegalStateException("Vote queue is full");
+            }
+            burst[i] = done;
+        }
+        CompletableFuture.allOf(burst).get(1, TimeUnit.MINUTES);
+    }
+
+    private void createPoll() {
+        final Instant now = Instant.now();
+        final Poll poll = new Poll();
+        poll.setEventId(1);
+        poll.setTitle("Benchmark poll");
+        poll.setPollType(PollType.SINGLE_CHOICE);
+        poll.setStartTime(now);
+        poll.setEndTime(now.plusSeconds(86_400));
+        poll.setIsDelete(false);
+        poll.setCreatedBy(1);
+        pollId = context.getBean(PollRepository.class).save(poll).getId();
+
+        final OptionRepository optionRepository = context.getBean(OptionRepository.class);
+        final List<Integer> optionIds = IntStream.range(0, OPTIONS)
+                .mapToObj(i -> optionRepository
+                        .save(new Option(null, pollId, "Option " + i, null)).getId())
+                .toList();
+        context.getBean(PollCountService.class).initialize(pollId, optionIds);
+        selections = optionIds.stream().map(List::of).toList();
+    }
+}
@@ -0,0 +1,43 @@
+package API_BoPhieu.benchmark;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.service.poll.PollCountService;
+import API_BoPhieu.service.poll.PollTallyService;
+import API_BoPhieu.service.poll.VoteWriteQueue;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Just the vote write path on top of JPA, the same slice the {@code @DataJpaTest}s load.
+ */
+@SpringBootConfiguration
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class})
+@EntityScan("API_BoPhieu.entity")
+@EnableJpaRepositories("API_BoPhieu.repository")
+@Import({VoteWriteQueue.class, PollTallyService.class, PollCountService.class,
+        LocalSseBroadcastBus.class})
+public class VoteIngestionConfig {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    ObjectMapper objectMapper() {
+        return new ObjectMapper();
+    }
+}
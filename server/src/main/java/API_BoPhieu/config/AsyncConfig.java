@@ -1,16 +1,28 @@
 package API_BoPhieu.config;
 
 import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Executors for background work. With {@code spring.threads.virtual.enabled=true} on Java 21+,
+ * Spring Boot already runs Tomcat request handling on virtual threads; the beans below switch
+ * the application executors too, except where a library would pin the carrier thread.
+ */
 @Configuration
 @EnableAsync
+@Slf4j
 public class AsyncConfig {
 
     @Bean(name = "importTaskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor importTaskExecutor() {
         final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
@@ -20,5 +32,62 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
 
+    /**
+     * Same bounds as the platform pool, so at most five imports hit the database at once, but each
+     * worker is a virtual thread that parks instead of blocking on JDBC and SMTP calls.
+     */
+    @Bean(name = "importTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualImportTaskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(5);
+        executor.setQueueCapacity(100);
+        executor.setThreadFactory(
+                new VirtualThreadTaskExecutor("import-task-").getVirtualThreadFactory());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * {@code ResponseBodyEmitter.send} is {@code synchronized} and writes to the socket while
+     * holding the monitor, which pins a virtual thread to its carrier on Java 21-23. A stuck
+     * client would then take a carrier away from every request, so SSE senders only become
+     * virtual threads on Java 24+, where monitors no longer pin (JEP 491), and otherwise stay on
+     * the bounded platform pool.
+     */
+    @Bean(name = "sseDispatchExecutor")
+    public Executor sseDispatchExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") final boolean virtualThreads) {
+        if (virtualThreads && Runtime.version().feature() >= 24) {
+            return new VirtualThreadTaskExecutor("sse-dispatch-");
+        }
+        if (virtualThreads) {
+            log.info("SSE dispatcher giữ luồng platform: Java {} vẫn ghim virtual thread "
+                    + "trong khối synchronized", Runtime.version().feature());
+        }
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setThreadNamePrefix("sse-dispatch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Only in virtual-thread mode: {@code SMTPTransport.sendMessage} is {@code synchronized}, so
+     * mail is sent from this small platform pool while the calling virtual thread parks.
+     */
+    @Bean(name = "mailSendExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor mailSendExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("mail-send-");
+        executor.initialize();
+        return executor;
+    }
+}
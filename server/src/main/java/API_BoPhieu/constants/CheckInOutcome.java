@@ -0,0 +1,5 @@
+package API_BoPhieu.constants;
+
+public enum CheckInOutcome {
+    CHECKED_IN, ALREADY_CHECKED_IN, NOT_REGISTERED, USER_NOT_FOUND
+}
@@ -0,0 +1,7 @@
+package API_BoPhieu.constants;
+
+public enum EventChangeType {
+    CREATED,
+    UPDATED,
+    CANCELLED
+}
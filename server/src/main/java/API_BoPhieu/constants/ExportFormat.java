@@ -1,6 +1,14 @@
 package API_BoPhieu.constants;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
 public enum ExportFormat {
-    EXCEL
-}
+    EXCEL("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ".xlsx"),
+    CSV("text/csv;charset=UTF-8", ".csv");
 
+    private final String contentType;
+    private final String fileExtension;
+}
@@ -1,6 +1,5 @@
 package API_BoPhieu.controller;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import org.springframework.http.HttpHeaders;
@@ -13,14 +12,17 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import API_BoPhieu.dto.attendant.BulkCheckInRequest;
+import API_BoPhieu.dto.attendant.BulkCheckInResponse;
 import API_BoPhieu.dto.attendant.ParticipantResponse;
 import API_BoPhieu.dto.import_job.ImportJobResponse;
-import API_BoPhieu.entity.Attendant;
 import API_BoPhieu.entity.ImportJob;
 import API_BoPhieu.service.attendant.AttendantService;
 import API_BoPhieu.service.import_job.ImportJobService;
@@ -39,20 +41,14 @@ public class AttendantController {
     private final ImportJobService importJobService;
 
     @GetMapping("/subscribe/{eventId}")
-    public SseEmitter subscribeToEvents(@PathVariable Integer eventId) {
-        log.info("Client mới yêu cầu kết nối SSE tới sự kiện ID: {}", eventId);
+    public SseEmitter subscribeToEvents(@PathVariable Integer eventId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Client mới yêu cầu kết nối SSE tới sự kiện ID: {} (Last-Event-ID: {})", eventId,
+                lastEventId);
 
         SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
 
-        sseService.addEmitter(eventId, emitter);
-
-        try {
-            emitter.send(SseEmitter.event().name("INIT")
-                    .data("Kết nối SSE thành công tới sự kiện " + eventId));
-        } catch (IOException e) {
-            log.warn("Không thể gửi sự kiện INIT tới client cho sự kiện ID {}: {}", eventId,
-                    e.getMessage());
-        }
+        sseService.addEmitter(eventId, emitter, lastEventId);
 
         log.debug("Đã trả về emitter cho client của sự kiện ID {}", eventId);
         return emitter;
@@ -121,12 +117,23 @@ public class AttendantController {
     }
 
     @PostMapping("/check-in/{eventToken}")
-    public ResponseEntity<Attendant> checkInEvent(@PathVariable String eventToken,
+    public ResponseEntity<ParticipantResponse> checkInEvent(@PathVariable String eventToken,
             Authentication authentication) {
         log.info("Nhận yêu cầu check-in từ người dùng '{}' cho sự kiện với token '{}'",
                 authentication.getName(), eventToken);
-        Attendant attendant = attendantService.checkIn(eventToken, authentication.getName());
-        return ResponseEntity.ok(attendant);
+        ParticipantResponse participant =
+                attendantService.checkIn(eventToken, authentication.getName());
+        return ResponseEntity.ok(participant);
+    }
+
+    @PostMapping("/{eventId}/check-in/bulk")
+    @PreAuthorize("hasRole('ROLE_ADMIN') or @eventAuth.hasEventRole(authentication, #eventId, T(API_BoPhieu.constants.EventManagement).STAFF) or @eventAuth.hasEventRole(authentication, #eventId, T(API_BoPhieu.constants.EventManagement).MANAGE)")
+    public ResponseEntity<BulkCheckInResponse> bulkCheckIn(@PathVariable Integer eventId,
+            @RequestBody BulkCheckInRequest request, Authentication authentication) {
+        log.info("Người dùng '{}' gửi yêu cầu check-in hàng loạt cho sự kiện ID {}",
+                authentication.getName(), eventId);
+        BulkCheckInResponse response = attendantService.bulkCheckIn(eventId, request.getScans());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/get-qr-check/{eventId}")
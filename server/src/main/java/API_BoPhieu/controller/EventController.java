@@ -26,6 +26,7 @@ import API_BoPhieu.dto.attendant.ParticipantResponse;
 import API_BoPhieu.dto.attendant.ParticipantsDto;
 import API_BoPhieu.dto.event.EventDetailResponse;
 import API_BoPhieu.dto.event.EventDto;
+import API_BoPhieu.dto.event.EventCursorPageWithCountersResponse;
 import API_BoPhieu.dto.event.EventPageWithCountersResponse;
 import API_BoPhieu.dto.event.EventResponse;
 import API_BoPhieu.entity.Attendant;
@@ -124,6 +125,25 @@ public class EventController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getAllEvents}: pass the returned {@code next_cursor} to
+     * continue; the total is only counted with {@code includeTotal=true}.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<EventCursorPageWithCountersResponse> scrollEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "startTime") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) EventStatus status,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+        String email = authentication != null ? authentication.getName() : null;
+        return ResponseEntity.ok(eventService.scrollEvents(cursor, size, sortBy, sortDir, status,
+                search, includeTotal, email));
+    }
+
     @GetMapping("/subscribe")
     public SseEmitter subscribeToEvents() {
 
@@ -163,6 +183,23 @@ public class EventController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/managed/scroll")
+    public ResponseEntity<EventCursorPageWithCountersResponse> scrollManagedEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "startTime") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) EventStatus status,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new AuthException("Người dùng chưa xác thực");
+        }
+        return ResponseEntity.ok(eventService.scrollManagedEvents(cursor, size, sortBy, sortDir,
+                status, search, includeTotal, authentication.getName()));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN') or @eventAuth.hasEventRole(authentication, #id, T(API_BoPhieu.constants.EventManagement).MANAGE)")
     @ResponseStatus(HttpStatus.NO_CONTENT)
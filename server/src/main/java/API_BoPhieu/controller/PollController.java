@@ -1,9 +1,11 @@
 
 package API_BoPhieu.controller;
 
-import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -15,20 +17,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import API_BoPhieu.constants.ExportFormat;
 import API_BoPhieu.dto.poll.PollDTO;
 import API_BoPhieu.dto.poll.PollResponse;
 import API_BoPhieu.dto.poll.PollStatsResponse;
 import API_BoPhieu.dto.poll.UpdatePollDTO;
 import API_BoPhieu.dto.poll.VoteDTO;
-import API_BoPhieu.entity.User;
+import API_BoPhieu.dto.user.UserResponseDTO;
 import API_BoPhieu.exception.AuthException;
-import API_BoPhieu.repository.UserRepository;
+import API_BoPhieu.exception.RateLimitExceededException;
 import API_BoPhieu.service.poll.PollExportService;
 import API_BoPhieu.service.poll.PollService;
+import API_BoPhieu.service.poll.VoteAdmissionService.VoteOutcome;
+import API_BoPhieu.service.sse.poll_results.PollResultsSseService;
+import API_BoPhieu.service.user.UserSnapshotCache;
 
 @RestController
 @RequestMapping("${api.prefix}/polls")
@@ -41,7 +49,10 @@ public class PollController {
     private PollExportService pollExportService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserSnapshotCache userSnapshotCache;
+
+    @Autowired
+    private PollResultsSseService pollResultsSseService;
 
     @PostMapping
     public ResponseEntity<PollResponse> createPoll(@RequestBody PollDTO pollDTO,
@@ -53,9 +64,7 @@ public class PollController {
     @GetMapping("/{pollId}")
     public ResponseEntity<PollResponse> getPoll(@PathVariable Integer pollId,
             Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new AuthException("Không tìm thấy user"));
-        PollResponse pollResponse = pollService.getPoll(pollId, user.getId());
+        PollResponse pollResponse = pollService.getPoll(pollId, currentUserId(authentication));
         return ResponseEntity.ok(pollResponse);
     }
 
@@ -65,27 +74,65 @@ public class PollController {
         return ResponseEntity.ok(pollResponses);
     }
 
+    /**
+     * Answered asynchronously once the vote is written. A vote still queued after the write
+     * timeout gets 202 with the request's Idempotency-Key, to retry with or to check later.
+     */
     @PostMapping("/{pollId}/vote")
-    public ResponseEntity<?> votePoll(@PathVariable Integer pollId, @RequestBody VoteDTO voteDTO,
+    public CompletableFuture<ResponseEntity<?>> votePoll(@PathVariable Integer pollId,
+            @RequestBody VoteDTO voteDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication) {
         try {
-            pollService.vote(pollId, voteDTO, authentication);
-            return ResponseEntity
-                    .ok(Map.of("message", "Bạn đã vote thành công cho poll ID: " + pollId));
+            return pollService.vote(pollId, voteDTO, authentication, idempotencyKey)
+                    .handle((outcome, error) -> error != null ? voteFailed(error)
+                            : outcome == VoteOutcome.PENDING ? votePending(idempotencyKey)
+                                    : ResponseEntity.ok(Map.of("message",
+                                            "Bạn đã vote thành công cho poll ID: " + pollId)));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            return CompletableFuture.completedFuture(voteFailed(e));
+        }
+    }
+
+    private static ResponseEntity<?> votePending(String idempotencyKey) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Phiếu của bạn vẫn đang được xử lý, vui lòng kiểm tra lại sau");
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(body);
         }
+        body.put("idempotencyKey", idempotencyKey);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).header("Idempotency-Key", idempotencyKey)
+                .body(body);
+    }
+
+    private static ResponseEntity<?> voteFailed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof RateLimitExceededException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", cause.getMessage()));
+        }
+        return ResponseEntity.badRequest()
+                .body(Map.of("message", String.valueOf(cause.getMessage())));
     }
 
     @GetMapping("/{pollId}/my-options")
     public ResponseEntity<?> getMyVotedOptions(@PathVariable Integer pollId,
             Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new AuthException("Không tìm thấy user"));
-        List<Integer> optionIds = pollService.getVotedOptionIdsByUser(pollId, user.getId());
+        List<Integer> optionIds =
+                pollService.getVotedOptionIdsByUser(pollId, currentUserId(authentication));
         return ResponseEntity.ok(Map.of("optionIds", optionIds));
     }
 
+    @GetMapping("/events/{eventId}/results/stream")
+    public SseEmitter streamPollResults(@PathVariable Integer eventId) {
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+        pollResultsSseService.addEmitter(eventId, emitter);
+        return emitter;
+    }
+
     @GetMapping("/events/{eventId}/stats")
     public ResponseEntity<List<PollStatsResponse>> getPollStatsByEvent(
             @PathVariable Integer eventId) {
@@ -108,29 +155,24 @@ public class PollController {
     }
 
     @GetMapping("/{pollId}/export")
-    public ResponseEntity<?> exportPollStats(@PathVariable Integer pollId,
+    public ResponseEntity<StreamingResponseBody> exportPollStats(@PathVariable Integer pollId,
             @RequestParam(defaultValue = "EXCEL") ExportFormat format) {
-        try {
-            final byte[] fileBytes = pollExportService.exportPollStats(pollId, format);
-
-            final HttpHeaders headers = new HttpHeaders();
-            final String contentType =
-                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            final String fileExtension = ".xlsx";
-            final String filename = "poll_results_" + pollId + fileExtension;
-
-            headers.setContentType(MediaType.parseMediaType(contentType));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(fileBytes.length);
-
-            return new ResponseEntity<>(fileBytes, headers, HttpStatus.OK);
-        } catch (final IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("message", "Lỗi khi xuất file: " + e.getMessage()));
-        } catch (final Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", e.getMessage()));
-        }
+        pollExportService.checkExportable(pollId);
+
+        final StreamingResponseBody body =
+                outputStream -> pollExportService.exportPollStats(pollId, format, outputStream);
+
+        final HttpHeaders headers = new HttpHeaders();
+        final String filename = "poll_results_" + pollId + format.getFileExtension();
+        headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+        headers.setContentDispositionFormData("attachment", filename);
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
+    private Integer currentUserId(Authentication authentication) {
+        return userSnapshotCache.findByEmail(authentication.getName())
+                .map(UserResponseDTO::getId)
+                .orElseThrow(() -> new AuthException("Không tìm thấy user"));
+    }
 }
@@ -0,0 +1,15 @@
+package API_BoPhieu.dto.attendant;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCheckInRequest {
+    private List<BulkCheckInItem> scans;
+}
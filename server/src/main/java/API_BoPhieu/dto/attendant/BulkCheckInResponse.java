@@ -0,0 +1,21 @@
+package API_BoPhieu.dto.attendant;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCheckInResponse {
+    private Integer eventId;
+    private int total;
+    private int checkedIn;
+    private int alreadyCheckedIn;
+    private int notRegistered;
+    private int userNotFound;
+    private List<BulkCheckInResult> results;
+}
@@ -0,0 +1,19 @@
+package API_BoPhieu.dto.attendant;
+
+import java.time.Instant;
+import API_BoPhieu.constants.CheckInOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCheckInResult {
+    private String email;
+    private Integer userId;
+    private CheckInOutcome outcome;
+    private Instant checkInTime;
+}
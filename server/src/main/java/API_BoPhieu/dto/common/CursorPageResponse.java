@@ -0,0 +1,23 @@
+package API_BoPhieu.dto.common;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One slice of a keyset-paginated list. Pass {@code nextCursor} back to get the following slice;
+ * {@code totalElements} is only filled in when the client asked for it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalElements;
+}
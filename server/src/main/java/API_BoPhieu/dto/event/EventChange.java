@@ -0,0 +1,16 @@
+package API_BoPhieu.dto.event;
+
+import API_BoPhieu.constants.EventChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventChange {
+    private EventChangeType type;
+    private EventResponse event;
+}
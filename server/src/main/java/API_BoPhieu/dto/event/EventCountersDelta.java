@@ -0,0 +1,25 @@
+package API_BoPhieu.dto.event;
+
+import java.util.List;
+import API_BoPhieu.constants.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change to the event status counters, relayed to every node: {@code count} events moved from
+ * {@code from} to {@code to} (either may be null), and the cached managed counts of
+ * {@code managerIds} (or of every user, if {@code allManagers}) are stale.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventCountersDelta {
+    private EventStatus from;
+    private EventStatus to;
+    private long count;
+    private List<Integer> managerIds;
+    private boolean allManagers;
+}
@@ -0,0 +1,16 @@
+package API_BoPhieu.dto.event;
+
+import API_BoPhieu.dto.common.CursorPageResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EventCursorPageWithCountersResponse {
+    private CursorPageResponse<EventResponse> pagination;
+    private EventCountersResponse counters;
+}
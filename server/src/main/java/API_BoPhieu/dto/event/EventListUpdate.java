@@ -0,0 +1,21 @@
+package API_BoPhieu.dto.event;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Debounced event-list SSE payload: the events changed during the window, at most one entry per
+ * event, and the status counters after those changes. {@code counters.manage} is per-user and is
+ * not filled in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventListUpdate {
+    private List<EventChange> changes;
+    private EventCountersResponse counters;
+}
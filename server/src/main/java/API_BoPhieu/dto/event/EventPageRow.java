@@ -0,0 +1,19 @@
+package API_BoPhieu.dto.event;
+
+/**
+ * Read model of what an event list row shows beyond the event itself, fetched for a whole page in
+ * one statement.
+ */
+public interface EventPageRow {
+    Integer getEventId();
+
+    Integer getCreatedById();
+
+    String getCreatedByName();
+
+    Integer getManagerId();
+
+    String getManagerName();
+
+    Boolean getRegistered();
+}
@@ -26,6 +26,7 @@ public class EventResponse {
     private Integer createdBy;
     private Integer maxParticipants;
     private Integer currentParticipants;
+    private Integer checkedInCount;
     private Instant updatedAt;
     private String qrJoinToken;
     private Boolean isRegistered = false;
@@ -0,0 +1,20 @@
+package API_BoPhieu.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The searchable text of an event after a write, relayed to every node's search index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventSearchDocument {
+    private Integer eventId;
+    private String title;
+    private String location;
+    private String description;
+}
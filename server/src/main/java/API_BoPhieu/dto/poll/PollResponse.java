@@ -2,6 +2,7 @@ package API_BoPhieu.dto.poll;
 
 import java.time.Instant;
 import java.util.List;
+import API_BoPhieu.constants.PollStatus;
 import API_BoPhieu.constants.PollType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,6 +19,7 @@ public class PollResponse {
     private Instant startTime;
     private Instant endTime;
     private Boolean isDelete;
+    private PollStatus status;
     private List<OptionResponse> options;
     private Instant createdAt;
     private Instant updatedAt;
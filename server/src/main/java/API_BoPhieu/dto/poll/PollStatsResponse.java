@@ -2,6 +2,7 @@ package API_BoPhieu.dto.poll;
 
 import java.time.Instant;
 import java.util.List;
+import API_BoPhieu.constants.PollStatus;
 import API_BoPhieu.constants.PollType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,6 +16,7 @@ public class PollStatsResponse {
     private String title;
     private PollType pollType;
     private Boolean isDelete;
+    private PollStatus status;
     private Integer totalVotes;
     private Integer totalVoters;
     private List<OptionStatsResponse> options;
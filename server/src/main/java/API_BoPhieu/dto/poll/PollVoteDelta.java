@@ -0,0 +1,21 @@
+package API_BoPhieu.dto.poll;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's complete selection in a poll after a vote, relayed to every node's tally.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PollVoteDelta {
+    private Integer pollId;
+    private Integer userId;
+    private List<Integer> optionIds;
+    private long votedAtMs;
+}
@@ -0,0 +1,20 @@
+package API_BoPhieu.dto.poll;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * New voting window of a poll, relayed to every node so their lifecycle schedules agree.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PollWindowChange {
+    private Integer pollId;
+    private long startMs;
+    private long endMs;
+    private boolean closed;
+}
@@ -15,6 +15,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -67,6 +68,18 @@ public class Event {
     @Column(name = "qr_join_token", unique = true)
     private String qrJoinToken;
 
+    /**
+     * Maintained by the conditional updates in EventRepository and never written through the
+     * entity, so saving a stale instance cannot overwrite a concurrent registration.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, name = "participant_count", updatable = false)
+    private Integer participantCount = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, name = "checked_in_count", updatable = false)
+    private Integer checkedInCount = 0;
+
     @CreationTimestamp
     @Column(nullable = false, name = "create_at")
     private Instant createdAt;
@@ -0,0 +1,47 @@
+package API_BoPhieu.entity;
+
+import java.io.Serializable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of votes an option currently has, maintained by the vote write path so that reading a
+ * poll's counts never scans the votes table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(PollOptionCount.Key.class)
+@Table(name = "poll_option_counts")
+public class PollOptionCount {
+    @Id
+    @Column(name = "poll_id", nullable = false)
+    private Integer pollId;
+
+    @Id
+    @Column(name = "option_id", nullable = false)
+    private Integer optionId;
+
+    @Column(name = "vote_count", nullable = false)
+    private Integer voteCount;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer pollId;
+        private Integer optionId;
+    }
+}
@@ -0,0 +1,28 @@
+package API_BoPhieu.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of distinct users with a vote on a poll, maintained next to {@link PollOptionCount}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "poll_voter_counts")
+public class PollVoterCount {
+    @Id
+    @Column(name = "poll_id", nullable = false)
+    private Integer pollId;
+
+    @Column(name = "voter_count", nullable = false)
+    private Integer voterCount;
+}
@@ -0,0 +1,52 @@
+package API_BoPhieu.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One SSE broadcast relayed through the database so that every replica can fan it out to its own
+ * subscribers. Rows are short-lived and pruned by the broadcast bus.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sse_broadcasts",
+        indexes = {
+                @Index(name = "idx_sse_broadcasts_created_at", columnList = "created_at_ms"),
+                @Index(name = "idx_sse_broadcasts_channel",
+                        columnList = "topic, channel_id, id")})
+public class SseBroadcastRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String topic;
+
+    @Column(name = "channel_id")
+    private Integer channelId;
+
+    @Column(nullable = false, name = "event_name", length = 100)
+    private String eventName;
+
+    @Column(nullable = false, length = 16_777_215)
+    private String payload;
+
+    @Column(nullable = false, name = "origin_node", length = 100)
+    private String originNode;
+
+    @Column(nullable = false, name = "created_at_ms")
+    private Long createdAtMs;
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -17,7 +18,8 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "votes")
+@Table(name = "votes",
+        indexes = @Index(name = "idx_votes_poll_user", columnList = "poll_id, user_id"))
 public class Vote {
     @Id
     @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
@@ -0,0 +1,46 @@
+package API_BoPhieu.entity;
+
+import java.time.Instant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Records a vote submission that carried an {@code Idempotency-Key}, so a retried request is
+ * acknowledged without being applied twice. Receipts expire after a day.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "vote_receipts",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"poll_id", "user_id", "idempotency_key"})},
+        indexes = @Index(name = "idx_vote_receipts_created_at", columnList = "created_at"))
+public class VoteReceipt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "poll_id", nullable = false)
+    private Integer pollId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
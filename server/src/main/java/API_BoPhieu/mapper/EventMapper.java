@@ -46,6 +46,8 @@ public class EventMapper {
         response.setBanner(event.getBanner());
         response.setCreatedBy(event.getCreateBy());
         response.setMaxParticipants(event.getMaxParticipants());
+        response.setCurrentParticipants(event.getParticipantCount());
+        response.setCheckedInCount(event.getCheckedInCount());
         response.setCreatedAt(event.getCreatedAt());
         response.setUpdatedAt(event.getUpdatedAt());
         response.setQrJoinToken(event.getQrJoinToken());
@@ -1,9 +1,14 @@
 package API_BoPhieu.mapper;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import API_BoPhieu.constants.PollStatus;
+import API_BoPhieu.dto.poll.OptionStatsResponse;
 import API_BoPhieu.dto.poll.PollResponse;
+import API_BoPhieu.dto.poll.PollStatsResponse;
 import API_BoPhieu.entity.Poll;
 import API_BoPhieu.entity.Option;
 
@@ -18,9 +23,48 @@ public class PollMapper {
         response.setStartTime(poll.getStartTime());
         response.setEndTime(poll.getEndTime());
         response.setIsDelete(poll.getIsDelete());
+        response.setStatus(statusOf(poll, Instant.now()));
         response.setOptions(OptionMapper.toOptionResponses(options, optionVoteCounts));
         response.setCreatedAt(poll.getCreatedAt());
         response.setUpdatedAt(poll.getUpdatedAt());
         return response;
     }
+
+    public static PollStatsResponse toPollStatsResponse(Poll poll, List<Option> options,
+            Map<Integer, Integer> optionVoteCounts, int totalVoters) {
+        int totalVotes = optionVoteCounts.values().stream().mapToInt(Integer::intValue).sum();
+
+        List<OptionStatsResponse> optionStats = new ArrayList<>();
+        for (Option option : options) {
+            int voteCount = optionVoteCounts.getOrDefault(option.getId(), 0);
+            double percentage = totalVotes > 0 ? (voteCount * 100.0 / totalVotes) : 0.0;
+
+            OptionStatsResponse stat = new OptionStatsResponse();
+            stat.setId(option.getId());
+            stat.setContent(option.getContent());
+            stat.setVoteCount(voteCount);
+            stat.setPercentage(percentage);
+            optionStats.add(stat);
+        }
+
+        PollStatsResponse statsResponse = new PollStatsResponse();
+        statsResponse.setId(poll.getId());
+        statsResponse.setTitle(poll.getTitle());
+        statsResponse.setPollType(poll.getPollType());
+        statsResponse.setIsDelete(poll.getIsDelete());
+        statsResponse.setStatus(statusOf(poll, Instant.now()));
+        statsResponse.setTotalVotes(totalVotes);
+        statsResponse.setTotalVoters(totalVoters);
+        statsResponse.setOptions(optionStats);
+        statsResponse.setStartTime(poll.getStartTime());
+        statsResponse.setEndTime(poll.getEndTime());
+        return statsResponse;
+    }
+
+    public static PollStatus statusOf(Poll poll, Instant now) {
+        if (Boolean.TRUE.equals(poll.getIsDelete()) || now.isAfter(poll.getEndTime())) {
+            return PollStatus.CLOSED;
+        }
+        return now.isBefore(poll.getStartTime()) ? PollStatus.UPCOMING : PollStatus.OPEN;
+    }
 }
@@ -1,17 +1,20 @@
 package API_BoPhieu.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import API_BoPhieu.entity.Attendant;
+import jakarta.persistence.LockModeType;
 
-public interface AttendantRepository extends JpaRepository<Attendant, Integer> {
+public interface AttendantRepository
+        extends JpaRepository<Attendant, Integer>, AttendantRepositoryCustom {
     boolean existsByUserIdAndEventId(Integer userId, Integer eventId);
 
     List<Attendant> findByEventIdAndCheckedTimeIsNotNullOrderByCheckedTimeAsc(Integer eventId);
@@ -22,20 +25,16 @@ public interface AttendantRepository extends JpaRepository<Attendant, Integer> {
 
     boolean existsByEventIdAndUserId(Integer eventId, Integer userId);
 
-    Integer countByEventId(Integer eventId);
-
-    int deleteByEventIdAndUserId(Integer eventId, Integer userId);
-
     List<Attendant> findAllByEventIdAndUserIdIn(Integer eventId, List<Integer> userIds);
 
-    @Query("SELECT a.eventId, COUNT(a.userId) FROM Attendant a WHERE a.eventId IN :eventIds GROUP BY a.eventId")
-    List<Object[]> countParticipantsByEventIds(@Param("eventIds") List<Integer> eventIds);
-
-    @Query("SELECT a.eventId FROM Attendant a WHERE a.userId = :userId AND a.eventId IN :eventIds")
-    Set<Integer> findRegisteredEventIdsByUserId(@Param("userId") Integer userId,
-            @Param("eventIds") List<Integer> eventIds);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Attendant a WHERE a.eventId = :eventId AND a.userId IN :userIds")
+    List<Attendant> lockAllByEventIdAndUserIdIn(@Param("eventId") Integer eventId,
+            @Param("userIds") List<Integer> userIds);
 
     @Modifying
-    long deleteByEventIdAndUserIdIn(Integer eventId, List<Integer> userIds);
+    @Query("UPDATE Attendant a SET a.checkedTime = :checkedTime WHERE a.eventId = :eventId AND a.userId = :userId AND a.checkedTime IS NULL")
+    int markCheckedIn(@Param("eventId") Integer eventId, @Param("userId") Integer userId,
+            @Param("checkedTime") Instant checkedTime);
 
 }
@@ -0,0 +1,16 @@
+package API_BoPhieu.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+public interface AttendantRepositoryCustom {
+    /**
+     * Marks several attendants of one event as checked in with a single
+     * {@code UPDATE ... WHERE checked_time IS NULL} statement.
+     *
+     * @param eventId Event the attendants belong to
+     * @param checkedTimesByUserId Check-in time to store for each user ID
+     * @return Number of rows actually updated
+     */
+    int markCheckedInBatch(Integer eventId, Map<Integer, Instant> checkedTimesByUserId);
+}
@@ -0,0 +1,45 @@
+package API_BoPhieu.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class AttendantRepositoryImpl implements AttendantRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int markCheckedInBatch(final Integer eventId,
+            final Map<Integer, Instant> checkedTimesByUserId) {
+        if (checkedTimesByUserId.isEmpty()) {
+            return 0;
+        }
+
+        final List<Integer> userIds = new ArrayList<>(checkedTimesByUserId.keySet());
+        final StringBuilder jpql =
+                new StringBuilder("UPDATE Attendant a SET a.checkedTime = CASE a.userId");
+        for (int i = 0; i < userIds.size(); i++) {
+            jpql.append(" WHEN :u").append(i).append(" THEN :t").append(i);
+        }
+        jpql.append(" ELSE a.checkedTime END WHERE a.eventId = :eventId")
+                .append(" AND a.checkedTime IS NULL AND a.userId IN :userIds");
+
+        final Query query = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < userIds.size(); i++) {
+            final Integer userId = userIds.get(i);
+            query.setParameter("u" + i, userId);
+            query.setParameter("t" + i, checkedTimesByUserId.get(userId));
+        }
+        query.setParameter("eventId", eventId);
+        query.setParameter("userIds", userIds);
+
+        final int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -27,6 +27,4 @@ public interface EventManagerRepository extends JpaRepository<EventManager, Inte
 
     List<EventManager> findAllByEventIdInAndRoleType(List<Integer> eventIds,
             EventManagement roleType);
-
-    List<EventManager> findAllByEventIdIn(List<Integer> eventIds);
 }
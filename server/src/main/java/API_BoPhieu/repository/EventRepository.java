@@ -5,13 +5,19 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.dto.event.EventPageRow;
 import API_BoPhieu.entity.Event;
 
 @Repository
@@ -19,6 +25,91 @@ public interface EventRepository
         extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event> {
     Optional<Event> findByQrJoinToken(String qrJoinToken);
 
+    /**
+     * One keyset page of the matching events. The limit is set before the sort: in this Spring
+     * Data version {@code limit} copies the query with its sort appended to itself, which would
+     * order and compare by every sort column twice.
+     */
+    default Window<Event> scroll(Specification<Event> spec, Sort sort, int size,
+            ScrollPosition position) {
+        return findBy(spec, query -> query.limit(size).sortBy(sort).scroll(position));
+    }
+
+    @Query("SELECT e.id FROM Event e WHERE e.qrJoinToken = :token AND e.status <> :status")
+    Optional<Integer> findIdByQrJoinTokenAndStatusNot(@Param("token") String token,
+            @Param("status") EventStatus status);
+
+    @Query("SELECT e.qrJoinToken, e.id FROM Event e WHERE e.status IN :statuses")
+    List<Object[]> findTokensByStatusIn(@Param("statuses") List<EventStatus> statuses);
+
+    @Query("SELECT e.id, e.title, e.location, e.description FROM Event e WHERE e.id > :afterId"
+            + " ORDER BY e.id")
+    List<Object[]> findSearchTextsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Creator, first MANAGE-role manager and the caller's registration of each
+     * listed event; {@code userId} may be null for anonymous callers.
+     */
+    @Query("SELECT e.id AS eventId, c.id AS createdById, c.name AS createdByName,"
+            + " mu.id AS managerId, mu.name AS managerName,"
+            + " CASE WHEN EXISTS (SELECT 1 FROM Attendant r"
+            + " WHERE r.eventId = e.id AND r.userId = :userId) THEN true ELSE false END"
+            + " AS registered"
+            + " FROM Event e"
+            + " LEFT JOIN User c ON c.id = e.createBy"
+            + " LEFT JOIN EventManager m ON m.id = (SELECT MIN(m2.id) FROM EventManager m2"
+            + " WHERE m2.eventId = e.id"
+            + " AND m2.roleType = API_BoPhieu.constants.EventManagement.MANAGE)"
+            + " LEFT JOIN User mu ON mu.id = m.userId"
+            + " WHERE e.id IN :eventIds")
+    List<EventPageRow> findPageRows(@Param("eventIds") List<Integer> eventIds,
+            @Param("userId") Integer userId);
+
+    /**
+     * Takes {@code seats} places of the event if they fit under its maximum, in the same statement
+     * that checks the limit.
+     *
+     * @return 0 if the event is full or does not exist
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.participantCount = e.participantCount + :seats"
+            + " WHERE e.id = :eventId AND (e.maxParticipants IS NULL"
+            + " OR e.participantCount + :seats <= e.maxParticipants)")
+    int reserveSeats(@Param("eventId") Integer eventId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.participantCount = e.participantCount - :seats,"
+            + " e.checkedInCount = e.checkedInCount - :checkedIn WHERE e.id = :eventId")
+    int releaseSeats(@Param("eventId") Integer eventId, @Param("seats") int seats,
+            @Param("checkedIn") int checkedIn);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.checkedInCount = e.checkedInCount + :count"
+            + " WHERE e.id = :eventId")
+    int addCheckedIn(@Param("eventId") Integer eventId, @Param("count") int count);
+
+    /**
+     * Recounts the participants and check-ins of the events with ids in [fromId, toId] from the
+     * attendants table, in its own transaction.
+     *
+     * @return the number of events whose counters had drifted
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET"
+            + " e.participantCount = (SELECT COUNT(a) FROM Attendant a WHERE a.eventId = e.id),"
+            + " e.checkedInCount = (SELECT COUNT(a) FROM Attendant a"
+            + " WHERE a.eventId = e.id AND a.checkedTime IS NOT NULL)"
+            + " WHERE e.id BETWEEN :fromId AND :toId"
+            + " AND (e.participantCount <> (SELECT COUNT(a) FROM Attendant a"
+            + " WHERE a.eventId = e.id)"
+            + " OR e.checkedInCount <> (SELECT COUNT(a) FROM Attendant a"
+            + " WHERE a.eventId = e.id AND a.checkedTime IS NOT NULL))")
+    int reconcileAttendanceCounts(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    @Query("SELECT MAX(e.id) FROM Event e")
+    Optional<Integer> findMaxId();
+
     long countByStatus(EventStatus status);
 
     Optional<Event> findByIdAndStatus(Integer id, EventStatus status);
@@ -1,5 +1,6 @@
 package API_BoPhieu.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,4 +11,6 @@ import API_BoPhieu.entity.Option;
 @Repository
 public interface OptionRepository extends JpaRepository<Option, Integer> {
     List<Option> findByPollId(Integer pollId);
+
+    List<Option> findByPollIdInOrderByIdAsc(Collection<Integer> pollIds);
 }
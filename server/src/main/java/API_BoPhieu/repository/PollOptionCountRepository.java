@@ -0,0 +1,24 @@
+package API_BoPhieu.repository;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import API_BoPhieu.entity.PollOptionCount;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface PollOptionCountRepository
+        extends JpaRepository<PollOptionCount, PollOptionCount.Key>,
+        PollOptionCountRepositoryCustom {
+    @Query("SELECT c.pollId, c.optionId, c.voteCount FROM PollOptionCount c"
+            + " WHERE c.pollId IN :pollIds")
+    List<Object[]> findCountsByPollIds(@Param("pollIds") Collection<Integer> pollIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM PollOptionCount c WHERE c.pollId = :pollId ORDER BY c.optionId")
+    List<PollOptionCount> lockByPollId(@Param("pollId") Integer pollId);
+}
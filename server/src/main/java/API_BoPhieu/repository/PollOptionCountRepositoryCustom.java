@@ -0,0 +1,14 @@
+package API_BoPhieu.repository;
+
+import java.util.Map;
+
+public interface PollOptionCountRepositoryCustom {
+    /**
+     * Adds each delta to its option's counter with a single UPDATE statement. The increment is
+     * done by the database, so concurrent writers never overwrite each other.
+     *
+     * @param deltaByOption option id to the change in its vote count
+     * @return number of counter rows updated
+     */
+    int addVoteCounts(Integer pollId, Map<Integer, Integer> deltaByOption);
+}
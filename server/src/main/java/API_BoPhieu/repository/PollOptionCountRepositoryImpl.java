@@ -0,0 +1,37 @@
+package API_BoPhieu.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class PollOptionCountRepositoryImpl implements PollOptionCountRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int addVoteCounts(final Integer pollId, final Map<Integer, Integer> deltaByOption) {
+        if (deltaByOption.isEmpty()) {
+            return 0;
+        }
+        final List<Integer> optionIds = new ArrayList<>(deltaByOption.keySet());
+        final StringBuilder jpql = new StringBuilder(
+                "UPDATE PollOptionCount c SET c.voteCount = c.voteCount + CASE c.optionId");
+        for (int i = 0; i < optionIds.size(); i++) {
+            jpql.append(" WHEN :o").append(i).append(" THEN :d").append(i);
+        }
+        jpql.append(" ELSE 0 END WHERE c.pollId = :pollId AND c.optionId IN :optionIds");
+
+        final Query query = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < optionIds.size(); i++) {
+            query.setParameter("o" + i, optionIds.get(i));
+            query.setParameter("d" + i, deltaByOption.get(optionIds.get(i)));
+        }
+        query.setParameter("pollId", pollId);
+        query.setParameter("optionIds", optionIds);
+        return query.executeUpdate();
+    }
+}
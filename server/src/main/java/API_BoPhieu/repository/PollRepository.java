@@ -3,6 +3,7 @@ package API_BoPhieu.repository;
 import java.time.Instant;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,4 +15,19 @@ public interface PollRepository extends JpaRepository<Poll, Integer> {
 
     @Query("SELECT p FROM Poll p WHERE p.startTime <= :now AND p.endTime >= :now AND p.isDelete = false")
     List<Poll> findActivePollsByTime(@Param("now") Instant now);
+
+    List<Poll> findByIsDeleteFalseAndEndTimeGreaterThanEqual(Instant now);
+
+    @Query("SELECT p.id FROM Poll p WHERE p.endTime < :now AND p.isDelete = false")
+    List<Integer> findEndedOpenPollIds(@Param("now") Instant now);
+
+    @Query("SELECT DISTINCT p.eventId FROM Poll p WHERE p.id IN :ids")
+    List<Integer> findEventIdsByIdIn(@Param("ids") List<Integer> ids);
+
+    @Query("SELECT p.id FROM Poll p ORDER BY p.id")
+    List<Integer> findAllIds();
+
+    @Modifying
+    @Query("UPDATE Poll p SET p.isDelete = true WHERE p.id IN :ids AND p.isDelete = false")
+    int closePolls(@Param("ids") List<Integer> ids);
 }
@@ -0,0 +1,28 @@
+package API_BoPhieu.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import API_BoPhieu.entity.PollVoterCount;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface PollVoterCountRepository extends JpaRepository<PollVoterCount, Integer> {
+    @Query("SELECT c.pollId, c.voterCount FROM PollVoterCount c WHERE c.pollId IN :pollIds")
+    List<Object[]> findCountsByPollIds(@Param("pollIds") Collection<Integer> pollIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM PollVoterCount c WHERE c.pollId = :pollId")
+    Optional<PollVoterCount> lockByPollId(@Param("pollId") Integer pollId);
+
+    @Modifying
+    @Query("UPDATE PollVoterCount c SET c.voterCount = c.voterCount + :delta"
+            + " WHERE c.pollId = :pollId")
+    int addVoters(@Param("pollId") Integer pollId, @Param("delta") int delta);
+}
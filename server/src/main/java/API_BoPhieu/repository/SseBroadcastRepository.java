@@ -0,0 +1,28 @@
+package API_BoPhieu.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import API_BoPhieu.entity.SseBroadcastRecord;
+
+@Repository
+public interface SseBroadcastRepository extends JpaRepository<SseBroadcastRecord, Long> {
+
+    @Query("SELECT r FROM SseBroadcastRecord r WHERE r.createdAtMs >= :since "
+            + "AND r.originNode <> :nodeId ORDER BY r.id")
+    List<SseBroadcastRecord> findRecentFromOtherNodes(@Param("since") long since,
+            @Param("nodeId") String nodeId);
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM SseBroadcastRecord r")
+    long findMaxId();
+
+    List<SseBroadcastRecord> findByTopicAndChannelIdAndIdGreaterThanOrderByIdAsc(String topic,
+            Integer channelId, Long id);
+
+    @Modifying
+    @Query("DELETE FROM SseBroadcastRecord r WHERE r.createdAtMs < :cutoff")
+    int deleteOlderThan(@Param("cutoff") long cutoff);
+}
@@ -1,8 +1,11 @@
 package API_BoPhieu.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import API_BoPhieu.entity.User;
 
@@ -19,4 +22,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Boolean existsByUnitId(Integer unitId);
 
     Optional<User> findByPasswordResetToken(String token);
+
+    /**
+     * Takes row locks on the users so concurrent writes on behalf of the same user run one at a
+     * time. Rows are locked in id order, so two batches that share users cannot deadlock. Must be
+     * called inside a transaction.
+     */
+    @Query(value = "SELECT id FROM users WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Integer> lockByIds(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,28 @@
+package API_BoPhieu.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import API_BoPhieu.entity.VoteReceipt;
+
+@Repository
+public interface VoteReceiptRepository extends JpaRepository<VoteReceipt, Long> {
+    boolean existsByPollIdAndUserIdAndIdempotencyKey(Integer pollId, Integer userId,
+            String idempotencyKey);
+
+    /**
+     * Receipts of a batch of voters; filtering on poll and user lets the lookup use the unique
+     * (poll_id, user_id, idempotency_key) index. May include pairs outside the batch.
+     */
+    List<VoteReceipt> findByPollIdInAndUserIdInAndIdempotencyKeyIn(Collection<Integer> pollIds,
+            Collection<Integer> userIds, Collection<String> idempotencyKeys);
+
+    @Modifying
+    @Query("DELETE FROM VoteReceipt r WHERE r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
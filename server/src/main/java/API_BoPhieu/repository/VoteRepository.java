@@ -1,14 +1,16 @@
 package API_BoPhieu.repository;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import API_BoPhieu.entity.Vote;
 
 @Repository
-public interface VoteRepository extends JpaRepository<Vote, Integer> {
+public interface VoteRepository extends JpaRepository<Vote, Integer>, VoteRepositoryCustom {
     List<Vote> findByPollId(Integer pollId);
 
     List<Vote> findByPollIdAndUserId(Integer pollId, Integer userId);
@@ -25,4 +27,17 @@ public interface VoteRepository extends JpaRepository<Vote, Integer> {
     List<Object[]> countVotesByOptionAndPollId(@Param("pollId") Integer pollId);
 
     List<Vote> findByPollIdAndOptionId(Integer pollId, Integer optionId);
+
+    @Query("SELECT v.userId, v.optionId, v.createdAt FROM Vote v WHERE v.pollId = :pollId")
+    List<Object[]> findSelectionsByPollId(@Param("pollId") Integer pollId);
+
+    @Query("SELECT v.userId, v.optionId FROM Vote v WHERE v.pollId = :pollId"
+            + " AND v.userId IN :userIds")
+    List<Object[]> findSelectionsByPollIdAndUserIds(@Param("pollId") Integer pollId,
+            @Param("userIds") Collection<Integer> userIds);
+
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.pollId = :pollId AND v.userId IN :userIds")
+    int deleteSelections(@Param("pollId") Integer pollId,
+            @Param("userIds") Collection<Integer> userIds);
 }
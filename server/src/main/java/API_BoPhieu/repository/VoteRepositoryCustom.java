@@ -0,0 +1,23 @@
+package API_BoPhieu.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface VoteRepositoryCustom {
+    /**
+     * Inserts the selections of several users of one poll with a single multi-row INSERT.
+     *
+     * @return number of rows inserted
+     */
+    int insertSelections(Integer pollId, Map<Integer, List<Integer>> optionIdsByUser,
+            Instant createdAt);
+
+    /**
+     * Streams {@code (option id, voter email)} for every vote of the poll, ordered by option and
+     * email, through a forward-only cursor. The stream must be consumed and closed inside a
+     * transaction, and no other query may run on it until then.
+     */
+    Stream<Object[]> streamVoterEmails(Integer pollId);
+}
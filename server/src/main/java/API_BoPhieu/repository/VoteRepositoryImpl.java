@@ -0,0 +1,73 @@
+package API_BoPhieu.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class VoteRepositoryImpl implements VoteRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertSelections(final Integer pollId,
+            final Map<Integer, List<Integer>> optionIdsByUser, final Instant createdAt) {
+        final StringBuilder jpql = new StringBuilder(
+                "INSERT INTO Vote (pollId, userId, optionId, createdAt) VALUES ");
+        final List<Integer> userIds = new ArrayList<>();
+        final List<Integer> optionIds = new ArrayList<>();
+        optionIdsByUser.forEach((userId, selection) -> selection.forEach(optionId -> {
+            userIds.add(userId);
+            optionIds.add(optionId);
+        }));
+        if (optionIds.isEmpty()) {
+            return 0;
+        }
+
+        for (int i = 0; i < optionIds.size(); i++) {
+            if (i > 0) {
+                jpql.append(", ");
+            }
+            jpql.append("(:pollId, :u").append(i).append(", :o").append(i)
+                    .append(", :createdAt)");
+        }
+
+        final Query query = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < optionIds.size(); i++) {
+            query.setParameter("u" + i, userIds.get(i));
+            query.setParameter("o" + i, optionIds.get(i));
+        }
+        query.setParameter("pollId", pollId);
+        query.setParameter("createdAt", createdAt);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public Stream<Object[]> streamVoterEmails(final Integer pollId) {
+        return entityManager
+                .createQuery("SELECT v.optionId, u.email FROM Vote v JOIN User u ON u.id = v.userId"
+                        + " WHERE v.pollId = :pollId ORDER BY v.optionId, u.email", Object[].class)
+                .setParameter("pollId", pollId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamingFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true).getResultStream();
+    }
+
+    /**
+     * Connector/J buffers the whole result set unless the fetch size is Integer.MIN_VALUE, which
+     * other drivers reject.
+     */
+    private int streamingFetchSize() {
+        final boolean mysql = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect() instanceof MySQLDialect;
+        return mysql ? Integer.MIN_VALUE : 1000;
+    }
+}
@@ -0,0 +1,48 @@
+package API_BoPhieu.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import API_BoPhieu.repository.EventRepository;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+
+@Component
+public class EventAttendanceCountScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventAttendanceCountScheduler.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Value("${app.event.attendance-counts.reconcile-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Recomputes the participant and check-in counters of every event from the attendants table,
+     * one id range per transaction. Also runs at startup so events created before the counters
+     * existed are filled in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 45 3 * * *")
+    @SchedulerLock(name = "reconcileEventAttendanceCountsTask", lockAtLeastFor = "PT30S",
+            lockAtMostFor = "PT30M")
+    public void reconcileAttendanceCounts() {
+        int maxId = eventRepository.findMaxId().orElse(0);
+        int corrected = 0;
+        for (int fromId = 1; fromId <= maxId; fromId += batchSize) {
+            try {
+                corrected += eventRepository.reconcileAttendanceCounts(fromId,
+                        fromId + batchSize - 1);
+            } catch (Exception e) {
+                LOG.error("[CRON JOB] Lỗi khi đối soát số người tham gia của sự kiện ID {}-{}",
+                        fromId, fromId + batchSize - 1, e);
+            }
+        }
+        LOG.info("[CRON JOB] Đã đối soát số người tham gia, sửa {} sự kiện bị lệch.", corrected);
+    }
+}
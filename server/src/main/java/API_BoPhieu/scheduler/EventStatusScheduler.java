@@ -6,7 +6,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import API_BoPhieu.constants.EventStatus;
 import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.service.event.EventStatusCounters;
+import API_BoPhieu.service.event.EventTokenIndex;
 import jakarta.transaction.Transactional;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 
@@ -18,6 +21,12 @@ public class EventStatusScheduler {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private EventTokenIndex eventTokenIndex;
+
+    @Autowired
+    private EventStatusCounters eventStatusCounters;
+
     @Scheduled(cron = "0 0 * * * *")
     @SchedulerLock(name = "updateEventStatusesTask", lockAtLeastFor = "PT30S",
             lockAtMostFor = "PT50S")
@@ -28,12 +37,17 @@ public class EventStatusScheduler {
 
         try {
             int toOngoingCount = eventRepository.updateUpcomingToOngoing(now);
+            eventStatusCounters.dispatchBulkTransition(EventStatus.UPCOMING, EventStatus.ONGOING,
+                    toOngoingCount);
             if (toOngoingCount > 0) {
                 LOG.info("[CRON JOB] Đã cập nhật {} sự kiện từ SẮP DIỄN RA thành ĐANG DIỄN RA.",
                         toOngoingCount);
+                eventTokenIndex.warmUp();
             }
 
             int toCompletedCount = eventRepository.updateOngoingToCompleted(now);
+            eventStatusCounters.dispatchBulkTransition(EventStatus.ONGOING,
+                    EventStatus.COMPLETED, toCompletedCount);
             if (toCompletedCount > 0) {
                 LOG.info("[CRON JOB] Đã cập nhật {} sự kiện từ ĐANG DIỄN RA thành ĐÃ HOÀN THÀNH.",
                         toCompletedCount);
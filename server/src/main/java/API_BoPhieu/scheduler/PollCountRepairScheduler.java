@@ -0,0 +1,46 @@
+package API_BoPhieu.scheduler;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.service.poll.PollCountService;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+
+@Component
+public class PollCountRepairScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PollCountRepairScheduler.class);
+
+    @Autowired
+    private PollRepository pollRepository;
+
+    @Autowired
+    private PollCountService pollCountService;
+
+    /**
+     * Recomputes the stored vote counters of every poll from the votes table, one poll per
+     * transaction.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    @SchedulerLock(name = "repairPollCountsTask", lockAtLeastFor = "PT30S",
+            lockAtMostFor = "PT30M")
+    public void repairPollCounts() {
+        List<Integer> pollIds = pollRepository.findAllIds();
+        int repaired = 0;
+        for (Integer pollId : pollIds) {
+            try {
+                if (pollCountService.repair(pollId)) {
+                    repaired++;
+                }
+            } catch (Exception e) {
+                LOG.error("[CRON JOB] Lỗi khi tính lại bộ đếm phiếu của poll {}", pollId, e);
+            }
+        }
+        LOG.info("[CRON JOB] Đã kiểm tra bộ đếm phiếu của {} poll, tính lại {} poll.",
+                pollIds.size(), repaired);
+    }
+}
@@ -0,0 +1,40 @@
+package API_BoPhieu.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import API_BoPhieu.repository.VoteReceiptRepository;
+import jakarta.transaction.Transactional;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+
+@Component
+public class VoteReceiptScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VoteReceiptScheduler.class);
+
+    @Autowired
+    private VoteReceiptRepository voteReceiptRepository;
+
+    @Value("${app.poll.vote.idempotency-retention:PT24H}")
+    private Duration retention;
+
+    @Scheduled(cron = "0 15 * * * *")
+    @SchedulerLock(name = "pruneVoteReceiptsTask", lockAtLeastFor = "PT30S",
+            lockAtMostFor = "PT5M")
+    @Transactional
+    public void pruneVoteReceipts() {
+        try {
+            int deleted = voteReceiptRepository.deleteOlderThan(Instant.now().minus(retention));
+            if (deleted > 0) {
+                LOG.info("[CRON JOB] Đã xóa {} biên nhận vote đã hết hạn.", deleted);
+            }
+        } catch (Exception e) {
+            LOG.error("[CRON JOB] Lỗi khi xóa biên nhận vote đã hết hạn", e);
+        }
+    }
+}
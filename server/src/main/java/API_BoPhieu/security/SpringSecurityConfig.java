@@ -18,6 +18,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 
 @Configuration
@@ -43,6 +44,9 @@ public class SpringSecurityConfig {
                 .sessionManagement(
                         session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests((authorize) -> {
+                    // Completing an async response (vote results, SSE) re-dispatches a request
+                    // that was authorized when it arrived
+                    authorize.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     authorize.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
                     authorize.requestMatchers("/api/v1/auth/**").permitAll();
                     authorize.requestMatchers("/api/v1/uploads/**").permitAll();
@@ -3,15 +3,25 @@ package API_BoPhieu.service.attendant;
 import java.util.List;
 import java.util.Map;
 import org.springframework.web.multipart.MultipartFile;
+import API_BoPhieu.dto.attendant.BulkCheckInItem;
+import API_BoPhieu.dto.attendant.BulkCheckInResponse;
 import API_BoPhieu.dto.attendant.ParticipantResponse;
 import API_BoPhieu.dto.attendant.ParticipantsDto;
-import API_BoPhieu.entity.Attendant;
 
 public interface AttendantService {
 
     List<ParticipantResponse> getParticipantByEventId(Integer eventId);
 
-    Attendant checkIn(String eventToken, String userEmail);
+    ParticipantResponse checkIn(String eventToken, String userEmail);
+
+    /**
+     * Applies a batch of offline door scans for one event in a single transaction.
+     *
+     * @param eventId Event ID the scans belong to
+     * @param scans Scans identified by email or user ID, with the time they were scanned
+     * @return Per-scan outcomes in request order plus aggregated counts
+     */
+    BulkCheckInResponse bulkCheckIn(Integer eventId, List<BulkCheckInItem> scans);
 
     byte[] generateQrCheck(Integer eventId) throws Exception;
 
@@ -4,8 +4,11 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -13,11 +16,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import API_BoPhieu.constants.CheckInOutcome;
 import API_BoPhieu.constants.EventManagement;
 import API_BoPhieu.constants.EventStatus;
 import API_BoPhieu.constants.ImportJobStatus;
+import API_BoPhieu.dto.attendant.BulkCheckInItem;
+import API_BoPhieu.dto.attendant.BulkCheckInResponse;
+import API_BoPhieu.dto.attendant.BulkCheckInResult;
 import API_BoPhieu.dto.attendant.ParticipantDto;
 import API_BoPhieu.dto.attendant.ParticipantResponse;
 import API_BoPhieu.dto.attendant.ParticipantsDto;
@@ -30,6 +40,7 @@ import API_BoPhieu.entity.Unit;
 import API_BoPhieu.entity.User;
 import API_BoPhieu.exception.AuthException;
 import API_BoPhieu.exception.ConflictException;
+import API_BoPhieu.exception.EventException;
 import API_BoPhieu.exception.NotFoundException;
 import API_BoPhieu.repository.AttendantRepository;
 import API_BoPhieu.repository.EventManagerRepository;
@@ -40,7 +51,9 @@ import API_BoPhieu.service.email.EmailService;
 import API_BoPhieu.service.file.FileExportService;
 import API_BoPhieu.service.file.FileImportService;
 import API_BoPhieu.service.import_job.ImportJobService;
+import API_BoPhieu.service.event.EventTokenIndex;
 import API_BoPhieu.service.sse.check_in.CheckInSseService;
+import API_BoPhieu.service.user.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,6 +63,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AttendantServiceImpl implements AttendantService {
 
+    private static final int MAX_BULK_CHECK_IN = 2000;
+
     private final AttendantRepository attendantRepository;
     private final CheckInSseService sseService;
     private final QRCodeService qrCodeService;
@@ -62,6 +77,9 @@ public class AttendantServiceImpl implements AttendantService {
     private final FileExportService fileExportService;
     private final ImportJobService importJobService;
     private final ObjectMapper objectMapper;
+    private final UserSnapshotCache userSnapshotCache;
+    private final EventTokenIndex eventTokenIndex;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${api.prefix}")
     private String apiPrefix;
@@ -103,37 +121,168 @@ public class AttendantServiceImpl implements AttendantService {
     }
 
     @Override
-    public Attendant checkIn(String eventToken, String userEmail) {
+    public ParticipantResponse checkIn(String eventToken, String userEmail) {
         log.debug("Bắt đầu check-in cho người dùng '{}' với event token '{}'", userEmail,
                 eventToken);
 
-        User user = userRepository.findByEmail(userEmail).orElseThrow(
+        UserResponseDTO user = userSnapshotCache.findByEmail(userEmail).orElseThrow(
                 () -> new NotFoundException("Không tìm thấy người dùng với email: " + userEmail));
 
-        Event event = eventRepository.findByQrJoinToken(eventToken).orElseThrow(
+        Integer eventId = eventTokenIndex.resolveEventId(eventToken).orElseThrow(
                 () -> new NotFoundException("Không tìm thấy sự kiện với mã QR: " + eventToken));
 
-        Attendant attendant =
-                attendantRepository.findByUserIdAndEventId(user.getId(), event.getId()).orElseThrow(
-                        () -> new NotFoundException("Bạn chưa đăng ký tham gia sự kiện này"));
+        Instant checkedTime = Instant.now();
+        int updated = attendantRepository.markCheckedIn(eventId, user.getId(), checkedTime);
 
-        if (attendant.getCheckedTime() != null) {
-            log.warn(
-                    "Người dùng '{}' cố gắng check-in lại sự kiện '{}' trong khi đã check-in từ trước.",
-                    userEmail, event.getTitle());
-            throw new ConflictException("Bạn đã check-in sự kiện này rồi");
+        if (updated == 0) {
+            // Chỉ đọc thêm khi thất bại để phân biệt "đã check-in" với "chưa đăng ký"
+            if (attendantRepository.existsByEventIdAndUserId(eventId, user.getId())) {
+                log.warn(
+                        "Người dùng '{}' cố gắng check-in lại sự kiện ID {} trong khi đã check-in từ trước.",
+                        userEmail, eventId);
+                throw new ConflictException("Bạn đã check-in sự kiện này rồi");
+            }
+            throw new NotFoundException("Bạn chưa đăng ký tham gia sự kiện này");
+        }
+
+        eventRepository.addCheckedIn(eventId, 1);
+        log.info("Người dùng '{}' (ID: {}) đã check-in thành công sự kiện ID {}", userEmail,
+                user.getId(), eventId);
+
+        ParticipantResponse response = ParticipantResponse.builder().eventId(eventId)
+                .checkInTime(checkedTime).user(user).build();
+        sseService.sendEventToClients(eventId, "participant-checked-in", response);
+
+        return response;
+    }
+
+    @Override
+    public BulkCheckInResponse bulkCheckIn(Integer eventId, List<BulkCheckInItem> scans) {
+        if (scans == null || scans.isEmpty()) {
+            throw new EventException("Danh sách check-in trống");
+        }
+        if (scans.size() > MAX_BULK_CHECK_IN) {
+            throw new EventException(
+                    "Mỗi lần chỉ được gửi tối đa " + MAX_BULK_CHECK_IN + " lượt check-in");
+        }
+        Event event = eventRepository.findById(eventId).orElseThrow(
+                () -> new NotFoundException("Không tìm thấy sự kiện với ID: " + eventId));
+        if (event.getStatus() == EventStatus.CANCELLED) {
+            log.warn("Check-in hàng loạt thất bại: Sự kiện ID {} đã bị hủy.", eventId);
+            throw new ConflictException("Sự kiện đã bị hủy, không thể check-in");
+        }
+        log.info("Bắt đầu check-in hàng loạt {} lượt quét cho sự kiện ID {}", scans.size(),
+                eventId);
+
+        List<String> emails = scans.stream().map(BulkCheckInItem::getEmail)
+                .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Map<String, User> usersByEmail = emails.isEmpty() ? Collections.emptyMap()
+                : userRepository.findAllByEmailIn(emails).stream()
+                        .collect(Collectors.toMap(User::getEmail, user -> user));
+
+        Map<Integer, User> usersById = new HashMap<>();
+        usersByEmail.values().forEach(user -> usersById.put(user.getId(), user));
+        List<Integer> missingUserIds = scans.stream()
+                .filter(scan -> scan.getEmail() == null && scan.getUserId() != null)
+                .map(BulkCheckInItem::getUserId).filter(id -> !usersById.containsKey(id))
+                .distinct().collect(Collectors.toList());
+        if (!missingUserIds.isEmpty()) {
+            userRepository.findAllById(missingUserIds)
+                    .forEach(user -> usersById.put(user.getId(), user));
+        }
+
+        Instant now = Instant.now();
+        List<User> resolvedUsers = new ArrayList<>(scans.size());
+        Map<Integer, Instant> requestedTimes = new HashMap<>();
+        for (BulkCheckInItem scan : scans) {
+            User user = scan.getEmail() != null ? usersByEmail.get(scan.getEmail())
+                    : usersById.get(scan.getUserId());
+            resolvedUsers.add(user);
+            if (user != null) {
+                Instant scannedAt = scan.getScannedAt() == null || scan.getScannedAt().isAfter(now)
+                        ? now
+                        : scan.getScannedAt();
+                requestedTimes.merge(user.getId(), scannedAt,
+                        (first, second) -> first.isBefore(second) ? first : second);
+            }
+        }
+
+        Map<Integer, Attendant> attendantsByUserId = requestedTimes.isEmpty()
+                ? Collections.emptyMap()
+                : attendantRepository
+                        .lockAllByEventIdAndUserIdIn(eventId,
+                                new ArrayList<>(requestedTimes.keySet()))
+                        .stream().collect(Collectors.toMap(Attendant::getUserId, a -> a));
+
+        Map<Integer, Instant> toCheckIn = new LinkedHashMap<>();
+        requestedTimes.forEach((userId, checkedTime) -> {
+            Attendant attendant = attendantsByUserId.get(userId);
+            if (attendant != null && attendant.getCheckedTime() == null) {
+                toCheckIn.put(userId, checkedTime);
+            }
+        });
+
+        int updated = attendantRepository.markCheckedInBatch(eventId, toCheckIn);
+        if (updated > 0) {
+            eventRepository.addCheckedIn(eventId, updated);
+        }
+        if (updated != toCheckIn.size()) {
+            log.warn("Check-in hàng loạt sự kiện ID {}: dự kiến cập nhật {} dòng nhưng thực tế {}",
+                    eventId, toCheckIn.size(), updated);
         }
 
-        attendant.setCheckedTime(Instant.now());
-        Attendant updatedAttendant = attendantRepository.save(attendant);
+        List<BulkCheckInResult> results = new ArrayList<>(scans.size());
+        List<ParticipantResponse> checkedInParticipants = new ArrayList<>();
+        Set<Integer> reportedUserIds = new HashSet<>();
+        for (int i = 0; i < scans.size(); i++) {
+            BulkCheckInItem scan = scans.get(i);
+            User user = resolvedUsers.get(i);
+            BulkCheckInResult.BulkCheckInResultBuilder result = BulkCheckInResult.builder()
+                    .email(scan.getEmail()).userId(user != null ? user.getId() : scan.getUserId());
 
-        log.info("Người dùng '{}' (ID: {}) đã check-in thành công sự kiện '{}' (ID: {})",
-                user.getEmail(), user.getId(), event.getTitle(), event.getId());
+            if (user == null) {
+                results.add(result.outcome(CheckInOutcome.USER_NOT_FOUND).build());
+                continue;
+            }
+            Attendant attendant = attendantsByUserId.get(user.getId());
+            if (attendant == null) {
+                results.add(result.outcome(CheckInOutcome.NOT_REGISTERED).build());
+                continue;
+            }
 
-        ParticipantResponse response = mapToParticipantResponse(updatedAttendant, user);
-        sseService.sendEventToClients(event.getId(), "participant-checked-in", response);
+            Instant newCheckedTime = toCheckIn.get(user.getId());
+            if (newCheckedTime != null && reportedUserIds.add(user.getId())) {
+                attendant.setCheckedTime(newCheckedTime);
+                checkedInParticipants.add(mapToParticipantResponse(attendant, user));
+                results.add(result.outcome(CheckInOutcome.CHECKED_IN).checkInTime(newCheckedTime)
+                        .build());
+            } else {
+                results.add(result.outcome(CheckInOutcome.ALREADY_CHECKED_IN)
+                        .checkInTime(newCheckedTime != null ? newCheckedTime
+                                : attendant.getCheckedTime())
+                        .build());
+            }
+        }
+
+        if (!checkedInParticipants.isEmpty()) {
+            sseService.sendEventToClients(eventId, "participants-checked-in",
+                    checkedInParticipants);
+        }
 
-        return updatedAttendant;
+        Map<CheckInOutcome, Long> outcomeCounts = results.stream().collect(
+                Collectors.groupingBy(BulkCheckInResult::getOutcome, Collectors.counting()));
+        log.info("Hoàn tất check-in hàng loạt cho sự kiện ID {}: {} thành công / {} lượt quét",
+                eventId, checkedInParticipants.size(), scans.size());
+
+        return BulkCheckInResponse.builder().eventId(eventId).total(scans.size())
+                .checkedIn(outcomeCounts.getOrDefault(CheckInOutcome.CHECKED_IN, 0L).intValue())
+                .alreadyCheckedIn(outcomeCounts
+                        .getOrDefault(CheckInOutcome.ALREADY_CHECKED_IN, 0L).intValue())
+                .notRegistered(
+                        outcomeCounts.getOrDefault(CheckInOutcome.NOT_REGISTERED, 0L).intValue())
+                .userNotFound(
+                        outcomeCounts.getOrDefault(CheckInOutcome.USER_NOT_FOUND, 0L).intValue())
+                .results(results).build();
     }
 
     @Override
@@ -148,10 +297,9 @@ public class AttendantServiceImpl implements AttendantService {
     @Override
     public void deleteParticipantByEventIdAndUserId(Integer eventId, Integer userId) {
         log.debug("Bắt đầu xóa người tham gia ID {} khỏi sự kiện ID {}", userId, eventId);
-        Attendant attendant =
-                attendantRepository.findByUserIdAndEventId(userId, eventId).orElseThrow(
-                        () -> new NotFoundException("Người tham gia không tồn tại trong sự kiện."));
-        attendantRepository.delete(attendant);
+        if (removeAttendants(eventId, List.of(userId)) == 0) {
+            throw new NotFoundException("Người tham gia không tồn tại trong sự kiện.");
+        }
         log.info("Đã xóa thành công người tham gia ID {} khỏi sự kiện ID {}", userId, eventId);
 
     }
@@ -210,9 +358,7 @@ public class AttendantServiceImpl implements AttendantService {
             return Collections.emptyList();
         }
 
-        int currentParticipantsCount = attendantRepository.countByEventId(eventId);
-        if (event.getMaxParticipants() != null
-                && currentParticipantsCount + newParticipants.size() > event.getMaxParticipants()) {
+        if (eventRepository.reserveSeats(eventId, newParticipants.size()) == 0) {
             log.warn(
                     "Thêm người tham gia thất bại: Vượt quá số lượng tối đa cho phép của sự kiện ID {}",
                     eventId);
@@ -234,16 +380,7 @@ public class AttendantServiceImpl implements AttendantService {
         Map<Integer, User> userMap =
                 newParticipants.stream().collect(Collectors.toMap(User::getId, user -> user));
 
-        for (User participant : newParticipants) {
-            try {
-                emailService.sendEventJoinNotificationEmail(participant, event);
-                log.debug("Đã gửi email thông báo tham gia sự kiện cho người dùng '{}'",
-                        participant.getEmail());
-            } catch (Exception e) {
-                log.error("Lỗi khi gửi email thông báo tham gia sự kiện cho người dùng '{}': {}",
-                        participant.getEmail(), e.getMessage());
-            }
-        }
+        emailService.sendEventJoinNotificationEmailsAfterCommit(newParticipants, event);
 
         return savedAttendants.stream().map(attendant -> mapToParticipantResponse(attendant,
                 userMap.get(attendant.getUserId()))).collect(Collectors.toList());
@@ -299,8 +436,7 @@ public class AttendantServiceImpl implements AttendantService {
         }).collect(Collectors.toList());
 
         if (!finalUserIdsToDelete.isEmpty()) {
-            long deletedCount =
-                    attendantRepository.deleteByEventIdAndUserIdIn(eventId, finalUserIdsToDelete);
+            int deletedCount = removeAttendants(eventId, finalUserIdsToDelete);
             log.info("Đã xóa thành công {}/{} người tham gia khỏi sự kiện ID {}. Yêu cầu bởi '{}'.",
                     deletedCount, userIdsToDelete.size(), eventId, removerEmail);
         } else {
@@ -326,7 +462,7 @@ public class AttendantServiceImpl implements AttendantService {
             throw new ConflictException("Chỉ có thể hủy đăng ký cho các sự kiện sắp diễn ra");
         }
 
-        long deletedCount = attendantRepository.deleteByEventIdAndUserId(eventId, user.getId());
+        int deletedCount = removeAttendants(eventId, List.of(user.getId()));
 
         if (deletedCount == 0) {
             log.warn(
@@ -389,9 +525,7 @@ public class AttendantServiceImpl implements AttendantService {
 
         int alreadyJoinedCount = users.size() - newParticipants.size();
 
-        int currentParticipantsCount = attendantRepository.countByEventId(eventId);
-        if (event.getMaxParticipants() != null
-                && currentParticipantsCount + newParticipants.size() > event.getMaxParticipants()) {
+        if (eventRepository.reserveSeats(eventId, newParticipants.size()) == 0) {
             throw new ConflictException(
                     "Số lượng người tham gia (bao gồm import mới) vượt quá giới hạn tối đa của sự kiện");
         }
@@ -405,14 +539,7 @@ public class AttendantServiceImpl implements AttendantService {
 
         attendantRepository.saveAll(attendantsToSave);
 
-        for (User participant : newParticipants) {
-            try {
-                emailService.sendEventJoinNotificationEmail(participant, event);
-            } catch (Exception e) {
-                log.error("Lỗi khi gửi email cho user {}: {}", participant.getEmail(),
-                        e.getMessage());
-            }
-        }
+        emailService.sendEventJoinNotificationEmailsAfterCommit(newParticipants, event);
 
         int successCount = attendantsToSave.size();
         int skippedCount = invalidFormatCount + notFoundInDbCount + alreadyJoinedCount;
@@ -434,6 +561,7 @@ public class AttendantServiceImpl implements AttendantService {
 
     @Override
     @Async("importTaskExecutor")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void importParticipantsAsync(final Integer eventId, final byte[] fileContent,
             final String fileName, final String managerEmail, final Integer jobId) {
         log.info("Starting async import for job ID: {}, event ID: {}, file: {}", jobId, eventId,
@@ -511,13 +639,6 @@ public class AttendantServiceImpl implements AttendantService {
                                                                                            // after
                                                                                            // filtering
 
-            final int currentParticipantsCount = attendantRepository.countByEventId(eventId);
-            if (event.getMaxParticipants() != null && currentParticipantsCount
-                    + newParticipants.size() > event.getMaxParticipants()) {
-                throw new ConflictException(
-                        "Số lượng người tham gia (bao gồm import mới) vượt quá giới hạn tối đa của sự kiện");
-            }
-
             // Step 5: Save attendants (90% progress)
             final List<Attendant> attendantsToSave = newParticipants.stream().map(user -> {
                 final Attendant attendant = new Attendant();
@@ -526,7 +647,14 @@ public class AttendantServiceImpl implements AttendantService {
                 return attendant;
             }).collect(Collectors.toList());
 
-            attendantRepository.saveAll(attendantsToSave);
+            // Reserving locks the event row; commit before the emails below are sent
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (eventRepository.reserveSeats(eventId, newParticipants.size()) == 0) {
+                    throw new ConflictException(
+                            "Số lượng người tham gia (bao gồm import mới) vượt quá giới hạn tối đa của sự kiện");
+                }
+                attendantRepository.saveAll(attendantsToSave);
+            });
             importJobService.updateImportJobProgress(jobId, (int) (totalProcessed * 0.9)); // 90%
                                                                                            // after
                                                                                            // saving
@@ -566,6 +694,24 @@ public class AttendantServiceImpl implements AttendantService {
         }
     }
 
+    /**
+     * Deletes the registrations of the given users and gives their seats back to the event. The rows
+     * are locked first so a concurrent check-in cannot change how many of them were checked in.
+     *
+     * @return the number of registrations deleted
+     */
+    private int removeAttendants(Integer eventId, List<Integer> userIds) {
+        List<Attendant> attendants =
+                attendantRepository.lockAllByEventIdAndUserIdIn(eventId, userIds);
+        if (attendants.isEmpty()) {
+            return 0;
+        }
+        int checkedIn = (int) attendants.stream().filter(a -> a.getCheckedTime() != null).count();
+        attendantRepository.deleteAllInBatch(attendants);
+        eventRepository.releaseSeats(eventId, attendants.size(), checkedIn);
+        return attendants.size();
+    }
+
     private ParticipantResponse mapToParticipantResponse(Attendant attendant, User user) {
         UserResponseDTO userResponse = UserResponseDTO.builder().id(user.getId())
                 .email(user.getEmail()).name(user.getName()).phoneNumber(user.getPhoneNumber())
@@ -1,5 +1,6 @@
 package API_BoPhieu.service.email;
 
+import java.util.List;
 import API_BoPhieu.entity.Event;
 import API_BoPhieu.entity.User;
 
@@ -7,4 +8,11 @@ public interface EmailService {
     void sendPasswordResetEmail(User user, String token);
 
     void sendEventJoinNotificationEmail(User user, Event event);
+
+    /**
+     * Sends the join notification to every user once the current transaction commits, or right
+     * away when there is none, so no row lock taken by the registration is held through SMTP.
+     * Failures are logged per user and never propagate.
+     */
+    void sendEventJoinNotificationEmailsAfterCommit(List<User> users, Event event);
 }
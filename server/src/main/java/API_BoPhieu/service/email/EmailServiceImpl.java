@@ -3,18 +3,28 @@ package API_BoPhieu.service.email;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import API_BoPhieu.entity.Event;
 import API_BoPhieu.entity.User;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
@@ -22,6 +32,11 @@ public class EmailServiceImpl implements EmailService {
     @Value("${app.frontend.url}")
     private String frontendUrl;
 
+    /** Present only in virtual-thread mode, see {@code AsyncConfig#mailSendExecutor}. */
+    @Autowired(required = false)
+    @Qualifier("mailSendExecutor")
+    private Executor mailSendExecutor;
+
     @Override
     public void sendPasswordResetEmail(User user, String token) {
         String resetUrl = frontendUrl + "/reset-password?token=" + token;
@@ -36,7 +51,7 @@ public class EmailServiceImpl implements EmailService {
             helper.setSubject("Yêu cầu đặt lại mật khẩu cho tài khoản Event Management");
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
+            send(message);
         } catch (MessagingException e) {
             throw new RuntimeException("Lỗi khi gửi email: " + e.getMessage(), e);
         }
@@ -157,13 +172,44 @@ public class EmailServiceImpl implements EmailService {
             helper.setSubject("🎉 Chúc mừng! Bạn đã tham gia sự kiện: " + event.getTitle());
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
+            send(message);
         } catch (MessagingException e) {
             throw new RuntimeException(
                     "Lỗi khi gửi email thông báo tham gia sự kiện: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public void sendEventJoinNotificationEmailsAfterCommit(List<User> users, Event event) {
+        if (users.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            sendEventJoinNotificationEmails(users, event);
+                        }
+                    });
+        } else {
+            sendEventJoinNotificationEmails(users, event);
+        }
+    }
+
+    private void sendEventJoinNotificationEmails(List<User> users, Event event) {
+        for (User user : users) {
+            try {
+                sendEventJoinNotificationEmail(user, event);
+                log.debug("Đã gửi email thông báo tham gia sự kiện cho người dùng '{}'",
+                        user.getEmail());
+            } catch (Exception e) {
+                log.error("Lỗi khi gửi email thông báo tham gia sự kiện cho người dùng '{}': {}",
+                        user.getEmail(), e.getMessage());
+            }
+        }
+    }
+
     private String buildEventJoinNotificationEmailTemplate(User user, Event event) {
         ZoneId zoneId = ZoneId.of("Asia/Ho_Chi_Minh");
         ZonedDateTime startZoned = event.getStartTime().atZone(zoneId);
@@ -339,4 +385,19 @@ public class EmailServiceImpl implements EmailService {
                         startTime, endTime, event.getLocation(), eventUrl);
     }
 
+
+    private void send(MimeMessage message) {
+        if (mailSendExecutor == null) {
+            mailSender.send(message);
+            return;
+        }
+        try {
+            CompletableFuture.runAsync(() -> mailSender.send(message), mailSendExecutor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
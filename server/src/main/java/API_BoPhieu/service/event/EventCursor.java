@@ -0,0 +1,80 @@
+package API_BoPhieu.service.event;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import API_BoPhieu.exception.EventException;
+
+/**
+ * Opaque continuation token of the event list: the sort it was issued for and the (sort key, id)
+ * of the last event returned. Encoded as URL-safe base64 so clients treat it as a string.
+ */
+final class EventCursor {
+
+    /**
+     * Sortable event attributes and how to read a cursor value back into their type. All are
+     * non-null columns, as keyset pagination requires.
+     */
+    private static final Map<String, Function<String, Object>> SORT_KEYS = Map.of(
+            "startTime", Instant::parse, "endTime", Instant::parse, "createdAt", Instant::parse,
+            "updatedAt", Instant::parse, "title", value -> value, "id", Integer::valueOf);
+
+    private static final String SEPARATOR = "\n";
+
+    private EventCursor() {
+    }
+
+    /**
+     * @return the sort the list is scrolled in, with the id as tiebreaker
+     */
+    static Sort sort(final String sortBy, final String sortDir) {
+        if (!SORT_KEYS.containsKey(sortBy)) {
+            throw new EventException("Không hỗ trợ sắp xếp theo: " + sortBy);
+        }
+        final Sort.Direction direction = Sort.Direction.ASC.name().equalsIgnoreCase(sortDir)
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        return "id".equals(sortBy) ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    static String encode(final Sort sort, final KeysetScrollPosition position) {
+        final Sort.Order order = sort.iterator().next();
+        final String token = String.join(SEPARATOR, order.getProperty(),
+                order.getDirection().name(), String.valueOf(position.getKeys().get("id")),
+                String.valueOf(position.getKeys().get(order.getProperty())));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return where to continue scrolling; the start of the list if there is no cursor
+     */
+    static ScrollPosition decode(final String cursor, final Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        final Sort.Order order = sort.iterator().next();
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            if (parts.length != 4 || !parts[0].equals(order.getProperty())
+                    || !parts[1].equals(order.getDirection().name())) {
+                throw new EventException("Cursor không khớp với cách sắp xếp hiện tại");
+            }
+            final Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(order.getProperty(), SORT_KEYS.get(order.getProperty()).apply(parts[3]));
+            keys.put("id", Integer.valueOf(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new EventException("Cursor không hợp lệ");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package API_BoPhieu.service.event;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from words to event ids. Words are lower-cased and stripped of diacritics, so
+ * "Hội nghị Đà Nẵng" and "hoi nghi da nang" index and match the same, and every query word
+ * matches as a prefix so results narrow as the user types. Writes are serialized; searches run
+ * concurrently with them.
+ */
+public class EventKeywordIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ConcurrentSkipListMap<String, Set<Integer>> eventIdsByWord =
+            new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Integer, Set<String>> wordsByEvent = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes (or re-indexes) an event under the words of the given texts.
+     */
+    public synchronized void put(final Integer eventId, final String... texts) {
+        final Set<String> words = new HashSet<>();
+        for (final String text : texts) {
+            words.addAll(words(text));
+        }
+        final Set<String> previous = wordsByEvent.put(eventId, words);
+        if (previous != null) {
+            previous.stream().filter(word -> !words.contains(word))
+                    .forEach(word -> unlink(word, eventId));
+        }
+        words.forEach(word -> eventIdsByWord
+                .computeIfAbsent(word, k -> ConcurrentHashMap.newKeySet()).add(eventId));
+    }
+
+    public synchronized void remove(final Integer eventId) {
+        final Set<String> previous = wordsByEvent.remove(eventId);
+        if (previous != null) {
+            previous.forEach(word -> unlink(word, eventId));
+        }
+    }
+
+    /**
+     * @return ids of the events that have, for every word of the query, a word starting with it;
+     *         every indexed event if the query has no words
+     */
+    public Set<Integer> search(final String query) {
+        final List<String> prefixes = new ArrayList<>(words(query));
+        if (prefixes.isEmpty()) {
+            return new HashSet<>(wordsByEvent.keySet());
+        }
+        // Longer prefixes match fewer words: start with them to keep the candidate set small.
+        prefixes.sort(Comparator.comparingInt(String::length).reversed());
+        Set<Integer> result = null;
+        for (final String prefix : prefixes) {
+            final Set<Integer> matches = new HashSet<>();
+            eventIdsByWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+                    .forEach(matches::addAll);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the indexed event ids
+     */
+    public Set<Integer> eventIds() {
+        return new HashSet<>(wordsByEvent.keySet());
+    }
+
+    public int size() {
+        return wordsByEvent.size();
+    }
+
+    /**
+     * @return the distinct normalized words of the text, in order of appearance
+     */
+    static Set<String> words(final String text) {
+        final Set<String> words = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        final String folded = MARKS
+                .matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("").replace('đ', 'd');
+        for (final String word : SEPARATORS.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private void unlink(final String word, final Integer eventId) {
+        eventIdsByWord.computeIfPresent(word, (k, eventIds) -> {
+            eventIds.remove(eventId);
+            return eventIds.isEmpty() ? null : eventIds;
+        });
+    }
+}
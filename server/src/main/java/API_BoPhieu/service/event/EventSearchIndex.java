@@ -0,0 +1,148 @@
+package API_BoPhieu.service.event;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.dto.event.EventSearchDocument;
+import API_BoPhieu.entity.Event;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process {@link EventKeywordIndex} over the title, location and description of every event,
+ * so the event search box does not scan the events table with {@code LIKE '%kw%'} on every
+ * keystroke. Built at startup and kept current by {@link EventServiceImpl}, whose writes are
+ * relayed to every node over the {@link SseBroadcastBus} once their transaction commits. A
+ * periodic pass over the table corrects what the bus missed.
+ */
+@Component
+@Slf4j
+public class EventSearchIndex {
+
+    static final String TOPIC = "event-search";
+    private static final int WARM_UP_PAGE_SIZE = 500;
+
+    private final EventRepository eventRepository;
+    private final SseBroadcastBus broadcastBus;
+    private final ObjectMapper objectMapper;
+    private final int maxMatches;
+    private final EventKeywordIndex index = new EventKeywordIndex();
+    private final AtomicLong updateSequence = new AtomicLong();
+    private final Map<Integer, Long> updatedAtByEvent = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public EventSearchIndex(final EventRepository eventRepository,
+            final SseBroadcastBus broadcastBus, final ObjectMapper objectMapper,
+            @Value("${app.event.search.max-matches:5000}") final int maxMatches) {
+        this.eventRepository = eventRepository;
+        this.broadcastBus = broadcastBus;
+        this.objectMapper = objectMapper;
+        this.maxMatches = maxMatches;
+    }
+
+    @PostConstruct
+    void subscribeToBus() {
+        broadcastBus.subscribe(TOPIC, broadcast -> {
+            final EventSearchDocument document =
+                    broadcast.data() instanceof EventSearchDocument local ? local
+                            : objectMapper.convertValue(broadcast.data(),
+                                    EventSearchDocument.class);
+            synchronized (index) {
+                updatedAtByEvent.put(document.getEventId(), updateSequence.incrementAndGet());
+                index.put(document.getEventId(), document.getTitle(), document.getLocation(),
+                        document.getDescription());
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reindex();
+        ready = true;
+        log.info("EventSearchIndex: Đã lập chỉ mục tìm kiếm cho {} sự kiện", index.size());
+    }
+
+    /**
+     * Re-reads the text of every event, correcting entries whose update the bus missed.
+     */
+    @Scheduled(fixedDelayString = "${app.event.search.reindex-interval-ms:3600000}",
+            initialDelayString = "${app.event.search.reindex-interval-ms:3600000}")
+    public void reconcile() {
+        reindex();
+        log.debug("EventSearchIndex: Đã đối chiếu chỉ mục tìm kiếm của {} sự kiện", index.size());
+    }
+
+    /**
+     * Indexes the events page by page and drops the ones no longer in the table. Events updated
+     * over the bus after the pass started are left alone: the page read may predate the update.
+     */
+    private void reindex() {
+        final long startedAt = updateSequence.get();
+        final Set<Integer> stored = new HashSet<>();
+        int afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = eventRepository.findSearchTextsAfter(afterId,
+                    PageRequest.of(0, WARM_UP_PAGE_SIZE));
+            for (final Object[] row : rows) {
+                afterId = (Integer) row[0];
+                stored.add(afterId);
+                synchronized (index) {
+                    if (!updatedSince(afterId, startedAt)) {
+                        index.put(afterId, (String) row[1], (String) row[2], (String) row[3]);
+                    }
+                }
+            }
+        } while (rows.size() == WARM_UP_PAGE_SIZE);
+
+        for (final Integer eventId : index.eventIds()) {
+            synchronized (index) {
+                if (!stored.contains(eventId) && !updatedSince(eventId, startedAt)) {
+                    index.remove(eventId);
+                }
+            }
+        }
+        updatedAtByEvent.values().removeIf(updatedAt -> updatedAt <= startedAt);
+    }
+
+    private boolean updatedSince(final Integer eventId, final long sequence) {
+        return updatedAtByEvent.getOrDefault(eventId, 0L) > sequence;
+    }
+
+    /**
+     * Re-indexes the event on every node. Call inside the transaction that changes its title,
+     * location or description.
+     */
+    public void dispatchIndexChange(final Event event) {
+        broadcastBus.publish(new SseBroadcast(TOPIC, event.getId(), "index",
+                EventSearchDocument.builder().eventId(event.getId()).title(event.getTitle())
+                        .location(event.getLocation()).description(event.getDescription())
+                        .build()));
+    }
+
+    /**
+     * @return ids of the events matching every word of {@code query} by prefix, or empty if the
+     *         index cannot answer: still warming up, or too many matches to filter by id
+     */
+    public Optional<Set<Integer>> search(final String query) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        final Set<Integer> eventIds = index.search(query);
+        return eventIds.size() > maxMatches ? Optional.empty() : Optional.of(eventIds);
+    }
+}
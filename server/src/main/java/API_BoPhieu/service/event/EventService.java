@@ -6,6 +6,7 @@ import java.util.Optional;
 
 import API_BoPhieu.constants.EventStatus;
 import API_BoPhieu.dto.common.PageResponse;
+import API_BoPhieu.dto.event.EventCursorPageWithCountersResponse;
 import API_BoPhieu.dto.event.EventDetailResponse;
 import API_BoPhieu.dto.event.EventDto;
 import API_BoPhieu.dto.event.EventPageWithCountersResponse;
@@ -33,5 +34,13 @@ public interface EventService {
         EventPageWithCountersResponse getManagedEvents(int page, int size, String sortBy, String sortDir,
                         EventStatus status, String search, String email);
 
+        EventCursorPageWithCountersResponse scrollEvents(String cursor, int size, String sortBy,
+                        String sortDir, EventStatus status, String search, boolean includeTotal,
+                        String email);
+
+        EventCursorPageWithCountersResponse scrollManagedEvents(String cursor, int size,
+                        String sortBy, String sortDir, EventStatus status, String search,
+                        boolean includeTotal, String email);
+
         void cancelEvent(Integer id);
 }
@@ -2,31 +2,35 @@ package API_BoPhieu.service.event;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.EnumMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import API_BoPhieu.constants.EventChangeType;
 import API_BoPhieu.constants.EventManagement;
 import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.dto.common.CursorPageResponse;
 import API_BoPhieu.dto.common.PageResponse;
 import API_BoPhieu.dto.event.EventCountersResponse;
+import API_BoPhieu.dto.event.EventCursorPageWithCountersResponse;
 import API_BoPhieu.dto.event.EventDetailResponse;
 import API_BoPhieu.dto.event.EventDto;
+import API_BoPhieu.dto.event.EventPageRow;
 import API_BoPhieu.dto.event.EventPageWithCountersResponse;
 import API_BoPhieu.dto.event.EventResponse;
 import API_BoPhieu.dto.event.ManagerInfo;
@@ -67,6 +71,9 @@ public class EventServiceImpl implements EventService {
     private final UserRepository userRepository;
     private final EventManagerRepository eventManagerRepository;
     private final EventListSseService eventListSseService;
+    private final EventTokenIndex eventTokenIndex;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventStatusCounters eventStatusCounters;
 
     private final EmailService emailService;
 
@@ -80,13 +87,16 @@ public class EventServiceImpl implements EventService {
         newEvent.setQrJoinToken(qrCodeService.generateQRToken());
         newEvent.setCreateBy(user.getId());
         newEvent = eventRepository.save(newEvent);
+        eventTokenIndex.dispatchRegister(newEvent.getQrJoinToken(), newEvent.getId());
+        eventSearchIndex.dispatchIndexChange(newEvent);
+        eventStatusCounters.dispatchCreated(newEvent.getStatus());
 
         log.info("Sự kiện '{}' đã được tạo bởi người dùng '{}'", newEvent.getTitle(), creatorEmail);
 
-        eventListSseService.dispatchListUpdate();
-
         EventResponse eventResponse = eventMapper.toEventResponse(newEvent);
         eventResponse.setCurrentParticipants(0);
+        eventListSseService.dispatchEventChange(EventChangeType.CREATED,
+                toListEntry(newEvent));
         return eventResponse;
     }
 
@@ -114,6 +124,7 @@ public class EventServiceImpl implements EventService {
 
         log.debug("Bắt đầu cập nhật sự kiện ID: {} với dữ liệu DTO", eventId);
 
+        EventStatus previousStatus = event.getStatus();
         event.setTitle(eventDto.getTitle());
         event.setDescription(eventDto.getDescription());
         event.setStartTime(eventDto.getStartTime());
@@ -149,13 +160,12 @@ public class EventServiceImpl implements EventService {
         }
 
         event = eventRepository.save(event);
+        eventSearchIndex.dispatchIndexChange(event);
+        eventStatusCounters.dispatchStatusChange(eventId, previousStatus, event.getStatus());
 
-        eventListSseService.dispatchListUpdate();
-
-        EventResponse eventResponse = eventMapper.toEventResponse(event);
-        eventResponse.setCurrentParticipants(attendantRepository.countByEventId(eventId));
+        eventListSseService.dispatchEventChange(EventChangeType.UPDATED, toListEntry(event));
 
-        return eventResponse;
+        return eventMapper.toEventResponse(event);
     }
 
     @Override
@@ -184,13 +194,11 @@ public class EventServiceImpl implements EventService {
         event.setBanner(newBannerKey);
         event = eventRepository.save(event);
 
-        eventListSseService.dispatchListUpdate();
+        eventListSseService.dispatchEventChange(EventChangeType.UPDATED, toListEntry(event));
         log.info("Upload và cập nhật banner thành công cho sự kiện ID {}. Banner mới: {}", eventId,
                 newBannerKey);
 
-        EventResponse eventResponse = eventMapper.toEventResponse(event);
-        eventResponse.setCurrentParticipants(attendantRepository.countByEventId(eventId));
-        return eventResponse;
+        return eventMapper.toEventResponse(event);
     }
 
     @Override
@@ -215,24 +223,23 @@ public class EventServiceImpl implements EventService {
         User user = userRepository.findByEmail(creatorEmail).orElseThrow(
                 () -> new AuthException("Không tìm thấy người dùng với email: " + creatorEmail));
 
-        Event event = eventRepository.findByQrJoinToken(eventToken).orElseThrow(
-                () -> new NotFoundException("Không tìm thấy sự kiện với mã token: " + eventToken));
+        Event event = eventTokenIndex.resolveEventId(eventToken).flatMap(eventRepository::findById)
+                .orElseThrow(() -> new NotFoundException(
+                        "Không tìm thấy sự kiện với mã token: " + eventToken));
 
         if (attendantRepository.existsByUserIdAndEventId(event.getId(), user.getId())) {
             throw new ConflictException("Bạn đã tham gia sự kiện này rồi");
         }
 
-        Integer currentParticipants = attendantRepository.countByEventId(event.getId());
-        if (event.getMaxParticipants() != null
-                && currentParticipants >= event.getMaxParticipants()) {
-            throw new ConflictException("Sự kiện đã đạt số lượng người tham gia tối đa");
-        }
-
         if (event.getStatus() != EventStatus.UPCOMING) {
             throw new EventException(
                     "Sự kiện không còn khả dụng để tham gia. Chỉ có thể tham gia các sự kiện sắp diễn ra");
         }
 
+        if (eventRepository.reserveSeats(event.getId(), 1) == 0) {
+            throw new ConflictException("Sự kiện đã đạt số lượng người tham gia tối đa");
+        }
+
         Attendant newAttendant = new Attendant();
         newAttendant.setEventId(event.getId());
         newAttendant.setUserId(user.getId());
@@ -241,14 +248,7 @@ public class EventServiceImpl implements EventService {
 
         log.info("Người dùng '{}' đã tham gia sự kiện '{}'", user.getEmail(), event.getTitle());
 
-        try {
-            emailService.sendEventJoinNotificationEmail(user, event);
-            log.debug("Đã gửi email thông báo tham gia sự kiện cho người dùng '{}'",
-                    user.getEmail());
-        } catch (Exception e) {
-            log.error("Lỗi khi gửi email thông báo tham gia sự kiện cho người dùng '{}': {}",
-                    user.getEmail(), e.getMessage());
-        }
+        emailService.sendEventJoinNotificationEmailsAfterCommit(List.of(user), event);
 
         return savedAttendant;
     }
@@ -321,9 +321,7 @@ public class EventServiceImpl implements EventService {
                 sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending()
                         : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        Specification<Event> spec = Specification.where(EventSpecification.hasStatus(status))
-                .and(EventSpecification.searchByKeyword(search));
-        Page<Event> eventPage = eventRepository.findAll(spec, pageable);
+        Page<Event> eventPage = eventRepository.findAll(allEvents(status, search), pageable);
         PageResponse<EventResponse> pageResponse = createPageResponse(eventPage, userOptional);
         EventCountersResponse counters = createCountersResponse(userOptional);
         return EventPageWithCountersResponse.builder().pagination(pageResponse).counters(counters)
@@ -336,10 +334,13 @@ public class EventServiceImpl implements EventService {
         log.debug("Nhận yêu cầu hủy sự kiện với ID: {}", id);
         Event event = eventRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy sự kiện với ID: " + id));
+        EventStatus previousStatus = event.getStatus();
         event.setStatus(EventStatus.CANCELLED);
         eventRepository.save(event);
+        eventTokenIndex.dispatchEvict(event.getQrJoinToken(), id);
+        eventStatusCounters.dispatchStatusChange(id, previousStatus, EventStatus.CANCELLED);
 
-        eventListSseService.dispatchListUpdate();
+        eventListSseService.dispatchEventChange(EventChangeType.CANCELLED, toListEntry(event));
         log.info("Sự kiện '{}' (ID: {}) đã được hủy.", event.getTitle(), id);
     }
 
@@ -355,12 +356,8 @@ public class EventServiceImpl implements EventService {
                         : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Specification<Event> spec = Specification
-                .where(EventSpecification.isManagedByUserExists(user.getId()))
-                .and(EventSpecification.isNotCancelled()).and(EventSpecification.hasStatus(status))
-                .and(EventSpecification.searchByKeyword(search));
-
-        Page<Event> eventPage = eventRepository.findAll(spec, pageable);
+        Page<Event> eventPage =
+                eventRepository.findAll(managedEvents(user, status, search), pageable);
 
         PageResponse<EventResponse> pageResponse = createPageResponse(eventPage, Optional.of(user));
         EventCountersResponse counters = createManagedCountersResponse(user);
@@ -369,6 +366,76 @@ public class EventServiceImpl implements EventService {
                 .build();
     }
 
+    @Override
+    public EventCursorPageWithCountersResponse scrollEvents(String cursor, int size,
+            String sortBy, String sortDir, EventStatus status, String search,
+            boolean includeTotal, String email) {
+        Optional<User> userOptional =
+                (email != null && !email.isBlank()) ? userRepository.findByEmail(email)
+                        : Optional.empty();
+        return EventCursorPageWithCountersResponse.builder()
+                .pagination(scroll(allEvents(status, search), cursor, size, sortBy, sortDir,
+                        includeTotal, userOptional))
+                .counters(createCountersResponse(userOptional)).build();
+    }
+
+    @Override
+    public EventCursorPageWithCountersResponse scrollManagedEvents(String cursor, int size,
+            String sortBy, String sortDir, EventStatus status, String search,
+            boolean includeTotal, String email) {
+        User user = userRepository.findByEmail(email).orElseThrow(
+                () -> new AuthException("Không tìm thấy người dùng với email: " + email));
+        return EventCursorPageWithCountersResponse.builder()
+                .pagination(scroll(managedEvents(user, status, search), cursor, size, sortBy,
+                        sortDir, includeTotal, Optional.of(user)))
+                .counters(createManagedCountersResponse(user)).build();
+    }
+
+    /**
+     * Reads the slice after {@code cursor} by seeking on (sort key, id) instead of skipping an
+     * OFFSET, and counts the matching events only if asked to.
+     */
+    private CursorPageResponse<EventResponse> scroll(Specification<Event> spec, String cursor,
+            int size, String sortBy, String sortDir, boolean includeTotal,
+            Optional<User> userOptional) {
+        Sort sort = EventCursor.sort(sortBy, sortDir);
+        Window<Event> window =
+                eventRepository.scroll(spec, sort, size, EventCursor.decode(cursor, sort));
+
+        List<EventResponse> content = window.isEmpty() ? List.of()
+                : createPageResponse(new PageImpl<>(window.getContent()), userOptional)
+                        .getContent();
+        String nextCursor = window.hasNext() ? EventCursor.encode(sort,
+                (KeysetScrollPosition) window.positionAt(window.size() - 1)) : null;
+
+        return CursorPageResponse.<EventResponse>builder().content(content).size(size)
+                .nextCursor(nextCursor).hasNext(window.hasNext())
+                .totalElements(includeTotal ? eventRepository.count(spec) : null).build();
+    }
+
+    private Specification<Event> allEvents(EventStatus status, String search) {
+        return Specification.where(EventSpecification.hasStatus(status))
+                .and(matchesSearch(search));
+    }
+
+    private Specification<Event> managedEvents(User user, EventStatus status, String search) {
+        return Specification.where(EventSpecification.isManagedByUserExists(user.getId()))
+                .and(EventSpecification.isNotCancelled()).and(EventSpecification.hasStatus(status))
+                .and(matchesSearch(search));
+    }
+
+    /**
+     * Filters by the ids the search index matched, falling back to the LIKE scan while the index
+     * cannot answer.
+     */
+    private Specification<Event> matchesSearch(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        return eventSearchIndex.search(search).map(EventSpecification::hasIdIn)
+                .orElseGet(() -> EventSpecification.searchByKeyword(search));
+    }
+
     private ManagerInfo mapToManagerInfo(User user) {
         if (user == null)
             return new ManagerInfo();
@@ -391,58 +458,34 @@ public class EventServiceImpl implements EventService {
                 .isCheckedIn(attendant.getCheckedTime() != null).build();
     }
 
+    /**
+     * Builds the event exactly as it appears in the event list, without per-user fields, so that
+     * SSE clients can patch their list in place.
+     */
+    private EventResponse toListEntry(Event event) {
+        return createPageResponse(new PageImpl<>(List.of(event)), Optional.empty()).getContent()
+                .get(0);
+    }
+
     private PageResponse<EventResponse> createPageResponse(Page<Event> eventPage,
             Optional<User> userOptional) {
         if (eventPage.isEmpty()) {
             return new PageResponse<>(Page.empty());
         }
 
-        List<Event> events = eventPage.getContent();
-        List<Integer> eventIds = events.stream().map(Event::getId).collect(Collectors.toList());
-
-        Set<Integer> creatorIds =
-                events.stream().map(Event::getCreateBy).collect(Collectors.toSet());
-        List<EventManager> allManagersOnPage = eventManagerRepository.findAllByEventIdIn(eventIds);
-        Set<Integer> managerUserIds =
-                allManagersOnPage.stream().map(EventManager::getUserId).collect(Collectors.toSet());
-
-        Set<Integer> allUserIdsToFetch = new HashSet<>(creatorIds);
-        allUserIdsToFetch.addAll(managerUserIds);
-
-        Map<Integer, User> userMap = userRepository.findAllById(allUserIdsToFetch).stream()
-                .collect(Collectors.toMap(User::getId, Function.identity()));
-
-        Map<Integer, Long> participantCounts = attendantRepository
-                .countParticipantsByEventIds(eventIds).stream().collect(Collectors
-                        .toMap(result -> (Integer) result[0], result -> (Long) result[1]));
-
-        Set<Integer> registeredEventIds = userOptional.map(
-                user -> attendantRepository.findRegisteredEventIdsByUserId(user.getId(), eventIds))
-                .orElse(Collections.emptySet());
+        List<Integer> eventIds = eventPage.getContent().stream().map(Event::getId).toList();
+        Map<Integer, EventPageRow> rows = eventRepository
+                .findPageRows(eventIds, userOptional.map(User::getId).orElse(null)).stream()
+                .collect(Collectors.toMap(EventPageRow::getEventId, Function.identity()));
 
         Page<EventResponse> responsePage = eventPage.map(event -> {
             EventResponse eventResponse = eventMapper.toEventResponse(event);
-            eventResponse.setCurrentParticipants(
-                    participantCounts.getOrDefault(event.getId(), 0L).intValue());
-            eventResponse.setIsRegistered(registeredEventIds.contains(event.getId()));
-
-            User creator = userMap.get(event.getCreateBy());
-            if (creator != null) {
-                eventResponse.setCreatedById(creator.getId());
-                eventResponse.setCreatedByName(creator.getName());
-            }
-
-            allManagersOnPage.stream()
-                    .filter(manager -> manager.getEventId().equals(event.getId())
-                            && manager.getRoleType() == EventManagement.MANAGE)
-                    .findFirst().ifPresent(manager -> {
-                        User managerUser = userMap.get(manager.getUserId());
-                        if (managerUser != null) {
-                            eventResponse.setManagerId(managerUser.getId());
-                            eventResponse.setManagerName(managerUser.getName());
-                        }
-                    });
-
+            EventPageRow row = rows.get(event.getId());
+            eventResponse.setIsRegistered(row.getRegistered());
+            eventResponse.setCreatedById(row.getCreatedById());
+            eventResponse.setCreatedByName(row.getCreatedByName());
+            eventResponse.setManagerId(row.getManagerId());
+            eventResponse.setManagerName(row.getManagerName());
             return eventResponse;
         });
 
@@ -450,39 +493,16 @@ public class EventServiceImpl implements EventService {
     }
 
     private EventCountersResponse createCountersResponse(Optional<User> userOptional) {
-        Map<EventStatus, Long> statusCounts = new EnumMap<>(EventStatus.class);
-        eventRepository.countEventsByStatus().forEach(result -> {
-            statusCounts.put((EventStatus) result[0], (Long) result[1]);
-        });
-
-        EventCountersResponse.EventCountersResponseBuilder builder = EventCountersResponse.builder()
-                .upcoming(statusCounts.getOrDefault(EventStatus.UPCOMING, 0L))
-                .ongoing(statusCounts.getOrDefault(EventStatus.ONGOING, 0L))
-                .completed(statusCounts.getOrDefault(EventStatus.COMPLETED, 0L))
-                .cancelled(statusCounts.getOrDefault(EventStatus.CANCELLED, 0L));
+        EventCountersResponse.EventCountersResponseBuilder builder =
+                eventStatusCounters.statusCounters();
 
-        userOptional.ifPresent(user -> {
-            long managedCount = eventRepository.countManagedEventsByUserId(user.getId());
-            builder.manage(managedCount);
-        });
+        userOptional
+                .ifPresent(user -> builder.manage(eventStatusCounters.managedCount(user.getId())));
 
         return builder.build();
     }
 
     private EventCountersResponse createManagedCountersResponse(User user) {
-        Map<EventStatus, Long> statusCounts = new EnumMap<>(EventStatus.class);
-        // Đếm sự kiện theo status chỉ cho sự kiện mà user quản lý
-        eventRepository.countManagedEventsByStatus(user.getId()).forEach(result -> {
-            statusCounts.put((EventStatus) result[0], (Long) result[1]);
-        });
-
-        long managedCount = eventRepository.countManagedEventsByUserId(user.getId());
-
-        return EventCountersResponse.builder()
-                .upcoming(statusCounts.getOrDefault(EventStatus.UPCOMING, 0L))
-                .ongoing(statusCounts.getOrDefault(EventStatus.ONGOING, 0L))
-                .completed(statusCounts.getOrDefault(EventStatus.COMPLETED, 0L))
-                .cancelled(statusCounts.getOrDefault(EventStatus.CANCELLED, 0L))
-                .manage(managedCount).build();
+        return eventStatusCounters.managedCounters(user.getId());
     }
 }
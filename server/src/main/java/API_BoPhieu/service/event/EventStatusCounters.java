@@ -0,0 +1,260 @@
+package API_BoPhieu.service.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.dto.event.EventCountersDelta;
+import API_BoPhieu.dto.event.EventCountersResponse;
+import API_BoPhieu.entity.EventManager;
+import API_BoPhieu.repository.EventManagerRepository;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-status event counts, shared by the event listing and the event-list SSE stream, kept in
+ * memory so list pages do not run a {@code GROUP BY} over the events table. The global counts are
+ * loaded at startup and adjusted by every status change, relayed to all nodes over the
+ * {@link SseBroadcastBus} once its transaction commits. The counts of the events a user manages
+ * are cached per user, dropped when one of those events changes status or the user's assignments
+ * change, and expire after a while. The global counts are reconciled with the database
+ * periodically; the reconciled counts remember the bus position they were read at, so deltas the
+ * read already included are not applied again when they arrive late.
+ */
+@Component
+@Slf4j
+public class EventStatusCounters {
+
+    static final String TOPIC = "event-counters";
+
+    private record ManagedCounts(Map<EventStatus, Long> byStatus, long manage) {
+    }
+
+    private record SequencedDelta(EventCountersDelta delta, Long sequence) {
+    }
+
+    private final EventRepository eventRepository;
+    private final EventManagerRepository eventManagerRepository;
+    private final SseBroadcastBus broadcastBus;
+    private final ObjectMapper objectMapper;
+    private final Map<EventStatus, AtomicLong> globalCounts = new EnumMap<>(EventStatus.class);
+    private final Cache<Integer, ManagedCounts> managedByUser;
+    private final AtomicLong managedGeneration = new AtomicLong();
+    private volatile boolean loaded;
+    // Guarded by globalCounts: deltas at or below the position are included in the counts, and
+    // deltas applied while a reconcile reads the database are collected for it.
+    private long countsPosition;
+    private List<SequencedDelta> appliedDuringRead;
+
+    public EventStatusCounters(final EventRepository eventRepository,
+            final EventManagerRepository eventManagerRepository,
+            final SseBroadcastBus broadcastBus, final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry,
+            @Value("${app.event.counters.managed-max-size:10000}") final long maxSize,
+            @Value("${app.event.counters.managed-ttl:PT10M}") final Duration ttl) {
+        this.eventRepository = eventRepository;
+        this.eventManagerRepository = eventManagerRepository;
+        this.broadcastBus = broadcastBus;
+        this.objectMapper = objectMapper;
+        for (final EventStatus status : EventStatus.values()) {
+            globalCounts.put(status, new AtomicLong());
+        }
+        this.managedByUser = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl)
+                .recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.managedByUser, "event_managed_counters");
+    }
+
+    @PostConstruct
+    void subscribeToBus() {
+        broadcastBus.subscribe(TOPIC, broadcast -> {
+            final EventCountersDelta delta = broadcast.data() instanceof EventCountersDelta local
+                    ? local
+                    : objectMapper.convertValue(broadcast.data(), EventCountersDelta.class);
+            apply(delta, broadcast.sequence());
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reconcile();
+    }
+
+    public EventCountersResponse.EventCountersResponseBuilder statusCounters() {
+        if (!loaded) {
+            reconcile();
+        }
+        final Map<EventStatus, Long> counts = new EnumMap<>(EventStatus.class);
+        globalCounts.forEach((status, count) -> counts.put(status, count.get()));
+        return builderOf(counts);
+    }
+
+    /**
+     * @return counts of the events the user manages, with {@code manage} excluding cancelled ones
+     */
+    public EventCountersResponse managedCounters(final Integer userId) {
+        final ManagedCounts counts = managedCounts(userId);
+        return builderOf(counts.byStatus()).manage(counts.manage()).build();
+    }
+
+    public long managedCount(final Integer userId) {
+        return managedCounts(userId).manage();
+    }
+
+    /**
+     * Counts a new event. Call inside the transaction that creates it.
+     */
+    public void dispatchCreated(final EventStatus status) {
+        publish(EventCountersDelta.builder().to(status).count(1).managerIds(List.of()).build());
+    }
+
+    /**
+     * Moves one event between statuses. Call inside the transaction that changes it.
+     */
+    public void dispatchStatusChange(final Integer eventId, final EventStatus from,
+            final EventStatus to) {
+        if (from == to) {
+            return;
+        }
+        final List<Integer> managerIds = eventManagerRepository.findByEventId(eventId).stream()
+                .map(EventManager::getUserId).distinct().toList();
+        publish(EventCountersDelta.builder().from(from).to(to).count(1).managerIds(managerIds)
+                .build());
+    }
+
+    /**
+     * Moves {@code count} events of unknown managers between statuses, as the status scheduler
+     * does. Every cached managed count is dropped.
+     */
+    public void dispatchBulkTransition(final EventStatus from, final EventStatus to,
+            final long count) {
+        if (count > 0) {
+            publish(EventCountersDelta.builder().from(from).to(to).count(count)
+                    .allManagers(true).build());
+        }
+    }
+
+    /**
+     * Drops the cached managed counts of users whose event assignments changed.
+     */
+    public void dispatchManagersChanged(final Collection<Integer> userIds) {
+        publish(EventCountersDelta.builder().managerIds(List.copyOf(userIds)).build());
+    }
+
+    /**
+     * Reloads the global counts from the database, correcting any drift from missed deltas.
+     */
+    @Scheduled(fixedDelayString = "${app.event.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.event.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (globalCounts) {
+            appliedDuringRead = new ArrayList<>();
+        }
+        final long position = broadcastBus.position();
+        final Map<EventStatus, Long> counts = new EnumMap<>(EventStatus.class);
+        eventRepository.countEventsByStatus()
+                .forEach(result -> counts.put((EventStatus) result[0], (Long) result[1]));
+        synchronized (globalCounts) {
+            // Deltas published after the position may have missed the read: keep them on top
+            for (final SequencedDelta applied : appliedDuringRead) {
+                if (applied.sequence() == null || applied.sequence() > position) {
+                    move(counts, applied.delta());
+                }
+            }
+            appliedDuringRead = null;
+            countsPosition = Math.max(countsPosition, position);
+            globalCounts.forEach((status, count) -> {
+                final long actual = counts.getOrDefault(status, 0L);
+                final long previous = count.getAndSet(actual);
+                if (loaded && previous != actual) {
+                    log.warn("EventStatusCounters: Số sự kiện {} lệch so với DB ({} != {})",
+                            status, previous, actual);
+                }
+            });
+            loaded = true;
+        }
+    }
+
+    private void apply(final EventCountersDelta delta, final Long sequence) {
+        synchronized (globalCounts) {
+            if (sequence == null || sequence > countsPosition) {
+                if (delta.getFrom() != null) {
+                    globalCounts.get(delta.getFrom()).addAndGet(-delta.getCount());
+                }
+                if (delta.getTo() != null) {
+                    globalCounts.get(delta.getTo()).addAndGet(delta.getCount());
+                }
+                if (appliedDuringRead != null) {
+                    appliedDuringRead.add(new SequencedDelta(delta, sequence));
+                }
+            }
+        }
+        if (delta.isAllManagers()) {
+            managedGeneration.incrementAndGet();
+            managedByUser.invalidateAll();
+        } else if (delta.getManagerIds() != null && !delta.getManagerIds().isEmpty()) {
+            managedGeneration.incrementAndGet();
+            managedByUser.invalidateAll(delta.getManagerIds());
+        }
+    }
+
+    private static void move(final Map<EventStatus, Long> counts,
+            final EventCountersDelta delta) {
+        if (delta.getFrom() != null) {
+            counts.merge(delta.getFrom(), -delta.getCount(), Long::sum);
+        }
+        if (delta.getTo() != null) {
+            counts.merge(delta.getTo(), delta.getCount(), Long::sum);
+        }
+    }
+
+    private ManagedCounts managedCounts(final Integer userId) {
+        // Queried outside the cache's compute lock, as in UserSnapshotCache#findByEmail. An
+        // invalidation that lands while querying bumps the generation, and the counts read
+        // before it are then not kept.
+        final ManagedCounts cached = managedByUser.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        final long generation = managedGeneration.get();
+        final Map<EventStatus, Long> byStatus = new EnumMap<>(EventStatus.class);
+        eventRepository.countManagedEventsByStatus(userId)
+                .forEach(result -> byStatus.put((EventStatus) result[0], (Long) result[1]));
+        final ManagedCounts counts =
+                new ManagedCounts(byStatus, eventRepository.countManagedEventsByUserId(userId));
+        managedByUser.put(userId, counts);
+        if (managedGeneration.get() != generation) {
+            managedByUser.invalidate(userId);
+        }
+        return counts;
+    }
+
+    private void publish(final EventCountersDelta delta) {
+        broadcastBus.publish(new SseBroadcast(TOPIC, 0, "delta", delta));
+    }
+
+    private static EventCountersResponse.EventCountersResponseBuilder builderOf(
+            final Map<EventStatus, Long> counts) {
+        return EventCountersResponse.builder()
+                .upcoming(counts.getOrDefault(EventStatus.UPCOMING, 0L))
+                .ongoing(counts.getOrDefault(EventStatus.ONGOING, 0L))
+                .completed(counts.getOrDefault(EventStatus.COMPLETED, 0L))
+                .cancelled(counts.getOrDefault(EventStatus.CANCELLED, 0L));
+    }
+}
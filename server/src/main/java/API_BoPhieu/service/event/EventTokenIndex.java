@@ -0,0 +1,126 @@
+package API_BoPhieu.service.event;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory qr_join_token -> eventId index so QR scan flows do not query the events table on
+ * every request. Warmed with UPCOMING/ONGOING events at startup, kept in sync by
+ * {@link EventServiceImpl} and the status scheduler, and bounded so that events nobody scans any
+ * more age out. Misses fall back to the database and are cached; cancelled events never resolve.
+ * Registrations and evictions are relayed to every node over the {@link SseBroadcastBus} once
+ * their transaction commits.
+ */
+@Component
+@Slf4j
+public class EventTokenIndex {
+
+    static final String TOPIC = "event-token";
+    private static final String REGISTER = "register";
+    private static final String EVICT = "evict";
+
+    private static final List<EventStatus> ACTIVE_STATUSES =
+            List.of(EventStatus.UPCOMING, EventStatus.ONGOING);
+
+    private final EventRepository eventRepository;
+    private final SseBroadcastBus broadcastBus;
+    private final Cache<String, Integer> eventIdsByToken;
+    private final AtomicLong evictGeneration = new AtomicLong();
+
+    public EventTokenIndex(final EventRepository eventRepository,
+            final SseBroadcastBus broadcastBus, final MeterRegistry meterRegistry,
+            @Value("${app.cache.event-token.max-size:5000}") final long maxSize,
+            @Value("${app.cache.event-token.idle-ttl:P7D}") final Duration idleTtl) {
+        this.eventRepository = eventRepository;
+        this.broadcastBus = broadcastBus;
+        this.eventIdsByToken = Caffeine.newBuilder().maximumSize(maxSize)
+                .expireAfterAccess(idleTtl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.eventIdsByToken, "event_token_index");
+    }
+
+    @PostConstruct
+    void subscribeToBus() {
+        broadcastBus.subscribe(TOPIC, broadcast -> {
+            final String token = (String) broadcast.data();
+            if (EVICT.equals(broadcast.eventName())) {
+                evictGeneration.incrementAndGet();
+                eventIdsByToken.invalidate(token);
+            } else {
+                eventIdsByToken.put(token, broadcast.channelId());
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        final List<Object[]> rows = eventRepository.findTokensByStatusIn(ACTIVE_STATUSES);
+        rows.forEach(row -> {
+            if (row[0] != null) {
+                eventIdsByToken.put((String) row[0], (Integer) row[1]);
+            }
+        });
+        log.info("EventTokenIndex: Đã nạp {} token của sự kiện sắp/đang diễn ra", rows.size());
+    }
+
+    public Optional<Integer> resolveEventId(final String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        // Queried outside the cache's compute lock, as in UserSnapshotCache#findByEmail.
+        final Integer cached = eventIdsByToken.getIfPresent(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        final long generation = evictGeneration.get();
+        final Integer loaded = load(token);
+        if (loaded != null) {
+            eventIdsByToken.put(token, loaded);
+            // An eviction during the query may have been read before the cancel committed
+            if (evictGeneration.get() != generation) {
+                eventIdsByToken.invalidate(token);
+            }
+        }
+        return Optional.ofNullable(loaded);
+    }
+
+    /**
+     * Maps the token of a new event on every node. Call inside the transaction that creates it.
+     */
+    public void dispatchRegister(final String token, final Integer eventId) {
+        if (token != null && eventId != null) {
+            broadcastBus.publish(new SseBroadcast(TOPIC, eventId, REGISTER, token));
+        }
+    }
+
+    /**
+     * Forgets the token of a cancelled event on every node. Call inside the transaction that
+     * cancels it.
+     */
+    public void dispatchEvict(final String token, final Integer eventId) {
+        if (token != null) {
+            broadcastBus.publish(new SseBroadcast(TOPIC, eventId, EVICT, token));
+        }
+    }
+
+    private Integer load(final String token) {
+        log.debug("EventTokenIndex: cache miss cho token '{}', truy vấn DB", token);
+        return eventRepository.findIdByQrJoinTokenAndStatusNot(token, EventStatus.CANCELLED)
+                .orElse(null);
+    }
+}
@@ -18,6 +18,7 @@ import API_BoPhieu.mapper.EventManagerMapper;
 import API_BoPhieu.repository.EventManagerRepository;
 import API_BoPhieu.repository.EventRepository;
 import API_BoPhieu.repository.UserRepository;
+import API_BoPhieu.service.event.EventStatusCounters;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -28,6 +29,7 @@ public class EventManagerServiceImpl implements EventManagerService {
     private final EventManagerRepository eventManagerRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final EventStatusCounters eventStatusCounters;
     private final EventManagerMapper eventManagerMapper;
 
     @Override
@@ -63,6 +65,7 @@ public class EventManagerServiceImpl implements EventManagerService {
         EventManager eventManager = eventManagerMapper.toEntity(dto);
         eventManager.setAssignedby(assigner.getId());
         eventManager = eventManagerRepository.save(eventManager);
+        eventStatusCounters.dispatchManagersChanged(List.of(dto.getUserId()));
 
         log.info(
                 "Người dùng '{}' (ID: {}) đã gán thành công vai trò '{}' cho user ID {} vào sự kiện '{}' (ID: {})",
@@ -105,6 +108,7 @@ public class EventManagerServiceImpl implements EventManagerService {
                 });
 
         eventManagerRepository.delete(eventManager);
+        eventStatusCounters.dispatchManagersChanged(List.of(dto.getUserId()));
 
         log.info("Người dùng '{}' đã xóa thành công vai trò của user ID {} khỏi sự kiện ID {}",
                 removerEmail, dto.getUserId(), dto.getEventId());
@@ -1,16 +1,27 @@
 package API_BoPhieu.service.file;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 import API_BoPhieu.dto.attendant.ParticipantResponse;
-import API_BoPhieu.dto.poll.PollStatsWithEmailsResponse;
+import API_BoPhieu.dto.poll.PollStatsResponse;
 
 public interface FileExportService {
 
     byte[] exportParticipantsToExcel(final List<ParticipantResponse> participants,
             final String eventTitle) throws IOException;
 
-    byte[] exportPollStatsToExcel(final PollStatsWithEmailsResponse pollStats,
-            final String eventTitle) throws IOException;
+    /**
+     * Writes the poll summary and one row per vote, taken from {@code voterEmails} as
+     * {@code (option id, email)} pairs, without holding the votes in memory.
+     */
+    void writePollStatsToExcel(final PollStatsResponse pollStats, final String eventTitle,
+            final Stream<Object[]> voterEmails, final OutputStream outputStream)
+            throws IOException;
+
+    void writePollVotersToCsv(final PollStatsResponse pollStats,
+            final Stream<Object[]> voterEmails, final OutputStream outputStream)
+            throws IOException;
 }
 
@@ -1,12 +1,24 @@
 package API_BoPhieu.service.file;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
@@ -14,11 +26,13 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import API_BoPhieu.dto.attendant.ParticipantResponse;
-import API_BoPhieu.dto.poll.OptionStatsWithEmailsResponse;
-import API_BoPhieu.dto.poll.PollStatsWithEmailsResponse;
+import API_BoPhieu.dto.poll.OptionStatsResponse;
+import API_BoPhieu.dto.poll.PollStatsResponse;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -35,6 +49,11 @@ public class FileExportServiceImpl implements FileExportService {
     private static final DateTimeFormatter DATE_TIME_FORMATTER =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss", Locale.forLanguageTag("vi-VN"))
                     .withZone(ZoneId.of("Asia/Ho_Chi_Minh")); // Ép đúng múi giờ VN
+    private static final String VOTER_SHEET_NAME = "Người bình chọn";
+    private static final String COLUMN_OPTION = "Lựa chọn";
+    private static final String COLUMN_VOTER_EMAIL = "Email người bình chọn";
+    private static final int STREAMING_WINDOW_SIZE = 500;
+    private static final int MAX_ROW_INDEX = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
 
     @Override
     public byte[] exportParticipantsToExcel(final List<ParticipantResponse> participants,
@@ -173,79 +192,146 @@ public class FileExportServiceImpl implements FileExportService {
     }
 
     @Override
-    public byte[] exportPollStatsToExcel(final PollStatsWithEmailsResponse pollStats,
-            final String eventTitle) throws IOException {
+    public void writePollStatsToExcel(final PollStatsResponse pollStats, final String eventTitle,
+            final Stream<Object[]> voterEmails, final OutputStream outputStream)
+            throws IOException {
         log.debug("Bắt đầu xuất kết quả poll '{}' ra file Excel cho sự kiện: {}",
                 pollStats.getTitle(), eventTitle);
 
-        try (final Workbook workbook = new XSSFWorkbook();
-                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-            final Sheet sheet = workbook.createSheet("Kết quả thăm dò");
-
-            // Create styles
+        // Only the last STREAMING_WINDOW_SIZE rows stay in memory; older ones are flushed to a
+        // temp file, so the voter sheets can hold any number of votes.
+        final SXSSFWorkbook workbook = new SXSSFWorkbook(STREAMING_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
             final CellStyle headerStyle = createHeaderStyle(workbook);
             final CellStyle dataStyle = createDataStyle(workbook);
             final CellStyle titleStyle = createTitleStyle(workbook);
             final CellStyle numberStyle = createNumberStyle(workbook);
 
-            int rowNum = 0;
-
-            // Event title
-            createCell(sheet.createRow(rowNum++), 0, "Sự kiện: " + eventTitle, titleStyle);
-            sheet.createRow(rowNum++); // Empty row
-
-            // Poll title
-            createCell(sheet.createRow(rowNum++), 0, "Câu hỏi: " + pollStats.getTitle(),
-                    titleStyle);
-            sheet.createRow(rowNum++); // Empty row
-
-            // Summary info
-            final Row summaryRow = sheet.createRow(rowNum++);
-            createCell(summaryRow, 0, "Tổng số lượt bình chọn: " + pollStats.getTotalVotes(),
-                    dataStyle);
-            final Row votersRow = sheet.createRow(rowNum++);
-            createCell(votersRow, 0, "Tổng số người bình chọn: " + pollStats.getTotalVoters(),
-                    dataStyle);
-            sheet.createRow(rowNum++); // Empty row
-
-            // Table header
-            final Row headerRow = sheet.createRow(rowNum++);
-            createCell(headerRow, 0, "Lựa chọn", headerStyle);
-            createCell(headerRow, 1, "Số lượt bình chọn", headerStyle);
-            createCell(headerRow, 2, "Tỷ lệ (%)", headerStyle);
-            createCell(headerRow, 3, "Email người bình chọn", headerStyle);
-
-            // Table data
-            if (pollStats.getOptions() != null) {
-                for (final OptionStatsWithEmailsResponse option : pollStats.getOptions()) {
-                    final Row dataRow = sheet.createRow(rowNum++);
-                    createCell(dataRow, 0, option.getContent(), dataStyle);
-                    createCell(dataRow, 1, String.valueOf(option.getVoteCount()), numberStyle);
-                    final String percentage = String.format("%.2f", option.getPercentage());
-                    createCell(dataRow, 2, percentage + "%", numberStyle);
-                    // Email addresses (comma-separated)
-                    final String emails = option.getVoterEmails() != null
-                            ? String.join(", ", option.getVoterEmails())
-                            : "";
-                    createCell(dataRow, 3, emails, dataStyle);
+            writePollSummarySheet(workbook, pollStats, eventTitle, headerStyle, dataStyle,
+                    titleStyle, numberStyle);
+
+            final Map<Integer, String> optionContents = optionContents(pollStats);
+            int sheetCount = 1;
+            Sheet sheet = createVoterSheet(workbook, sheetCount, headerStyle);
+            int rowNum = 1;
+            long voteCount = 0;
+            final Iterator<Object[]> rows = voterEmails.iterator();
+            while (rows.hasNext()) {
+                final Object[] vote = rows.next();
+                if (rowNum > MAX_ROW_INDEX) {
+                    sheet = createVoterSheet(workbook, ++sheetCount, headerStyle);
+                    rowNum = 1;
                 }
+                final Row dataRow = sheet.createRow(rowNum++);
+                createCell(dataRow, 0, optionContents.get(vote[0]), dataStyle);
+                createCell(dataRow, 1, (String) vote[1], dataStyle);
+                voteCount++;
             }
 
-            // Auto-size columns
-            autoSizePollColumns(sheet);
-
-            // Write to byte array
             workbook.write(outputStream);
-            final byte[] excelBytes = outputStream.toByteArray();
-
-            log.info("Đã xuất thành công kết quả poll '{}' ra file Excel ({} bytes)",
-                    pollStats.getTitle(), excelBytes.length);
-            return excelBytes;
+            log.info("Đã xuất thành công kết quả poll '{}' ra file Excel ({} lượt bình chọn)",
+                    pollStats.getTitle(), voteCount);
         } catch (final IOException e) {
             log.error("Lỗi khi xuất kết quả poll ra file Excel: ", e);
             throw new IOException("Không thể tạo file Excel: " + e.getMessage(), e);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    @Override
+    public void writePollVotersToCsv(final PollStatsResponse pollStats,
+            final Stream<Object[]> voterEmails, final OutputStream outputStream)
+            throws IOException {
+        final Map<Integer, String> optionContents = optionContents(pollStats);
+        final Writer writer =
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        // BOM so that Excel opens the Vietnamese text as UTF-8
+        writer.write('\uFEFF');
+        final CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
+                .setHeader(COLUMN_OPTION, COLUMN_VOTER_EMAIL).build());
+        long voteCount = 0;
+        final Iterator<Object[]> rows = voterEmails.iterator();
+        while (rows.hasNext()) {
+            final Object[] vote = rows.next();
+            printer.printRecord(optionContents.get(vote[0]), vote[1]);
+            voteCount++;
+        }
+        printer.flush();
+        log.info("Đã xuất thành công kết quả poll '{}' ra file CSV ({} lượt bình chọn)",
+                pollStats.getTitle(), voteCount);
+    }
+
+    private void writePollSummarySheet(final Workbook workbook, final PollStatsResponse pollStats,
+            final String eventTitle, final CellStyle headerStyle, final CellStyle dataStyle,
+            final CellStyle titleStyle, final CellStyle numberStyle) {
+        final SXSSFSheet sheet = (SXSSFSheet) workbook.createSheet("Kết quả thăm dò");
+        sheet.trackAllColumnsForAutoSizing();
+
+        int rowNum = 0;
+
+        // Event title
+        createCell(sheet.createRow(rowNum++), 0, "Sự kiện: " + eventTitle, titleStyle);
+        sheet.createRow(rowNum++); // Empty row
+
+        // Poll title
+        createCell(sheet.createRow(rowNum++), 0, "Câu hỏi: " + pollStats.getTitle(), titleStyle);
+        sheet.createRow(rowNum++); // Empty row
+
+        // Summary info
+        final Row summaryRow = sheet.createRow(rowNum++);
+        createCell(summaryRow, 0, "Tổng số lượt bình chọn: " + pollStats.getTotalVotes(),
+                dataStyle);
+        final Row votersRow = sheet.createRow(rowNum++);
+        createCell(votersRow, 0, "Tổng số người bình chọn: " + pollStats.getTotalVoters(),
+                dataStyle);
+        sheet.createRow(rowNum++); // Empty row
+
+        // Table header
+        final Row headerRow = sheet.createRow(rowNum++);
+        createCell(headerRow, 0, COLUMN_OPTION, headerStyle);
+        createCell(headerRow, 1, "Số lượt bình chọn", headerStyle);
+        createCell(headerRow, 2, "Tỷ lệ (%)", headerStyle);
+
+        // Table data
+        if (pollStats.getOptions() != null) {
+            for (final OptionStatsResponse option : pollStats.getOptions()) {
+                final Row dataRow = sheet.createRow(rowNum++);
+                createCell(dataRow, 0, option.getContent(), dataStyle);
+                createCell(dataRow, 1, String.valueOf(option.getVoteCount()), numberStyle);
+                final String percentage = String.format("%.2f", option.getPercentage());
+                createCell(dataRow, 2, percentage + "%", numberStyle);
+            }
+        }
+
+        autoSizePollColumns(sheet, 3);
+    }
+
+    /**
+     * Creates a voter sheet with its header row. A poll with more votes than one sheet can hold
+     * continues on "Người bình chọn (2)", "(3)", ...
+     */
+    private Sheet createVoterSheet(final Workbook workbook, final int index,
+            final CellStyle headerStyle) {
+        final Sheet sheet = workbook
+                .createSheet(index == 1 ? VOTER_SHEET_NAME : VOTER_SHEET_NAME + " (" + index + ")");
+        final Row headerRow = sheet.createRow(0);
+        createCell(headerRow, 0, COLUMN_OPTION, headerStyle);
+        createCell(headerRow, 1, COLUMN_VOTER_EMAIL, headerStyle);
+        sheet.setColumnWidth(0, 40 * 256);
+        sheet.setColumnWidth(1, 40 * 256);
+        return sheet;
+    }
+
+    private Map<Integer, String> optionContents(final PollStatsResponse pollStats) {
+        final Map<Integer, String> contents = new HashMap<>();
+        if (pollStats.getOptions() != null) {
+            pollStats.getOptions()
+                    .forEach(option -> contents.put(option.getId(), option.getContent()));
         }
+        return contents;
     }
 
     /**
@@ -272,8 +358,7 @@ public class FileExportServiceImpl implements FileExportService {
     /**
      * Auto-sizes columns for poll export sheet.
      */
-    private void autoSizePollColumns(final Sheet sheet) {
-        final int numberOfColumns = 4; // Option, Vote Count, Percentage, Emails
+    private void autoSizePollColumns(final Sheet sheet, final int numberOfColumns) {
         for (int i = 0; i < numberOfColumns; i++) {
             sheet.autoSizeColumn(i);
             sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
@@ -0,0 +1,239 @@
+package API_BoPhieu.service.poll;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import API_BoPhieu.entity.Option;
+import API_BoPhieu.entity.PollOptionCount;
+import API_BoPhieu.entity.PollVoterCount;
+import API_BoPhieu.repository.OptionRepository;
+import API_BoPhieu.repository.PollOptionCountRepository;
+import API_BoPhieu.repository.PollVoterCountRepository;
+import API_BoPhieu.repository.VoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stored vote counters of each poll ({@code poll_option_counts} and {@code poll_voter_counts}).
+ * The vote write path adjusts them in the same transaction as the votes, so reading a poll's
+ * counts costs one row per option. {@link #repair(Integer)} recomputes them from the votes table
+ * when they are missing or have drifted.
+ */
+@Component
+@Slf4j
+public class PollCountService {
+
+    /**
+     * Counts read from the counter tables.
+     */
+    public record StoredCounts(Map<Integer, Integer> countsByOption, int totalVoters)
+            implements PollCounts {
+
+        @Override
+        public Map<Integer, Integer> voteCounts(final List<Option> options) {
+            final Map<Integer, Integer> counts = new HashMap<>();
+            for (final Option option : options) {
+                counts.put(option.getId(), countsByOption.getOrDefault(option.getId(), 0));
+            }
+            return counts;
+        }
+    }
+
+    private final PollOptionCountRepository optionCountRepository;
+    private final PollVoterCountRepository voterCountRepository;
+    private final VoteRepository voteRepository;
+    private final OptionRepository optionRepository;
+    private final TransactionTemplate repairTransaction;
+    private final Counter repairedCounter;
+
+    public PollCountService(final PollOptionCountRepository optionCountRepository,
+            final PollVoterCountRepository voterCountRepository,
+            final VoteRepository voteRepository, final OptionRepository optionRepository,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry) {
+        this.optionCountRepository = optionCountRepository;
+        this.voterCountRepository = voterCountRepository;
+        this.voteRepository = voteRepository;
+        this.optionRepository = optionRepository;
+        // A repair may be triggered from a read-only transaction, so it always commits on its own.
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+        this.repairTransaction
+                .setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.repairTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.repairedCounter = Counter.builder("poll.count.repaired")
+                .description("Poll counters recomputed from the votes table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates zeroed counters for a new poll. Call in the transaction that creates its options.
+     */
+    public void initialize(final Integer pollId, final Collection<Integer> optionIds) {
+        optionCountRepository.saveAll(optionIds.stream()
+                .map(optionId -> new PollOptionCount(pollId, optionId, 0)).toList());
+        voterCountRepository.save(new PollVoterCount(pollId, 0));
+    }
+
+    /**
+     * Adjusts the counters of one poll for users whose selection changed from
+     * {@code previousByUser} to {@code nextByUser}. Call inside the vote transaction; every
+     * counter is changed by an atomic increment, so concurrent batches never lose an update.
+     */
+    public void applySelections(final Integer pollId,
+            final Map<Integer, List<Integer>> previousByUser,
+            final Map<Integer, List<Integer>> nextByUser) {
+        // Sorted so counter rows are always updated in option id order
+        final Map<Integer, Integer> deltaByOption = new TreeMap<>();
+        int voterDelta = 0;
+        for (final Map.Entry<Integer, List<Integer>> entry : nextByUser.entrySet()) {
+            final List<Integer> previous = previousByUser.getOrDefault(entry.getKey(), List.of());
+            final List<Integer> next = entry.getValue();
+            previous.forEach(optionId -> deltaByOption.merge(optionId, -1, Integer::sum));
+            next.forEach(optionId -> deltaByOption.merge(optionId, 1, Integer::sum));
+            if (previous.isEmpty() != next.isEmpty()) {
+                voterDelta += next.isEmpty() ? -1 : 1;
+            }
+        }
+        deltaByOption.values().removeIf(delta -> delta == 0);
+
+        final int updated = optionCountRepository.addVoteCounts(pollId, deltaByOption);
+        final boolean votersUpdated =
+                voterDelta == 0 || voterCountRepository.addVoters(pollId, voterDelta) > 0;
+        if (updated < deltaByOption.size() || !votersUpdated) {
+            log.warn("PollCount: Thiếu bộ đếm của poll {}, sẽ tính lại sau khi commit", pollId);
+            repairAfterCommit(pollId);
+        }
+    }
+
+    /**
+     * Recounts once the vote transaction commits, so the recount includes the votes whose delta
+     * found no counter row to land on.
+     */
+    private void repairAfterCommit(final Integer pollId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            repairMissing(pollId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    repairMissing(pollId);
+                } catch (RuntimeException e) {
+                    log.error("PollCount: Lỗi khi tính lại bộ đếm của poll {}", pollId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the stored counters of the given polls with two queries. Polls without counters yet
+     * (created before the counter tables existed) are repaired first.
+     */
+    public Map<Integer, StoredCounts> read(final Collection<Integer> pollIds) {
+        final Map<Integer, StoredCounts> result = readStored(pollIds);
+        for (final Integer pollId : pollIds) {
+            if (!result.containsKey(pollId)) {
+                repairMissing(pollId);
+                result.putAll(readStored(List.of(pollId)));
+            }
+        }
+        return result;
+    }
+
+    public StoredCounts read(final Integer pollId) {
+        return read(List.of(pollId)).get(pollId);
+    }
+
+    /**
+     * Recomputes the counters of one poll from the votes table in its own transaction. The
+     * counter rows are locked first: a vote batch that committed before is included in the
+     * recount, and one still in flight waits and applies its delta on top of it.
+     *
+     * @return true if the stored counters were missing or wrong
+     */
+    public boolean repair(final Integer pollId) {
+        final Boolean drifted = repairTransaction.execute(status -> recount(pollId));
+        if (Boolean.TRUE.equals(drifted)) {
+            repairedCounter.increment();
+            log.warn("PollCount: Bộ đếm của poll {} đã được tính lại từ bảng votes", pollId);
+        }
+        return Boolean.TRUE.equals(drifted);
+    }
+
+    private boolean recount(final Integer pollId) {
+        final Map<Integer, PollOptionCount> stored = new HashMap<>();
+        optionCountRepository.lockByPollId(pollId)
+                .forEach(count -> stored.put(count.getOptionId(), count));
+        final PollVoterCount storedVoters = voterCountRepository.lockByPollId(pollId)
+                .orElseGet(() -> new PollVoterCount(pollId, -1));
+
+        final Map<Integer, Integer> actual = new HashMap<>();
+        for (final Object[] row : voteRepository.countVotesByOptionAndPollId(pollId)) {
+            actual.put((Integer) row[0], ((Number) row[1]).intValue());
+        }
+        final Integer actualVoters = voteRepository.countDistinctVotersByPollId(pollId);
+
+        boolean drifted = false;
+        final Set<Integer> optionIds = new HashSet<>(actual.keySet());
+        optionRepository.findByPollId(pollId).forEach(option -> optionIds.add(option.getId()));
+        final List<PollOptionCount> changed = new ArrayList<>();
+        for (final Integer optionId : optionIds) {
+            final int count = actual.getOrDefault(optionId, 0);
+            final PollOptionCount row = stored.get(optionId);
+            if (row == null) {
+                changed.add(new PollOptionCount(pollId, optionId, count));
+            } else if (row.getVoteCount() != count) {
+                row.setVoteCount(count);
+                changed.add(row);
+            }
+        }
+        optionCountRepository.saveAll(changed);
+        drifted |= !changed.isEmpty();
+
+        final int voters = actualVoters != null ? actualVoters : 0;
+        if (storedVoters.getVoterCount() != voters) {
+            storedVoters.setVoterCount(voters);
+            voterCountRepository.save(storedVoters);
+            drifted = true;
+        }
+        return drifted;
+    }
+
+    private void repairMissing(final Integer pollId) {
+        try {
+            repair(pollId);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the counters at the same time; theirs are just as good.
+            log.debug("PollCount: Bộ đếm của poll {} vừa được tạo ở nơi khác", pollId);
+        }
+    }
+
+    private Map<Integer, StoredCounts> readStored(final Collection<Integer> pollIds) {
+        final Map<Integer, Map<Integer, Integer>> countsByPoll = new HashMap<>();
+        for (final Object[] row : optionCountRepository.findCountsByPollIds(pollIds)) {
+            countsByPoll.computeIfAbsent((Integer) row[0], k -> new HashMap<>())
+                    .put((Integer) row[1], (Integer) row[2]);
+        }
+        final Map<Integer, StoredCounts> result = new HashMap<>();
+        for (final Object[] row : voterCountRepository.findCountsByPollIds(pollIds)) {
+            final Integer pollId = (Integer) row[0];
+            result.put(pollId, new StoredCounts(countsByPoll.getOrDefault(pollId, Map.of()),
+                    (Integer) row[1]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package API_BoPhieu.service.poll;
+
+import java.util.List;
+import java.util.Map;
+import API_BoPhieu.entity.Option;
+
+/**
+ * Read-only vote counts of one poll, whether from a live {@link PollTally} or from the stored
+ * counters.
+ */
+public interface PollCounts {
+
+    /**
+     * @return vote count per option, with 0 for every option that has no votes
+     */
+    Map<Integer, Integer> voteCounts(List<Option> options);
+
+    int totalVoters();
+}
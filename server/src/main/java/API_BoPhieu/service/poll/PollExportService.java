@@ -1,25 +1,16 @@
 package API_BoPhieu.service.poll;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.io.OutputStream;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import API_BoPhieu.constants.ExportFormat;
-import API_BoPhieu.dto.poll.OptionStatsResponse;
-import API_BoPhieu.dto.poll.OptionStatsWithEmailsResponse;
 import API_BoPhieu.dto.poll.PollStatsResponse;
-import API_BoPhieu.dto.poll.PollStatsWithEmailsResponse;
 import API_BoPhieu.entity.Poll;
-import API_BoPhieu.entity.User;
-import API_BoPhieu.entity.Vote;
 import API_BoPhieu.exception.EventException;
 import API_BoPhieu.repository.EventRepository;
 import API_BoPhieu.repository.PollRepository;
-import API_BoPhieu.repository.UserRepository;
 import API_BoPhieu.repository.VoteRepository;
 import API_BoPhieu.service.file.FileExportService;
 import lombok.RequiredArgsConstructor;
@@ -35,72 +26,40 @@ public class PollExportService {
     private final EventRepository eventRepository;
     private final PollRepository pollRepository;
     private final VoteRepository voteRepository;
-    private final UserRepository userRepository;
 
+    /**
+     * Fails fast for an unknown poll, so the error is reported before the export response has
+     * been committed.
+     */
     @Transactional(readOnly = true)
-    public byte[] exportPollStats(final Integer pollId, final ExportFormat format)
-            throws IOException {
-        log.info("Bắt đầu xuất kết quả poll ID {} ra định dạng {}", pollId, format);
-
-        // Get poll statistics with emails
-        final PollStatsWithEmailsResponse pollStatsWithEmails = getPollStatsWithEmails(pollId);
-
-        // Get event title
-        final String eventTitle = getEventTitle(pollId);
-
-        // Hiện tại chỉ hỗ trợ xuất Excel
-        return fileExportService.exportPollStatsToExcel(pollStatsWithEmails, eventTitle);
+    public void checkExportable(final Integer pollId) {
+        if (!pollRepository.existsById(pollId)) {
+            throw new EventException("Không tìm thấy poll với ID: " + pollId);
+        }
     }
 
     /**
-     * Gets poll statistics with voter emails for export. Follows DRY principle by centralizing data
-     * retrieval logic.
+     * Writes the poll results with voter emails to {@code outputStream}. Votes are read through a
+     * database cursor and written as they arrive, so memory use does not depend on the number of
+     * votes.
      */
-    private PollStatsWithEmailsResponse getPollStatsWithEmails(final Integer pollId) {
-        // Get basic poll stats
-        final PollStatsResponse pollStats = pollService.getPollStats(pollId);
-
-        // Get all votes for this poll
-        final List<Vote> allVotes = voteRepository.findByPollId(pollId);
-
-        // Group votes by optionId and get userIds
-        final Map<Integer, List<Integer>> optionToUserIds =
-                allVotes.stream().collect(Collectors.groupingBy(Vote::getOptionId,
-                        Collectors.mapping(Vote::getUserId, Collectors.toList())));
-
-        // Get all unique user IDs
-        final Set<Integer> allUserIds =
-                allVotes.stream().map(Vote::getUserId).collect(Collectors.toSet());
-
-        // Fetch all users in one query (batch loading for performance)
-        final Map<Integer, User> userMap = userRepository.findAllById(new ArrayList<>(allUserIds))
-                .stream().collect(Collectors.toMap(User::getId, user -> user));
-
-        // Build options with emails
-        final List<OptionStatsWithEmailsResponse> optionsWithEmails = new ArrayList<>();
-        if (pollStats.getOptions() != null) {
-            for (final OptionStatsResponse option : pollStats.getOptions()) {
-                final List<Integer> userIds =
-                        optionToUserIds.getOrDefault(option.getId(), new ArrayList<>());
-                final List<String> emails = userIds.stream().map(userMap::get)
-                        .filter(user -> user != null && user.getEmail() != null).map(User::getEmail)
-                        .sorted() // Sort emails alphabetically
-                        .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void exportPollStats(final Integer pollId, final ExportFormat format,
+            final OutputStream outputStream) throws IOException {
+        log.info("Bắt đầu xuất kết quả poll ID {} ra định dạng {}", pollId, format);
 
-                final OptionStatsWithEmailsResponse optionWithEmails =
-                        OptionStatsWithEmailsResponse.builder().id(option.getId())
-                                .content(option.getContent()).voteCount(option.getVoteCount())
-                                .percentage(option.getPercentage()).voterEmails(emails).build();
+        // Everything else is read first: the connection is busy until the cursor is closed.
+        final PollStatsResponse pollStats = pollService.getPollStats(pollId);
+        final String eventTitle = getEventTitle(pollId);
 
-                optionsWithEmails.add(optionWithEmails);
+        try (Stream<Object[]> voterEmails = voteRepository.streamVoterEmails(pollId)) {
+            switch (format) {
+                case CSV -> fileExportService.writePollVotersToCsv(pollStats, voterEmails,
+                        outputStream);
+                case EXCEL -> fileExportService.writePollStatsToExcel(pollStats, eventTitle,
+                        voterEmails, outputStream);
             }
         }
-
-        return PollStatsWithEmailsResponse.builder().id(pollStats.getId())
-                .title(pollStats.getTitle()).pollType(pollStats.getPollType())
-                .isDelete(pollStats.getIsDelete()).totalVotes(pollStats.getTotalVotes())
-                .totalVoters(pollStats.getTotalVoters()).options(optionsWithEmails)
-                .startTime(pollStats.getStartTime()).endTime(pollStats.getEndTime()).build();
     }
 
     /**
@@ -115,4 +74,3 @@ public class PollExportService {
                         () -> new EventException("Không tìm thấy sự kiện cho poll ID: " + pollId));
     }
 }
-
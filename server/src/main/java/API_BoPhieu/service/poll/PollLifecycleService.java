@@ -0,0 +1,262 @@
+package API_BoPhieu.service.poll;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.dto.poll.PollWindowChange;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.service.poll.PollTimingWheel.Entry;
+import API_BoPhieu.service.poll.PollTimingWheel.Transition;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import API_BoPhieu.service.sse.poll_results.PollResultsSseService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+
+/**
+ * Knows the voting window of every poll that has not closed yet, so votes are admitted or
+ * rejected without reading the poll, and drives the open/close transitions from a
+ * {@link PollTimingWheel} ticking every second. Each node keeps its own copy, built from the
+ * database at startup, kept in step through the {@link SseBroadcastBus} and reloaded periodically
+ * in case a change was missed; a poll it does not know is read from the database on its first
+ * vote. Persisting a close
+ * ({@code is_delete = true} once the end time has passed) runs under a ShedLock lock, so one
+ * replica does it per transition.
+ */
+@Component
+@Slf4j
+public class PollLifecycleService {
+
+    static final String TOPIC = "poll-lifecycle";
+    private static final String CLOSE_LOCK_NAME = "closeEndedPollsTask";
+
+    private final PollRepository pollRepository;
+    private final PollResultsSseService pollResultsSseService;
+    private final PollTallyService pollTallyService;
+    private final SseBroadcastBus broadcastBus;
+    private final ObjectMapper objectMapper;
+    private final LockingTaskExecutor lockingTaskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Integer, PollWindowChange> windowsByPoll = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Map<Integer, Long> changedAtByPoll = new ConcurrentHashMap<>();
+    private final PollTimingWheel wheel;
+
+    public PollLifecycleService(final PollRepository pollRepository,
+            final PollResultsSseService pollResultsSseService,
+            final PollTallyService pollTallyService, final SseBroadcastBus broadcastBus,
+            final ObjectMapper objectMapper, final LockProvider lockProvider,
+            final PlatformTransactionManager transactionManager,
+            @Value("${app.poll.lifecycle.tick-ms:1000}") final long tickMs,
+            @Value("${app.poll.lifecycle.wheel-slots:3600}") final int wheelSlots) {
+        this.pollRepository = pollRepository;
+        this.pollResultsSseService = pollResultsSseService;
+        this.pollTallyService = pollTallyService;
+        this.broadcastBus = broadcastBus;
+        this.objectMapper = objectMapper;
+        this.lockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new PollTimingWheel(tickMs, wheelSlots, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    void loadWindows() {
+        broadcastBus.subscribe(TOPIC, broadcast -> {
+            final PollWindowChange window = broadcast.data() instanceof PollWindowChange local
+                    ? local
+                    : objectMapper.convertValue(broadcast.data(), PollWindowChange.class);
+            changedAtByPoll.put(window.getPollId(), changeSequence.incrementAndGet());
+            apply(window);
+        });
+
+        reload();
+        log.info("PollLifecycle: Đã nạp lịch mở/đóng của {} poll", windowsByPoll.size());
+    }
+
+    /**
+     * Reloads the windows of all open polls from the database, correcting any drift from missed
+     * changes.
+     */
+    @Scheduled(fixedDelayString = "${app.poll.lifecycle.reload-interval-ms:300000}",
+            initialDelayString = "${app.poll.lifecycle.reload-interval-ms:300000}")
+    public void reloadWindows() {
+        final int corrected = reload();
+        if (corrected > 0) {
+            log.warn("PollLifecycle: Lịch mở/đóng của {} poll lệch so với DB, đã nạp lại",
+                    corrected);
+        }
+    }
+
+    /**
+     * @return true if votes for the poll are accepted at {@code now}
+     */
+    public boolean isOpen(final Integer pollId, final Instant now) {
+        PollWindowChange window = windowsByPoll.get(pollId);
+        if (window == null) {
+            window = loadWindow(pollId, now);
+        }
+        final long nowMs = now.toEpochMilli();
+        return window != null && !window.isClosed() && window.getStartMs() <= nowMs
+                && nowMs <= window.getEndMs();
+    }
+
+    /**
+     * Publishes the poll's current window to every node. Call after creating, editing or closing
+     * a poll, inside its transaction.
+     */
+    public void dispatchWindowChange(final Poll poll) {
+        broadcastBus.publish(new SseBroadcast(TOPIC, poll.getId(), "window", toWindow(poll)));
+    }
+
+    @Scheduled(fixedRateString = "${app.poll.lifecycle.tick-ms:1000}")
+    public void tick() {
+        final List<Entry> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        boolean closeDue = false;
+        for (final Entry entry : due) {
+            final PollWindowChange window = windowsByPoll.get(entry.pollId());
+            if (window == null || window.isClosed()) {
+                continue;
+            }
+            if (entry.transition() == Transition.OPEN && window.getStartMs() == entry.atMs()) {
+                log.info("PollLifecycle: Poll {} đã mở", entry.pollId());
+                pollTallyService.tally(entry.pollId());
+            } else if (entry.transition() == Transition.CLOSE
+                    && window.getEndMs() == entry.atMs()) {
+                log.info("PollLifecycle: Poll {} đã hết thời gian bình chọn", entry.pollId());
+                windowsByPoll.remove(entry.pollId(), window);
+                closeDue = true;
+            }
+        }
+        if (closeDue) {
+            lockingTaskExecutor.executeWithLock((Runnable) this::closeEndedPolls,
+                    new LockConfiguration(Instant.now(), CLOSE_LOCK_NAME, Duration.ofSeconds(30),
+                            Duration.ZERO));
+        }
+    }
+
+    /**
+     * Safety net for closes no node's wheel fired, e.g. while every replica was down.
+     */
+    @Scheduled(cron = "30 * * * * *")
+    public void sweepEndedPolls() {
+        lockingTaskExecutor.executeWithLock((Runnable) this::closeEndedPolls,
+                new LockConfiguration(Instant.now(), CLOSE_LOCK_NAME, Duration.ofSeconds(30),
+                        Duration.ZERO));
+    }
+
+    private void closeEndedPolls() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                final List<Integer> ended = pollRepository.findEndedOpenPollIds(Instant.now());
+                if (ended.isEmpty()) {
+                    return;
+                }
+                final int closed = pollRepository.closePolls(ended);
+                pollRepository.findEventIdsByIdIn(ended)
+                        .forEach(pollResultsSseService::dispatchPollChanged);
+                log.info("PollLifecycle: Đã đóng {} poll hết thời gian bình chọn", closed);
+            });
+        } catch (Exception e) {
+            log.error("PollLifecycle: Lỗi khi đóng các poll hết thời gian", e);
+        }
+    }
+
+    /**
+     * Replaces the windows with those in the database, except for polls whose window changed
+     * over the bus after the read started: those are at least as new as the read.
+     *
+     * @return the number of polls whose window was missing, different or no longer open
+     */
+    private int reload() {
+        final long readAt = changeSequence.get();
+        final Map<Integer, PollWindowChange> stored = new HashMap<>();
+        pollRepository.findByIsDeleteFalseAndEndTimeGreaterThanEqual(Instant.now())
+                .forEach(poll -> stored.put(poll.getId(), toWindow(poll)));
+
+        int corrected = 0;
+        for (final PollWindowChange window : stored.values()) {
+            if (!changedSince(window.getPollId(), readAt)
+                    && !window.equals(windowsByPoll.get(window.getPollId()))) {
+                apply(window);
+                corrected++;
+            }
+        }
+        for (final Map.Entry<Integer, PollWindowChange> entry : windowsByPoll.entrySet()) {
+            if (!stored.containsKey(entry.getKey()) && !changedSince(entry.getKey(), readAt)
+                    && windowsByPoll.remove(entry.getKey(), entry.getValue())
+                    && !entry.getValue().isClosed()) {
+                corrected++;
+            }
+        }
+        changedAtByPoll.values().removeIf(changedAt -> changedAt <= readAt);
+        return corrected;
+    }
+
+    private boolean changedSince(final Integer pollId, final long sequence) {
+        return changedAtByPoll.getOrDefault(pollId, 0L) > sequence;
+    }
+
+    /**
+     * Reads the window of a poll this node does not know yet and caches it. Polls that are
+     * missing or already over are cached as closed, so further votes for them do not reach the
+     * database until the next reload.
+     */
+    private PollWindowChange loadWindow(final Integer pollId, final Instant now) {
+        final PollWindowChange[] loaded = new PollWindowChange[1];
+        final PollWindowChange window = windowsByPoll.computeIfAbsent(pollId, id -> {
+            loaded[0] = pollRepository.findById(id).map(PollLifecycleService::toWindow)
+                    .orElseGet(() -> PollWindowChange.builder().pollId(id).closed(true).build());
+            if (loaded[0].getEndMs() < now.toEpochMilli()) {
+                loaded[0].setClosed(true);
+            }
+            return loaded[0];
+        });
+        if (window == loaded[0] && !window.isClosed()) {
+            schedule(window);
+        }
+        return window;
+    }
+
+    private void apply(final PollWindowChange window) {
+        if (window.isClosed()) {
+            windowsByPoll.remove(window.getPollId());
+            return;
+        }
+        windowsByPoll.put(window.getPollId(), window);
+        schedule(window);
+    }
+
+    private void schedule(final PollWindowChange window) {
+        synchronized (wheel) {
+            if (window.getStartMs() > System.currentTimeMillis()) {
+                wheel.schedule(window.getPollId(), Transition.OPEN, window.getStartMs());
+            }
+            wheel.schedule(window.getPollId(), Transition.CLOSE, window.getEndMs());
+        }
+    }
+
+    private static PollWindowChange toWindow(final Poll poll) {
+        return PollWindowChange.builder().pollId(poll.getId())
+                .startMs(poll.getStartTime().toEpochMilli())
+                .endMs(poll.getEndTime().toEpochMilli())
+                .closed(Boolean.TRUE.equals(poll.getIsDelete())).build();
+    }
+}
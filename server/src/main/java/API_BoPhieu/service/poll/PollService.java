@@ -1,12 +1,14 @@
 package API_BoPhieu.service.poll;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.security.core.Authentication;
 import API_BoPhieu.dto.poll.PollDTO;
 import API_BoPhieu.dto.poll.PollResponse;
 import API_BoPhieu.dto.poll.PollStatsResponse;
 import API_BoPhieu.dto.poll.UpdatePollDTO;
 import API_BoPhieu.dto.poll.VoteDTO;
+import API_BoPhieu.service.poll.VoteAdmissionService.VoteOutcome;
 
 public interface PollService {
     List<Integer> getVotedOptionIdsByUser(Integer pollId, Integer userId);
@@ -17,7 +19,8 @@ public interface PollService {
 
     List<PollResponse> getPollsByEvent(Integer eventId);
 
-    void vote(Integer pollId, VoteDTO voteRequest, Authentication auth);
+    CompletableFuture<VoteOutcome> vote(Integer pollId, VoteDTO voteRequest, Authentication auth,
+            String idempotencyKey);
 
     PollStatsResponse getPollStats(Integer pollId);
 
@@ -1,24 +1,24 @@
 package API_BoPhieu.service.poll;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import API_BoPhieu.dto.poll.OptionStatsResponse;
 import API_BoPhieu.dto.poll.PollDTO;
 import API_BoPhieu.dto.poll.PollResponse;
 import API_BoPhieu.dto.poll.PollStatsResponse;
 import API_BoPhieu.dto.poll.UpdatePollDTO;
 import API_BoPhieu.dto.poll.VoteDTO;
+import API_BoPhieu.dto.user.UserResponseDTO;
 import API_BoPhieu.entity.Event;
 import API_BoPhieu.entity.Option;
 import API_BoPhieu.entity.Poll;
 import API_BoPhieu.entity.User;
-import API_BoPhieu.entity.Vote;
 import API_BoPhieu.exception.AuthException;
 import API_BoPhieu.exception.ConflictException;
 import API_BoPhieu.exception.EventException;
@@ -28,7 +28,9 @@ import API_BoPhieu.repository.EventRepository;
 import API_BoPhieu.repository.OptionRepository;
 import API_BoPhieu.repository.PollRepository;
 import API_BoPhieu.repository.UserRepository;
-import API_BoPhieu.repository.VoteRepository;
+import API_BoPhieu.service.poll.VoteAdmissionService.VoteOutcome;
+import API_BoPhieu.service.sse.poll_results.PollResultsSseService;
+import API_BoPhieu.service.user.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,7 +42,14 @@ public class PollServiceImpl implements PollService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final OptionRepository optionRepository;
-    private final VoteRepository voteRepository;
+    private final PollTallyService pollTallyService;
+    private final PollCountService pollCountService;
+    private final PollResultsSseService pollResultsSseService;
+    private final PollLifecycleService pollLifecycleService;
+    private final VoteAdmissionService voteAdmissionService;
+    private final UserSnapshotCache userSnapshotCache;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
 
     @Override
     @Transactional
@@ -69,6 +78,7 @@ public class PollServiceImpl implements PollService {
         poll.setCreatedBy(user.getId());
 
         pollRepository.save(poll);
+        pollLifecycleService.dispatchWindowChange(poll);
 
         List<Option> options = pollDTO.getOptions().stream().map(optionRequest -> {
             Option option = new Option();
@@ -78,11 +88,14 @@ public class PollServiceImpl implements PollService {
             return option;
         }).collect(Collectors.toList());
         optionRepository.saveAll(options);
+        pollResultsSseService.dispatchPollChanged(event.getId());
 
         List<Option> savedOptions = optionRepository.findByPollId(poll.getId());
+        pollCountService.initialize(poll.getId(),
+                savedOptions.stream().map(Option::getId).toList());
 
         Map<Integer, Integer> optionVoteCounts =
-                getVoteCountsFromDatabase(poll.getId(), savedOptions);
+                pollTallyService.counts(poll.getId()).voteCounts(savedOptions);
         return PollMapper.toPollResponse(poll, savedOptions, optionVoteCounts);
     }
 
@@ -94,12 +107,14 @@ public class PollServiceImpl implements PollService {
 
         List<Option> options = optionRepository.findByPollId(pollId);
 
-        Map<Integer, Integer> optionVoteCounts = getVoteCountsFromDatabase(pollId, options);
+        // A poll being looked at is about to be voted on: keep its tally in memory so both the
+        // counts and the user's own selection are answered without touching the votes table.
+        PollTally tally = pollTallyService.tally(pollId);
+        Map<Integer, Integer> optionVoteCounts = tally.voteCounts(options);
 
         PollResponse response = PollMapper.toPollResponse(poll, options, optionVoteCounts);
 
-        boolean hasVoted = voteRepository.existsByPollIdAndUserId(pollId, userId);
-        response.setHasVoted(hasVoted);
+        response.setHasVoted(tally.hasVoted(userId));
 
         return response;
     }
@@ -108,13 +123,14 @@ public class PollServiceImpl implements PollService {
     @Transactional(readOnly = true)
     public List<PollResponse> getPollsByEvent(Integer eventId) {
         List<Poll> polls = pollRepository.findByEventId(eventId);
-        List<PollResponse> responses = new ArrayList<>();
+        Map<Integer, List<Option>> optionsByPoll = optionsByPoll(polls);
+        Map<Integer, PollCounts> counts = counts(polls);
 
+        List<PollResponse> responses = new ArrayList<>();
         for (Poll poll : polls) {
-            List<Option> options = optionRepository.findByPollId(poll.getId());
-
+            List<Option> options = optionsByPoll.getOrDefault(poll.getId(), List.of());
             Map<Integer, Integer> optionVoteCounts =
-                    getVoteCountsFromDatabase(poll.getId(), options);
+                    counts.get(poll.getId()).voteCounts(options);
 
             responses.add(PollMapper.toPollResponse(poll, options, optionVoteCounts));
         }
@@ -123,50 +139,68 @@ public class PollServiceImpl implements PollService {
     }
 
     @Override
-    @Transactional
-    public void vote(Integer pollId, VoteDTO voteRequest, Authentication auth) {
-        final String email = auth.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AuthException("Không tìm thấy người dùng!"));
-        Poll poll = pollRepository.findById(pollId)
-                .orElseThrow(() -> new EventException("Không tìm thấy poll với ID: " + pollId));
-
-        if (poll.getIsDelete() == true) {
+    public CompletableFuture<VoteOutcome> vote(Integer pollId, VoteDTO voteRequest,
+            Authentication auth, String idempotencyKey) {
+        if (!pollLifecycleService.isOpen(pollId, Instant.now())) {
             throw new PollException("Poll không mở để vote");
         }
-
-        List<Vote> oldVotes = voteRepository.findByPollIdAndUserId(pollId, user.getId());
-        if (!oldVotes.isEmpty()) {
-            voteRepository.deleteAll(oldVotes);
+        if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new PollException("Idempotency-Key không hợp lệ");
         }
+        final String email = auth.getName();
+        voteAdmissionService.checkUserRate(email);
 
-        for (Integer optionId : voteRequest.getOptionIds()) {
-            Vote vote = new Vote();
-            vote.setPollId(pollId);
-            vote.setUserId(user.getId());
-            vote.setOptionId(optionId);
-            voteRepository.save(vote);
-        }
-
-        log.info("User {} đã vote cho poll {} với options: {}", user.getId(), pollId,
-                voteRequest.getOptionIds());
-
+        Integer userId = userSnapshotCache.findByEmail(email).map(UserResponseDTO::getId)
+                .orElseThrow(() -> new AuthException("Không tìm thấy người dùng!"));
+        List<Integer> optionIds = voteRequest.getOptionIds() == null ? List.of()
+                : voteRequest.getOptionIds().stream().distinct().toList();
+
+        return voteAdmissionService.submit(pollId, userId, optionIds, idempotencyKey)
+                .whenComplete((outcome, error) -> {
+                    if (outcome == VoteOutcome.WRITTEN) {
+                        log.info("User {} đã vote cho poll {} với options: {}", userId, pollId,
+                                optionIds);
+                    }
+                });
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PollStatsResponse> getPollStatsByEvent(Integer eventId) {
         List<Poll> polls = pollRepository.findByEventId(eventId);
-        List<PollStatsResponse> statsResponses = new ArrayList<>();
+        Map<Integer, List<Option>> optionsByPoll = optionsByPoll(polls);
+        Map<Integer, PollCounts> counts = counts(polls);
 
+        List<PollStatsResponse> statsResponses = new ArrayList<>();
         for (Poll poll : polls) {
-            PollStatsResponse stats = getPollStats(poll.getId());
-            statsResponses.add(stats);
+            List<Option> options = optionsByPoll.getOrDefault(poll.getId(), List.of());
+            PollCounts pollCounts = counts.get(poll.getId());
+            statsResponses.add(PollMapper.toPollStatsResponse(poll, options,
+                    pollCounts.voteCounts(options), pollCounts.totalVoters()));
         }
 
         return statsResponses;
     }
 
+    /**
+     * Options of all the given polls, read with one query and grouped by poll.
+     */
+    private Map<Integer, List<Option>> optionsByPoll(List<Poll> polls) {
+        if (polls.isEmpty()) {
+            return Map.of();
+        }
+        return optionRepository.findByPollIdInOrderByIdAsc(pollIds(polls)).stream()
+                .collect(Collectors.groupingBy(Option::getPollId));
+    }
+
+    private Map<Integer, PollCounts> counts(List<Poll> polls) {
+        return polls.isEmpty() ? Map.of() : pollTallyService.counts(pollIds(polls));
+    }
+
+    private static List<Integer> pollIds(List<Poll> polls) {
+        return polls.stream().map(Poll::getId).toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PollStatsResponse getPollStats(Integer pollId) {
@@ -175,38 +209,9 @@ public class PollServiceImpl implements PollService {
 
         List<Option> options = optionRepository.findByPollId(pollId);
 
-        Map<Integer, Integer> optionVoteCounts = getVoteCountsFromDatabase(pollId, options);
-
-        int totalVotes = optionVoteCounts.values().stream().mapToInt(Integer::intValue).sum();
-
-        Integer totalVotersCount = voteRepository.countDistinctVotersByPollId(pollId);
-        int totalVoters = totalVotersCount != null ? totalVotersCount : 0;
-
-        List<OptionStatsResponse> optionStats = new ArrayList<>();
-        for (Option option : options) {
-            int voteCount = optionVoteCounts.getOrDefault(option.getId(), 0);
-            double percentage = totalVotes > 0 ? (voteCount * 100.0 / totalVotes) : 0.0;
-
-            OptionStatsResponse stat = new OptionStatsResponse();
-            stat.setId(option.getId());
-            stat.setContent(option.getContent());
-            stat.setVoteCount(voteCount);
-            stat.setPercentage(percentage);
-            optionStats.add(stat);
-        }
-
-        PollStatsResponse statsResponse = new PollStatsResponse();
-        statsResponse.setId(poll.getId());
-        statsResponse.setTitle(poll.getTitle());
-        statsResponse.setPollType(poll.getPollType());
-        statsResponse.setIsDelete(poll.getIsDelete());
-        statsResponse.setTotalVotes(totalVotes);
-        statsResponse.setTotalVoters(totalVoters);
-        statsResponse.setOptions(optionStats);
-        statsResponse.setStartTime(poll.getStartTime());
-        statsResponse.setEndTime(poll.getEndTime());
-
-        return statsResponse;
+        PollCounts pollCounts = pollTallyService.counts(pollId);
+        return PollMapper.toPollStatsResponse(poll, options, pollCounts.voteCounts(options),
+                pollCounts.totalVoters());
     }
 
     @Override
@@ -217,9 +222,11 @@ public class PollServiceImpl implements PollService {
 
         poll.setIsDelete(true);
         pollRepository.save(poll);
+        pollLifecycleService.dispatchWindowChange(poll);
+        pollResultsSseService.dispatchPollChanged(poll.getEventId());
 
         List<Option> options = optionRepository.findByPollId(pollId);
-        Map<Integer, Integer> optionVoteCounts = getVoteCountsFromDatabase(pollId, options);
+        Map<Integer, Integer> optionVoteCounts = pollTallyService.counts(pollId).voteCounts(options);
 
         log.info("Poll {} đã được đóng", pollId);
         return PollMapper.toPollResponse(poll, options, optionVoteCounts);
@@ -243,6 +250,7 @@ public class PollServiceImpl implements PollService {
         poll.setEndTime(pollDto.getEndTime());
 
         pollRepository.save(poll);
+        pollLifecycleService.dispatchWindowChange(poll);
 
         List<Option> options = pollDto.getOptions().stream().map(optionRequest -> {
             Option option = optionRepository.findById(optionRequest.getOptionId())
@@ -254,9 +262,11 @@ public class PollServiceImpl implements PollService {
         }).collect(Collectors.toList());
 
         optionRepository.saveAll(options);
+        pollResultsSseService.dispatchPollChanged(poll.getEventId());
 
         List<Option> savedOptions = optionRepository.findByPollId(poll.getId());
-        Map<Integer, Integer> optionVoteCounts = getVoteCountsFromDatabase(pollId, savedOptions);
+        Map<Integer, Integer> optionVoteCounts =
+                pollTallyService.counts(pollId).voteCounts(savedOptions);
 
         log.info("Poll {} đã được cập nhật", pollId);
         return PollMapper.toPollResponse(poll, savedOptions, optionVoteCounts);
@@ -265,27 +275,7 @@ public class PollServiceImpl implements PollService {
     @Override
     @Transactional(readOnly = true)
     public List<Integer> getVotedOptionIdsByUser(Integer pollId, Integer userId) {
-        List<Vote> votes = voteRepository.findByPollIdAndUserId(pollId, userId);
-        return votes.stream().map(Vote::getOptionId).collect(Collectors.toList());
-    }
-
-    private Map<Integer, Integer> getVoteCountsFromDatabase(Integer pollId, List<Option> options) {
-        Map<Integer, Integer> counts = new HashMap<>();
-
-        // Initialize all options with 0
-        for (Option option : options) {
-            counts.put(option.getId(), 0);
-        }
-
-        // Get vote counts from database
-        List<Object[]> voteCounts = voteRepository.countVotesByOptionAndPollId(pollId);
-        for (Object[] result : voteCounts) {
-            Integer optionId = ((Number) result[0]).intValue();
-            Long count = ((Number) result[1]).longValue();
-            counts.put(optionId, count != null ? count.intValue() : 0);
-        }
-
-        return counts;
+        return pollTallyService.tally(pollId).votedOptionIds(userId);
     }
 
 }
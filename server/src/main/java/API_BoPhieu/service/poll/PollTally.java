@@ -0,0 +1,103 @@
+package API_BoPhieu.service.poll;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import API_BoPhieu.entity.Option;
+
+/**
+ * Live vote counts of one poll. Each user's current selection is kept next to the per-option
+ * counters, so applying a vote means "this user now selects these options": applying the same
+ * vote twice, or a vote older than the one already recorded, leaves the tally unchanged. That
+ * makes the tally safe to feed from the cluster bus, where a vote can arrive after a rebuild that
+ * already read it. The selections also answer "has this user voted, and for what" without a
+ * query.
+ */
+public class PollTally implements PollCounts {
+
+    private final ConcurrentHashMap<Integer, AtomicInteger> countsByOption =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Selection> selectionsByUser =
+            new ConcurrentHashMap<>();
+    private final AtomicInteger voters = new AtomicInteger();
+
+    public void apply(final Integer userId, final List<Integer> optionIds, final long votedAtMs) {
+        final int[] selected = optionIds == null ? new int[0]
+                : optionIds.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+        selectionsByUser.compute(userId, (k, previous) -> {
+            if (previous != null && previous.votedAtMs() > votedAtMs) {
+                return previous;
+            }
+            if (previous != null) {
+                for (final int optionId : previous.optionIds()) {
+                    counter(optionId).decrementAndGet();
+                }
+            }
+            for (final int optionId : selected) {
+                counter(optionId).incrementAndGet();
+            }
+            voters.addAndGet((selected.length > 0 ? 1 : 0) - (isVote(previous) ? 1 : 0));
+            // A retraction is kept as an empty selection so older votes still lose to it
+            return new Selection(selected, votedAtMs);
+        });
+    }
+
+    @Override
+    public Map<Integer, Integer> voteCounts(final List<Option> options) {
+        final Map<Integer, Integer> counts = new HashMap<>();
+        for (final Option option : options) {
+            final AtomicInteger counter = countsByOption.get(option.getId());
+            counts.put(option.getId(), counter != null ? counter.get() : 0);
+        }
+        return counts;
+    }
+
+    @Override
+    public int totalVoters() {
+        return voters.get();
+    }
+
+    public boolean hasVoted(final Integer userId) {
+        return isVote(selectionsByUser.get(userId));
+    }
+
+    /**
+     * @return the options the user currently selects, in ascending order, or an empty list
+     */
+    public List<Integer> votedOptionIds(final Integer userId) {
+        final Selection selection = selectionsByUser.get(userId);
+        return selection == null ? List.of()
+                : Arrays.stream(selection.optionIds()).boxed().toList();
+    }
+
+    /**
+     * @return true if the counts match {@code expected} (option id to count) exactly, ignoring
+     *         options without votes
+     */
+    boolean matches(final Map<Integer, Integer> expected, final int expectedVoters) {
+        if (expectedVoters != totalVoters()) {
+            return false;
+        }
+        for (final Map.Entry<Integer, AtomicInteger> entry : countsByOption.entrySet()) {
+            if (entry.getValue().get() != expected.getOrDefault(entry.getKey(), 0)) {
+                return false;
+            }
+        }
+        return expected.entrySet().stream().allMatch(entry -> entry.getValue() == 0
+                || countsByOption.containsKey(entry.getKey()));
+    }
+
+    private static boolean isVote(final Selection selection) {
+        return selection != null && selection.optionIds().length > 0;
+    }
+
+    private AtomicInteger counter(final int optionId) {
+        return countsByOption.computeIfAbsent(optionId, k -> new AtomicInteger());
+    }
+
+    private record Selection(int[] optionIds, long votedAtMs) {
+    }
+}
@@ -0,0 +1,273 @@
+package API_BoPhieu.service.poll;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import API_BoPhieu.dto.poll.PollVoteDelta;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.repository.VoteRepository;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory {@link PollTally} per poll for the polls being voted on and watched. Tallies are built
+ * from the database on first use (and for running polls at startup) and then kept current by the
+ * votes themselves, which are relayed to every node over the {@link SseBroadcastBus} once their
+ * transaction commits. Count reads of other polls go to the stored counters of
+ * {@link PollCountService}. A periodic check compares each cached tally with those counters.
+ *
+ * <p>
+ * Votes delivered while a tally is being read from the database are buffered and replayed onto
+ * it once it is installed, so none is lost between the read and the install; replaying one the
+ * read already saw is harmless because {@link PollTally#apply} is idempotent.
+ */
+@Component
+@Slf4j
+public class PollTallyService {
+
+    static final String TOPIC = "poll-tally";
+
+    private final VoteRepository voteRepository;
+    private final PollRepository pollRepository;
+    private final PollCountService pollCountService;
+    private final SseBroadcastBus broadcastBus;
+    private final ObjectMapper objectMapper;
+    private final Cache<Integer, PollTally> talliesByPoll;
+    private final Counter mismatchCounter;
+    private final Map<Integer, Rebuild> rebuilds = new ConcurrentHashMap<>();
+    private final Set<Integer> suspectTallies = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> suspectCounters = ConcurrentHashMap.newKeySet();
+
+    public PollTallyService(final VoteRepository voteRepository,
+            final PollRepository pollRepository, final PollCountService pollCountService,
+            final SseBroadcastBus broadcastBus,
+            final ObjectMapper objectMapper, final MeterRegistry meterRegistry,
+            @Value("${app.poll.tally.max-size:2000}") final long maxSize,
+            @Value("${app.poll.tally.idle-ttl:PT2H}") final Duration idleTtl) {
+        this.voteRepository = voteRepository;
+        this.pollRepository = pollRepository;
+        this.pollCountService = pollCountService;
+        this.broadcastBus = broadcastBus;
+        this.objectMapper = objectMapper;
+        this.talliesByPoll = Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(idleTtl)
+                .recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.talliesByPoll, "poll_tally");
+        this.mismatchCounter = Counter.builder("poll.tally.mismatch")
+                .description("Poll tallies rebuilt because they drifted from the stored counters")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribeToBus() {
+        broadcastBus.subscribe(TOPIC, broadcast -> {
+            final PollVoteDelta delta = broadcast.data() instanceof PollVoteDelta local ? local
+                    : objectMapper.convertValue(broadcast.data(), PollVoteDelta.class);
+            // The rebuild is checked before the cache: once it is removed its tally is cached
+            final Rebuild rebuild = rebuilds.get(delta.getPollId());
+            if (rebuild != null) {
+                rebuild.offer(delta);
+            }
+            final PollTally tally = talliesByPoll.getIfPresent(delta.getPollId());
+            if (tally != null) {
+                apply(tally, delta);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        final List<Poll> activePolls = pollRepository.findActivePollsByTime(Instant.now());
+        activePolls.forEach(poll -> tally(poll.getId()));
+        log.info("PollTally: Đã nạp số phiếu của {} poll đang mở", activePolls.size());
+    }
+
+    public PollTally tally(final Integer pollId) {
+        final PollTally cached = talliesByPoll.getIfPresent(pollId);
+        return cached != null ? cached : reload(pollId, false);
+    }
+
+    /**
+     * Counts of one poll: its live tally if one is cached, otherwise the stored counters, so a
+     * poll nobody is watching is never loaded vote by vote.
+     */
+    public PollCounts counts(final Integer pollId) {
+        final PollTally cached = talliesByPoll.getIfPresent(pollId);
+        return cached != null ? cached : pollCountService.read(pollId);
+    }
+
+    /**
+     * Bulk form of {@link #counts(Integer)}: the polls without a cached tally are read from the
+     * counter tables together.
+     */
+    public Map<Integer, PollCounts> counts(final Collection<Integer> pollIds) {
+        final Map<Integer, PollCounts> result = new HashMap<>(talliesByPoll.getAllPresent(pollIds));
+        final Set<Integer> missing = new HashSet<>(pollIds);
+        missing.removeAll(result.keySet());
+        if (!missing.isEmpty()) {
+            result.putAll(pollCountService.read(missing));
+        }
+        return result;
+    }
+
+    /**
+     * Records the user's new selection. Call inside the vote transaction; the tallies are only
+     * updated once it commits.
+     */
+    public void recordVote(final Integer pollId, final Integer userId,
+            final List<Integer> optionIds, final Instant votedAt) {
+        broadcastBus.publish(new SseBroadcast(TOPIC, pollId, "vote",
+                PollVoteDelta.builder().pollId(pollId).userId(userId).optionIds(optionIds)
+                        .votedAtMs(votedAt.toEpochMilli()).build()));
+    }
+
+    public void evict(final Integer pollId) {
+        talliesByPoll.invalidate(pollId);
+    }
+
+    /**
+     * Compares every cached tally with the stored counters. Votes still on their way through the
+     * bus make a live tally differ for a moment, so only a difference seen on two consecutive
+     * checks counts: the tally is then rebuilt from the votes table, and if the rebuilt tally
+     * still disagrees on the next check the counters are the ones that drifted and are repaired.
+     */
+    @Scheduled(fixedDelayString = "${app.poll.tally.verify-interval-ms:60000}",
+            initialDelayString = "${app.poll.tally.verify-interval-ms:60000}")
+    public void verifyConsistency() {
+        final Set<Integer> cachedPolls = talliesByPoll.asMap().keySet();
+        suspectTallies.retainAll(cachedPolls);
+        suspectCounters.retainAll(cachedPolls);
+        for (final Integer pollId : List.copyOf(cachedPolls)) {
+            final PollTally tally = talliesByPoll.getIfPresent(pollId);
+            if (tally == null) {
+                continue;
+            }
+            if (matchesStored(tally, pollId)) {
+                suspectTallies.remove(pollId);
+                suspectCounters.remove(pollId);
+                continue;
+            }
+            if (suspectCounters.remove(pollId)) {
+                log.warn("PollTally: Bộ đếm phiếu của poll {} lệch so với bảng votes, đang tính lại",
+                        pollId);
+                pollCountService.repair(pollId);
+                continue;
+            }
+            if (suspectTallies.add(pollId)) {
+                continue;
+            }
+            suspectTallies.remove(pollId);
+            mismatchCounter.increment();
+            log.warn("PollTally: Số phiếu của poll {} lệch so với DB, đang nạp lại", pollId);
+            if (!matchesStored(reload(pollId, true), pollId)) {
+                suspectCounters.add(pollId);
+            }
+        }
+    }
+
+    private boolean matchesStored(final PollTally tally, final Integer pollId) {
+        final PollCountService.StoredCounts stored = pollCountService.read(pollId);
+        return tally.matches(stored.countsByOption(), stored.totalVoters());
+    }
+
+    /**
+     * Reads the poll's tally from the votes table and caches it, replacing the cached one if
+     * {@code replace}. Concurrent callers for the same poll share one read.
+     */
+    private PollTally reload(final Integer pollId, final boolean replace) {
+        final Rebuild mine = new Rebuild();
+        final Rebuild running = rebuilds.putIfAbsent(pollId, mine);
+        if (running != null) {
+            return running.result.join();
+        }
+        try {
+            final PollTally rebuilt = rebuild(pollId);
+            final PollTally installed;
+            synchronized (mine) {
+                final PollTally raced = replace ? null
+                        : talliesByPoll.asMap().putIfAbsent(pollId, rebuilt);
+                if (replace) {
+                    talliesByPoll.put(pollId, rebuilt);
+                }
+                installed = raced != null ? raced : rebuilt;
+                mine.buffered.forEach(delta -> apply(installed, delta));
+                mine.buffered.clear();
+                mine.target = installed;
+            }
+            mine.result.complete(installed);
+            return installed;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            rebuilds.remove(pollId, mine);
+        }
+    }
+
+    private static void apply(final PollTally tally, final PollVoteDelta delta) {
+        tally.apply(delta.getUserId(), delta.getOptionIds(), delta.getVotedAtMs());
+    }
+
+    private PollTally rebuild(final Integer pollId) {
+        return build(pollId, voteRepository.findSelectionsByPollId(pollId));
+    }
+
+    /**
+     * @param rows (user id, option id, created at) of every vote of the poll
+     */
+    private PollTally build(final Integer pollId, final List<Object[]> rows) {
+        final Map<Integer, List<Integer>> optionsByUser = new HashMap<>();
+        final Map<Integer, Long> votedAtByUser = new HashMap<>();
+        for (final Object[] row : rows) {
+            final Integer userId = (Integer) row[0];
+            optionsByUser.computeIfAbsent(userId, k -> new ArrayList<>())
+                    .add((Integer) row[1]);
+            final long votedAt = row[2] != null ? ((Instant) row[2]).toEpochMilli() : 0L;
+            votedAtByUser.merge(userId, votedAt, Math::max);
+        }
+        final PollTally tally = new PollTally();
+        optionsByUser.forEach(
+                (userId, optionIds) -> tally.apply(userId, optionIds, votedAtByUser.get(userId)));
+        log.debug("PollTally: Đã dựng lại số phiếu của poll {} từ {} người vote", pollId,
+                optionsByUser.size());
+        return tally;
+    }
+
+    /**
+     * A tally being read from the database, and the votes delivered meanwhile.
+     */
+    private static final class Rebuild {
+        private final CompletableFuture<PollTally> result = new CompletableFuture<>();
+        private final List<PollVoteDelta> buffered = new ArrayList<>();
+        private PollTally target;
+
+        private synchronized void offer(final PollVoteDelta delta) {
+            if (target != null) {
+                PollTallyService.apply(target, delta);
+            } else {
+                buffered.add(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package API_BoPhieu.service.poll;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel of poll open/close instants. Time is cut into ticks of {@code tickMs};
+ * each entry sits in the slot of its tick and carries its absolute tick, so instants further away
+ * than one turn of the wheel simply wait for later turns. Scheduling is O(1) and advancing costs
+ * one slot per elapsed tick, however many polls are scheduled. Entries never fire early, and fire
+ * at most one tick late. Not thread-safe.
+ */
+class PollTimingWheel {
+
+    enum Transition {
+        OPEN,
+        CLOSE
+    }
+
+    record Entry(Integer pollId, Transition transition, long atMs, long tick) {
+    }
+
+    private final long tickMs;
+    private final Deque<Entry>[] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    PollTimingWheel(final long tickMs, final int slotCount, final long nowMs) {
+        this.tickMs = tickMs;
+        this.slots = new Deque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.currentTick = Math.floorDiv(nowMs, tickMs);
+    }
+
+    /**
+     * Schedules a transition. An instant that has already passed fires on the next advance.
+     */
+    void schedule(final Integer pollId, final Transition transition, final long atMs) {
+        final long tick = Math.max(Math.floorDiv(atMs + tickMs - 1, tickMs), currentTick + 1);
+        slots[slotOf(tick)].add(new Entry(pollId, transition, atMs, tick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMs} and removes every entry that became due, in time order.
+     */
+    List<Entry> advance(final long nowMs) {
+        final long targetTick = Math.floorDiv(nowMs, tickMs);
+        final List<Entry> due = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return due;
+        }
+        final long ticksToScan = Math.min(targetTick - currentTick, slots.length);
+        for (long t = currentTick + 1; t <= currentTick + ticksToScan; t++) {
+            final Iterator<Entry> slot = slots[slotOf(t)].iterator();
+            while (slot.hasNext()) {
+                final Entry entry = slot.next();
+                if (entry.tick() <= targetTick) {
+                    due.add(entry);
+                    slot.remove();
+                }
+            }
+        }
+        currentTick = targetTick;
+        size -= due.size();
+        due.sort(Comparator.comparingLong(Entry::atMs));
+        return due;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slotOf(final long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+}
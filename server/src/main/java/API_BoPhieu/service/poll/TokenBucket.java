@@ -0,0 +1,31 @@
+package API_BoPhieu.service.poll;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}. Time is passed in so the bucket can be driven by a test clock.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(final int capacity, final double refillPerSecond, final long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    synchronized boolean tryConsume(final long nowNanos) {
+        final long elapsed = Math.max(0, nowNanos - lastRefillNanos);
+        tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+        lastRefillNanos = nowNanos;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package API_BoPhieu.service.poll;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import API_BoPhieu.exception.RateLimitExceededException;
+import API_BoPhieu.service.poll.VoteWriteQueue.PendingVote;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admission control for vote submissions. A request passes, in order, a per-user token bucket, a
+ * cap on the votes of one poll that may be in flight at once, and the bounded
+ * {@link VoteWriteQueue}; failing any of them is an immediate 429 rather than another request
+ * waiting for a database connection. An admitted vote is answered asynchronously, so it holds
+ * no request thread while it waits for its batch to be written. Every outcome is counted in
+ * {@code poll.vote.admission}.
+ */
+@Component
+@Slf4j
+public class VoteAdmissionService {
+
+    /**
+     * How a queued vote ended: written, or still queued when the write timeout ran out. A pending
+     * vote is written later; a retry with the same idempotency key is not applied twice.
+     */
+    public enum VoteOutcome {
+        WRITTEN, PENDING
+    }
+
+    private final VoteWriteQueue voteWriteQueue;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> bucketsByUser;
+    private final Cache<Integer, Semaphore> permitsByPoll;
+    private final int userBurst;
+    private final double userRatePerSecond;
+    private final int maxInFlightPerPoll;
+    private final Duration writeTimeout;
+
+    public VoteAdmissionService(final VoteWriteQueue voteWriteQueue,
+            final MeterRegistry meterRegistry,
+            @Value("${app.poll.vote.user-burst:5}") final int userBurst,
+            @Value("${app.poll.vote.user-rate-per-second:1}") final double userRatePerSecond,
+            @Value("${app.poll.vote.max-in-flight-per-poll:500}") final int maxInFlightPerPoll,
+            @Value("${app.poll.vote.write-timeout:PT10S}") final Duration writeTimeout) {
+        this.voteWriteQueue = voteWriteQueue;
+        this.meterRegistry = meterRegistry;
+        this.userBurst = userBurst;
+        this.userRatePerSecond = userRatePerSecond;
+        this.maxInFlightPerPoll = maxInFlightPerPoll;
+        this.writeTimeout = writeTimeout;
+        this.bucketsByUser = Caffeine.newBuilder().maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10)).build();
+        this.permitsByPoll =
+                Caffeine.newBuilder().expireAfterAccess(Duration.ofHours(1)).build();
+    }
+
+    /**
+     * Takes a token from the user's bucket. Called before anything else touches the request, so
+     * a flooding client costs no database work.
+     */
+    public void checkUserRate(final String userKey) {
+        final TokenBucket bucket = bucketsByUser.get(userKey,
+                k -> new TokenBucket(userBurst, userRatePerSecond, System.nanoTime()));
+        if (!bucket.tryConsume(System.nanoTime())) {
+            count("rejected_user_rate");
+            throw new RateLimitExceededException("Bạn gửi phiếu quá nhanh, vui lòng thử lại sau");
+        }
+    }
+
+    /**
+     * Queues the vote without waiting for it.
+     *
+     * @return completes once the vote has been written, with {@link VoteOutcome#PENDING} if that
+     *         takes longer than the write timeout, or exceptionally if the write failed
+     */
+    public CompletableFuture<VoteOutcome> submit(final Integer pollId, final Integer userId,
+            final List<Integer> optionIds, final String idempotencyKey) {
+        final Semaphore permits =
+                permitsByPoll.get(pollId, k -> new Semaphore(maxInFlightPerPoll));
+        if (!permits.tryAcquire()) {
+            count("rejected_poll_busy");
+            throw new RateLimitExceededException(
+                    "Poll đang nhận quá nhiều phiếu, vui lòng thử lại sau giây lát");
+        }
+
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        done.whenComplete((result, error) -> permits.release());
+        if (!voteWriteQueue.offer(new PendingVote(pollId, userId, optionIds, idempotencyKey,
+                done))) {
+            permits.release();
+            count("rejected_queue_full");
+            log.warn("VoteAdmission: Hàng đợi ghi phiếu đã đầy, từ chối phiếu cho poll {}",
+                    pollId);
+            throw new RateLimitExceededException("Hệ thống đang quá tải, vui lòng thử lại sau");
+        }
+        count("queued");
+
+        return done.thenApply(written -> VoteOutcome.WRITTEN)
+                .completeOnTimeout(VoteOutcome.PENDING, writeTimeout.toMillis(),
+                        TimeUnit.MILLISECONDS)
+                .whenComplete((outcome, error) -> {
+                    if (outcome == VoteOutcome.PENDING) {
+                        count("timed_out");
+                    }
+                });
+    }
+
+    private void count(final String outcome) {
+        meterRegistry.counter("poll.vote.admission", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,234 @@
+package API_BoPhieu.service.poll;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import API_BoPhieu.entity.VoteReceipt;
+import API_BoPhieu.repository.UserRepository;
+import API_BoPhieu.repository.VoteReceiptRepository;
+import API_BoPhieu.repository.VoteRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded queue in front of the votes table. A fixed number of writer threads drain it and write
+ * each batch in one transaction: one lock statement for the voters, one receipt lookup, then per
+ * poll one read of the previous selections, one DELETE, one multi-row INSERT and one update of the
+ * poll's stored counters. However large a vote burst gets, it holds at most
+ * {@code writer-threads} connections from the pool.
+ */
+@Component
+@Slf4j
+public class VoteWriteQueue {
+
+    /**
+     * A vote waiting to be written; {@code done} completes once it is committed or rejected.
+     */
+    public record PendingVote(Integer pollId, Integer userId, List<Integer> optionIds,
+            String idempotencyKey, CompletableFuture<Void> done) {
+    }
+
+    private record VoterKey(Integer pollId, Integer userId) {
+    }
+
+    private final BlockingQueue<PendingVote> queue;
+    private final int batchSize;
+    private final int writerCount;
+    private final VoteRepository voteRepository;
+    private final VoteReceiptRepository voteReceiptRepository;
+    private final UserRepository userRepository;
+    private final PollTallyService pollTallyService;
+    private final PollCountService pollCountService;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizes;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public VoteWriteQueue(final VoteRepository voteRepository,
+            final VoteReceiptRepository voteReceiptRepository,
+            final UserRepository userRepository, final PollTallyService pollTallyService,
+            final PollCountService pollCountService,
+            final PlatformTransactionManager transactionManager, final MeterRegistry meterRegistry,
+            @Value("${app.poll.vote.queue-capacity:2000}") final int capacity,
+            @Value("${app.poll.vote.batch-size:100}") final int batchSize,
+            @Value("${app.poll.vote.writer-threads:2}") final int writerCount) {
+        this.voteRepository = voteRepository;
+        this.voteReceiptRepository = voteReceiptRepository;
+        this.userRepository = userRepository;
+        this.pollTallyService = pollTallyService;
+        this.pollCountService = pollCountService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.writerCount = writerCount;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Under READ COMMITTED the deletes take no gap locks, so concurrent batches only contend
+        // on the voter rows they lock.
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        Gauge.builder("poll.vote.queue.size", queue, BlockingQueue::size)
+                .description("Votes waiting to be written").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("poll.vote.batch.size")
+                .description("Votes written per transaction").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startWriters() {
+        for (int i = 0; i < writerCount; i++) {
+            final Thread writer = new Thread(this::runWriter, "vote-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @PreDestroy
+    void stopWriters() {
+        running = false;
+        writers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    public boolean offer(final PendingVote vote) {
+        return queue.offer(vote);
+    }
+
+    private void runWriter() {
+        final List<PendingVote> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            batchSizes.record(batch.size());
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(final List<PendingVote> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            batch.forEach(vote -> vote.done().complete(null));
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).done().completeExceptionally(e);
+                return;
+            }
+            // One bad vote must not fail the others: retry them one by one.
+            log.warn("VoteQueue: Ghi lô {} phiếu thất bại, ghi lại từng phiếu: {}", batch.size(),
+                    e.getMessage());
+            batch.forEach(vote -> writeBatch(List.of(vote)));
+        }
+    }
+
+    private void write(final List<PendingVote> batch) {
+        userRepository.lockByIds(
+                batch.stream().map(PendingVote::userId).collect(Collectors.toSet()));
+
+        // Later votes of a user in the same batch replace earlier ones, as they would have if
+        // written one after the other.
+        final Map<VoterKey, PendingVote> latest = new LinkedHashMap<>();
+        for (final PendingVote vote : skipReplayed(batch)) {
+            final VoterKey key = new VoterKey(vote.pollId(), vote.userId());
+            latest.remove(key);
+            latest.put(key, vote);
+        }
+
+        // Polls, and voters within a poll, are written in id order so that concurrent batches
+        // take the vote and counter row locks in one global order and cannot deadlock.
+        final Instant votedAt = Instant.now();
+        final Map<Integer, Map<Integer, List<Integer>>> selectionsByPoll = new TreeMap<>();
+        latest.values().forEach(vote -> selectionsByPoll
+                .computeIfAbsent(vote.pollId(), k -> new TreeMap<>())
+                .put(vote.userId(), vote.optionIds()));
+        selectionsByPoll.forEach((pollId, optionIdsByUser) -> {
+            final Map<Integer, List<Integer>> previousByUser =
+                    previousSelections(pollId, optionIdsByUser.keySet());
+            voteRepository.deleteSelections(pollId, optionIdsByUser.keySet());
+            voteRepository.insertSelections(pollId, optionIdsByUser, votedAt);
+            pollCountService.applySelections(pollId, previousByUser, optionIdsByUser);
+        });
+        latest.values().forEach(vote -> pollTallyService.recordVote(vote.pollId(),
+                vote.userId(), vote.optionIds(), votedAt));
+    }
+
+    /**
+     * Current selections of the users, read under their row locks so no other batch can change
+     * them before this one replaces them.
+     */
+    private Map<Integer, List<Integer>> previousSelections(final Integer pollId,
+            final Set<Integer> userIds) {
+        final Map<Integer, List<Integer>> previousByUser = new HashMap<>();
+        for (final Object[] row : voteRepository.findSelectionsByPollIdAndUserIds(pollId,
+                userIds)) {
+            previousByUser.computeIfAbsent((Integer) row[0], k -> new ArrayList<>())
+                    .add((Integer) row[1]);
+        }
+        return previousByUser;
+    }
+
+    /**
+     * Drops votes whose idempotency key was already used by the same user on the same poll, and
+     * stores receipts for the new keys.
+     */
+    private List<PendingVote> skipReplayed(final List<PendingVote> batch) {
+        final Set<String> keys = batch.stream().map(PendingVote::idempotencyKey)
+                .filter(key -> key != null).collect(Collectors.toSet());
+        if (keys.isEmpty()) {
+            return batch;
+        }
+        final Set<String> seen = new HashSet<>();
+        voteReceiptRepository.findByPollIdInAndUserIdInAndIdempotencyKeyIn(
+                batch.stream().map(PendingVote::pollId).collect(Collectors.toSet()),
+                batch.stream().map(PendingVote::userId).collect(Collectors.toSet()), keys)
+                .forEach(receipt -> seen
+                .add(receiptKey(receipt.getPollId(), receipt.getUserId(),
+                        receipt.getIdempotencyKey())));
+
+        final List<PendingVote> accepted = new ArrayList<>();
+        final List<VoteReceipt> receipts = new ArrayList<>();
+        final Instant now = Instant.now();
+        for (final PendingVote vote : batch) {
+            if (vote.idempotencyKey() == null) {
+                accepted.add(vote);
+            } else if (seen.add(receiptKey(vote.pollId(), vote.userId(), vote.idempotencyKey()))) {
+                accepted.add(vote);
+                receipts.add(new VoteReceipt(null, vote.pollId(), vote.userId(),
+                        vote.idempotencyKey(), now));
+            } else {
+                log.info("Bỏ qua yêu cầu vote trùng lặp của user {} cho poll {} (key {})",
+                        vote.userId(), vote.pollId(), vote.idempotencyKey());
+            }
+        }
+        voteReceiptRepository.saveAll(receipts);
+        return accepted;
+    }
+
+    private static String receiptKey(final Integer pollId, final Integer userId,
+            final String idempotencyKey) {
+        return pollId + ":" + userId + ":" + idempotencyKey;
+    }
+}
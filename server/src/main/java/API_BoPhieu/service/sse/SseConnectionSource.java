@@ -0,0 +1,16 @@
+package API_BoPhieu.service.sse;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * An SSE service whose connections are kept alive and reaped by {@link SseHeartbeatService}.
+ */
+public interface SseConnectionSource {
+    /**
+     * Short stream name, used as the {@code stream} tag of the connection gauges.
+     */
+    String streamName();
+
+    Map<String, ? extends Collection<SseSubscriber>> connectionsByChannel();
+}
@@ -0,0 +1,56 @@
+package API_BoPhieu.service.sse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+/**
+ * A fully encoded SSE frame ({@code id:}/{@code event:}/{@code data:} lines plus the terminating
+ * blank line). The bytes are produced once and the same instance is written to every subscriber,
+ * so a broadcast costs one serialization regardless of how many clients are connected.
+ */
+public final class SseFrame {
+
+    private final byte[] bytes;
+    private final Set<DataWithMediaType> payload;
+
+    private SseFrame(final byte[] bytes) {
+        this.bytes = bytes;
+        this.payload = Set.of(new DataWithMediaType(bytes, MediaType.TEXT_PLAIN));
+    }
+
+    public static SseFrame of(final String eventName, final String data) {
+        return of(null, eventName, data);
+    }
+
+    public static SseFrame of(final String id, final String eventName, final String data) {
+        final StringBuilder sb = new StringBuilder(data.length() + 48);
+        if (id != null) {
+            sb.append("id:").append(id).append('\n');
+        }
+        if (eventName != null) {
+            sb.append("event:").append(eventName).append('\n');
+        }
+        for (final String line : data.split("\n", -1)) {
+            sb.append("data:").append(line).append('\n');
+        }
+        sb.append('\n');
+        return new SseFrame(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A comment line, ignored by {@code EventSource} clients; used to keep connections alive.
+     */
+    public static SseFrame comment(final String text) {
+        return new SseFrame((":" + text + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    Set<DataWithMediaType> payload() {
+        return payload;
+    }
+}
@@ -0,0 +1,33 @@
+package API_BoPhieu.service.sse;
+
+import java.io.UncheckedIOException;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serializes SSE payloads with the application {@link ObjectMapper}, producing the same JSON the
+ * MVC message converters would, but only once per broadcast.
+ */
+@Component
+@RequiredArgsConstructor
+public class SseFrameFactory {
+
+    private final ObjectMapper objectMapper;
+
+    public SseFrame frame(final String eventName, final Object data) {
+        return frame(null, eventName, data);
+    }
+
+    public SseFrame frame(final String id, final String eventName, final Object data) {
+        if (data instanceof String text) {
+            return SseFrame.of(id, eventName, text);
+        }
+        try {
+            return SseFrame.of(id, eventName, objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
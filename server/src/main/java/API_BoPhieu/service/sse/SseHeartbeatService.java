@@ -0,0 +1,76 @@
+package API_BoPhieu.service.sse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps long-lived SSE connections honest. On every tick each subscriber of every
+ * {@link SseConnectionSource} gets a comment frame: it keeps proxies from dropping a quiet
+ * connection, browsers ignore it, and a dead TCP connection fails on the write and is closed by
+ * the subscriber itself. Subscribers that have not completed a write for longer than the idle
+ * timeout, because their writes are stuck, are reaped here. The tick also refreshes the
+ * {@code sse.connections} gauge, one row per stream and channel.
+ */
+@Service
+@Slf4j
+public class SseHeartbeatService {
+
+    static final SseFrame HEARTBEAT_FRAME = SseFrame.comment("heartbeat");
+
+    private final List<SseConnectionSource> sources;
+    private final Executor dispatchExecutor;
+    private final Duration idleTimeout;
+    private final MultiGauge connectionGauge;
+
+    public SseHeartbeatService(final List<SseConnectionSource> sources,
+            final MeterRegistry meterRegistry,
+            @Qualifier("sseDispatchExecutor") final Executor dispatchExecutor,
+            @Value("${app.sse.heartbeat.idle-timeout:PT45S}") final Duration idleTimeout) {
+        this.sources = sources;
+        this.dispatchExecutor = dispatchExecutor;
+        this.idleTimeout = idleTimeout;
+        this.connectionGauge = MultiGauge.builder("sse.connections")
+                .description("Live SSE connections per stream and channel")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat.interval-ms:15000}")
+    public void heartbeat() {
+        final List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        int reaped = 0;
+        for (final SseConnectionSource source : sources) {
+            for (final Map.Entry<String, ? extends Collection<SseSubscriber>> channel : source
+                    .connectionsByChannel().entrySet()) {
+                for (final SseSubscriber subscriber : channel.getValue()) {
+                    if (subscriber.isSilentFor(idleTimeout)) {
+                        subscriber.close("IDLE");
+                        subscriber.getEmitter().complete();
+                        reaped++;
+                    } else {
+                        subscriber.offer(HEARTBEAT_FRAME, dispatchExecutor);
+                    }
+                }
+                rows.add(MultiGauge.Row.of(
+                        Tags.of("stream", source.streamName(), "channel", channel.getKey()),
+                        channel.getValue().size()));
+            }
+        }
+        connectionGauge.register(rows, true);
+        if (reaped > 0) {
+            log.info("SSE: Đã đóng {} kết nối không phản hồi quá {} giây", reaped,
+                    idleTimeout.toSeconds());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package API_BoPhieu.service.sse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded history of the frames sent on one channel, used to replay what a reconnecting client
+ * missed. Event ids are the bus sequence of the newest broadcast the channel had delivered when
+ * the frame was sent, so they mean the same on every node; each retained frame is tagged with
+ * that position.
+ *
+ * <p>
+ * Not thread-safe: callers synchronize on the owning channel.
+ */
+public final class SseReplayBuffer {
+
+    private final SseFrame[] frames;
+    private final long[] positions;
+    private int oldest;
+    private int count;
+    private long lastSequence;
+    private long resyncThrough;
+
+    public SseReplayBuffer(final int capacity) {
+        this.frames = new SseFrame[capacity];
+        this.positions = new long[capacity];
+    }
+
+    /**
+     * @return the id of the current position, or null before the first sequenced broadcast
+     */
+    public String lastEventId() {
+        return lastSequence == 0 ? null : Long.toString(lastSequence);
+    }
+
+    /**
+     * Moves the position forward to the newest of the sequences delivered by one flush.
+     * Broadcasts whose bus write failed carry no sequence and leave the position unchanged.
+     *
+     * <p>
+     * A sequence at or below the previous position was delivered late, after a newer one had
+     * already been sent. A client that saw that position would skip the late frame on replay, so
+     * from then on replays from that position or earlier are refused.
+     */
+    public void advance(final List<Long> sequences) {
+        final long previous = lastSequence;
+        for (final Long sequence : sequences) {
+            if (sequence == null) {
+                continue;
+            }
+            if (sequence <= previous) {
+                resyncThrough = previous;
+            } else if (sequence > lastSequence) {
+                lastSequence = sequence;
+            }
+        }
+    }
+
+    /**
+     * @return false if a broadcast older than {@code sequence} was delivered after it, so neither
+     *         this buffer nor the bus history can tell what a client at that position missed
+     */
+    public boolean canReplayFrom(final long sequence) {
+        return sequence > resyncThrough;
+    }
+
+    /**
+     * Records a frame sent at the current position, evicting the oldest one when full.
+     */
+    public void record(final SseFrame frame) {
+        final int slot = (oldest + count) % frames.length;
+        frames[slot] = frame;
+        positions[slot] = lastSequence;
+        if (count < frames.length) {
+            count++;
+        } else {
+            oldest = (oldest + 1) % frames.length;
+        }
+    }
+
+    /**
+     * @return the frames sent after position {@code sequence}, oldest first, or empty if this
+     *         buffer does not hold everything since then: older than the retained history, or
+     *         ahead of what this node has delivered
+     */
+    public Optional<List<SseFrame>> framesAfter(final long sequence) {
+        if (!covers(sequence)) {
+            return Optional.empty();
+        }
+        final List<SseFrame> missed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final int slot = (oldest + i) % frames.length;
+            if (positions[slot] > sequence) {
+                missed.add(frames[slot]);
+            }
+        }
+        return Optional.of(missed);
+    }
+
+    /**
+     * @return whether {@link #framesAfter} can answer for position {@code sequence}
+     */
+    public boolean covers(final long sequence) {
+        return count > 0 && sequence >= positions[oldest] && sequence <= lastSequence;
+    }
+
+    /**
+     * Like {@link #framesAfter}, for the newest position of a bus history read: this node may not
+     * have delivered it yet, in which case there is nothing newer to add.
+     */
+    public Optional<List<SseFrame>> framesAfterHistory(final long sequence) {
+        return sequence >= lastSequence ? Optional.of(List.of()) : framesAfter(sequence);
+    }
+}
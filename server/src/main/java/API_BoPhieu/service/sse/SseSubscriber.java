@@ -0,0 +1,106 @@
+package API_BoPhieu.service.sse;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One connected SSE client with its own bounded outbound queue. Frames are written by the shared
+ * dispatcher executor, never by the thread that produced them, and at most one drain task per
+ * subscriber runs at a time so writes to the emitter stay ordered.
+ */
+@Slf4j
+public class SseSubscriber {
+
+    @Getter
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseFrame> outbox;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final BiConsumer<SseSubscriber, String> onClose;
+    private volatile long lastWriteNanos = System.nanoTime();
+
+    public SseSubscriber(final SseEmitter emitter, final int queueCapacity,
+            final BiConsumer<SseSubscriber, String> onClose) {
+        this.emitter = emitter;
+        this.outbox = new ArrayBlockingQueue<>(queueCapacity);
+        this.onClose = onClose;
+    }
+
+    /**
+     * Queues a frame and schedules delivery. A subscriber whose queue is full is too slow to keep
+     * up, so it is disconnected instead of holding back everyone else.
+     *
+     * @return false if the subscriber was closed or has just been disconnected
+     */
+    public boolean offer(final SseFrame frame, final Executor executor) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!outbox.offer(frame)) {
+            log.warn("SSE: Hàng đợi của client đã đầy ({} frame), ngắt kết nối client chậm",
+                    outbox.size());
+            close("QUEUE_OVERFLOW");
+            emitter.complete();
+            return false;
+        }
+        scheduleDrain(executor);
+        return true;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * @return true if no frame has been written to the client for longer than {@code timeout}
+     */
+    public boolean isSilentFor(final Duration timeout) {
+        return System.nanoTime() - lastWriteNanos > timeout.toNanos();
+    }
+
+    public void close(final String reason) {
+        if (closed.compareAndSet(false, true)) {
+            outbox.clear();
+            onClose.accept(this, reason);
+        }
+    }
+
+    private void scheduleDrain(final Executor executor) {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(executor));
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.warn("SSE: Dispatcher từ chối tác vụ gửi, sẽ thử lại ở lần gửi sau");
+        }
+    }
+
+    private void drain(final Executor executor) {
+        try {
+            SseFrame frame;
+            while (!closed.get() && (frame = outbox.poll()) != null) {
+                emitter.send(frame.payload());
+                lastWriteNanos = System.nanoTime();
+            }
+        } catch (Exception e) {
+            log.debug("SSE: Lỗi khi gửi tới client, đóng kết nối: {}", e.getMessage());
+            close("SEND_FAILED");
+            emitter.completeWithError(e);
+        } finally {
+            draining.set(false);
+        }
+        if (!closed.get() && !outbox.isEmpty()) {
+            scheduleDrain(executor);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package API_BoPhieu.service.sse.bus;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import API_BoPhieu.entity.SseBroadcastRecord;
+import API_BoPhieu.repository.SseBroadcastRepository;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+
+/**
+ * Multi-node bus backed by the {@code sse_broadcasts} table. A broadcast is delivered to the local
+ * listeners and written to the table once the surrounding transaction commits; every node polls
+ * the table for rows written by other nodes and delivers them locally.
+ *
+ * <p>
+ * Rows are read by creation time over a short look-back window instead of by id, because
+ * auto-increment ids can become visible out of order when transactions commit concurrently. Ids
+ * already delivered are remembered for twice that window so each row is delivered once. The row
+ * id is the sequence of the broadcast on every node, and rows are kept for the retention period
+ * so a node can replay a channel it has not been serving.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sse.bus.type", havingValue = "jdbc")
+@Slf4j
+public class JdbcSseBroadcastBus implements SseBroadcastBus {
+
+    private final LocalSseBroadcastBus localBus = new LocalSseBroadcastBus();
+    private final SseBroadcastRepository broadcastRepository;
+    private final TransactionTemplate requiresNewTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final Duration lookBack;
+    private final Duration retention;
+    private final Cache<Long, Boolean> deliveredIds;
+
+    public JdbcSseBroadcastBus(final SseBroadcastRepository broadcastRepository,
+            final PlatformTransactionManager transactionManager, final ObjectMapper objectMapper,
+            @Value("${app.sse.bus.node-id:}") final String nodeId,
+            @Value("${app.sse.bus.look-back:PT5S}") final Duration lookBack,
+            @Value("${app.sse.bus.retention:PT10M}") final Duration retention) {
+        this.broadcastRepository = broadcastRepository;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate
+                .setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.lookBack = lookBack;
+        this.retention = retention;
+        this.deliveredIds = Caffeine.newBuilder().expireAfterWrite(lookBack.multipliedBy(2))
+                .maximumSize(100_000).build();
+        log.info("SSE-BUS: Sử dụng bus JDBC với node ID {}", this.nodeId);
+    }
+
+    @Override
+    public void publish(final SseBroadcast broadcast) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            publishNow(broadcast);
+                        }
+                    });
+        } else {
+            publishNow(broadcast);
+        }
+    }
+
+    @Override
+    public void subscribe(final String topic, final Consumer<SseBroadcast> listener) {
+        localBus.subscribe(topic, listener);
+    }
+
+    @Override
+    public long position() {
+        return broadcastRepository.findMaxId();
+    }
+
+    @Override
+    public Optional<List<SseBroadcast>> history(final String topic, final Integer channelId,
+            final long afterSequence) {
+        // The row the client last saw still exists, so nothing after it has been pruned
+        if (!broadcastRepository.existsById(afterSequence)) {
+            return Optional.empty();
+        }
+        final List<SseBroadcast> broadcasts = new ArrayList<>();
+        for (final SseBroadcastRecord record : broadcastRepository
+                .findByTopicAndChannelIdAndIdGreaterThanOrderByIdAsc(topic, channelId,
+                        afterSequence)) {
+            try {
+                broadcasts.add(toBroadcast(record));
+            } catch (UncheckedIOException e) {
+                log.error("SSE-BUS: Không thể đọc sự kiện ID {} để phát lại", record.getId(), e);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(broadcasts);
+    }
+
+    private void publishNow(final SseBroadcast broadcast) {
+        Long sequence = null;
+        try {
+            final SseBroadcastRecord record = new SseBroadcastRecord(null, broadcast.topic(),
+                    broadcast.channelId(), broadcast.eventName(), serialize(broadcast.data()),
+                    nodeId, Instant.now().toEpochMilli());
+            sequence = requiresNewTemplate.execute(status -> broadcastRepository.save(record))
+                    .getId();
+        } catch (RuntimeException e) {
+            log.error("SSE-BUS: Không thể ghi sự kiện '{}' của topic '{}' để gửi tới các node khác",
+                    broadcast.eventName(), broadcast.topic(), e);
+        }
+        localBus.deliver(broadcast.withSequence(sequence));
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.bus.poll-interval-ms:500}")
+    public void poll() {
+        final long since = Instant.now().minus(lookBack).toEpochMilli();
+        final List<SseBroadcastRecord> records =
+                broadcastRepository.findRecentFromOtherNodes(since, nodeId);
+        for (final SseBroadcastRecord record : records) {
+            if (deliveredIds.asMap().putIfAbsent(record.getId(), Boolean.TRUE) != null) {
+                continue;
+            }
+            try {
+                localBus.deliver(toBroadcast(record));
+            } catch (UncheckedIOException e) {
+                log.error("SSE-BUS: Không thể đọc sự kiện ID {} từ node {}", record.getId(),
+                        record.getOriginNode(), e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 */5 * * * *")
+    @SchedulerLock(name = "pruneSseBroadcastsTask", lockAtLeastFor = "PT30S",
+            lockAtMostFor = "PT4M")
+    @Transactional
+    public void prune() {
+        final long cutoff = Instant.now().minus(retention).toEpochMilli();
+        final int deleted = broadcastRepository.deleteOlderThan(cutoff);
+        if (deleted > 0) {
+            log.info("SSE-BUS: Đã xóa {} sự kiện broadcast cũ.", deleted);
+        }
+    }
+
+    /**
+     * Strings are already-serialized payloads; they are stored as JSON strings so that
+     * {@link #deserialize} can hand the same text back to the receiving node.
+     */
+    private String serialize(final Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SseBroadcast toBroadcast(final SseBroadcastRecord record) {
+        return new SseBroadcast(record.getTopic(), record.getChannelId(), record.getEventName(),
+                deserialize(record.getPayload()), record.getId());
+    }
+
+    private Object deserialize(final String payload) {
+        try {
+            final JsonNode node = objectMapper.readTree(payload);
+            return node.isTextual() ? node.asText() : node;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
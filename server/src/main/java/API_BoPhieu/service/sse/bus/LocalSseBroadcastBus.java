@@ -0,0 +1,69 @@
+package API_BoPhieu.service.sse.bus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process bus for single-node deployments: broadcasts are delivered straight to the local
+ * listeners, after the surrounding transaction commits if there is one, so that listeners never
+ * observe changes that are rolled back or not yet visible. Sequences come from a counter seeded
+ * with the clock, so they keep increasing across restarts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sse.bus.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalSseBroadcastBus implements SseBroadcastBus {
+
+    private final Map<String, List<Consumer<SseBroadcast>>> listenersByTopic =
+            new ConcurrentHashMap<>();
+    private final AtomicLong lastSequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    @Override
+    public void publish(final SseBroadcast broadcast) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            deliver(broadcast.withSequence(lastSequence.incrementAndGet()));
+                        }
+                    });
+        } else {
+            deliver(broadcast.withSequence(lastSequence.incrementAndGet()));
+        }
+    }
+
+    void deliver(final SseBroadcast broadcast) {
+        final List<Consumer<SseBroadcast>> listeners = listenersByTopic.get(broadcast.topic());
+        if (listeners == null) {
+            return;
+        }
+        for (final Consumer<SseBroadcast> listener : listeners) {
+            try {
+                listener.accept(broadcast);
+            } catch (RuntimeException e) {
+                log.error("SSE-BUS: Lỗi khi xử lý sự kiện '{}' của topic '{}'",
+                        broadcast.eventName(), broadcast.topic(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(final String topic, final Consumer<SseBroadcast> listener) {
+        listenersByTopic.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public long position() {
+        return lastSequence.get();
+    }
+}
@@ -0,0 +1,19 @@
+package API_BoPhieu.service.sse.bus;
+
+/**
+ * A message published on the {@link SseBroadcastBus}. {@code channelId} is {@code null} for
+ * topics that are not scoped to a channel. {@code sequence} is assigned by the bus on delivery and
+ * orders the broadcasts the same way on every node; it is {@code null} on publish.
+ */
+public record SseBroadcast(String topic, Integer channelId, String eventName, Object data,
+        Long sequence) {
+
+    public SseBroadcast(final String topic, final Integer channelId, final String eventName,
+            final Object data) {
+        this(topic, channelId, eventName, data, null);
+    }
+
+    public SseBroadcast withSequence(final Long sequence) {
+        return new SseBroadcast(topic, channelId, eventName, data, sequence);
+    }
+}
@@ -0,0 +1,31 @@
+package API_BoPhieu.service.sse.bus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Relays SSE broadcasts to every application node. Each node registers a listener per topic and
+ * fans the received broadcasts out to its own connected clients.
+ */
+public interface SseBroadcastBus {
+    void publish(SseBroadcast broadcast);
+
+    void subscribe(String topic, Consumer<SseBroadcast> listener);
+
+    /**
+     * @return the highest sequence published so far. Broadcasts are published after their
+     *         transaction commits, so a database read started afterwards already sees the changes
+     *         of every broadcast at or below it.
+     */
+    long position();
+
+    /**
+     * @return the broadcasts of a channel delivered after {@code afterSequence}, oldest first, or
+     *         empty if the bus does not keep them or no longer holds all of them
+     */
+    default Optional<List<SseBroadcast>> history(String topic, Integer channelId,
+            long afterSequence) {
+        return Optional.empty();
+    }
+}
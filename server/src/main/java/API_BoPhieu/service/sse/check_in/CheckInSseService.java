@@ -3,7 +3,7 @@ package API_BoPhieu.service.sse.check_in;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface CheckInSseService {
-    void addEmitter(Integer eventId, SseEmitter emitter);
+    void addEmitter(Integer eventId, SseEmitter emitter, String lastEventId);
 
     void sendEventToClients(Integer eventId, String eventName, Object data);
 }
@@ -1,45 +1,193 @@
 package API_BoPhieu.service.sse.check_in;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import API_BoPhieu.service.sse.SseConnectionSource;
+import API_BoPhieu.service.sse.SseFrame;
+import API_BoPhieu.service.sse.SseFrameFactory;
+import API_BoPhieu.service.sse.SseReplayBuffer;
+import API_BoPhieu.service.sse.SseSubscriber;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Check-in SSE fan-out. Producers publish on the {@link SseBroadcastBus} so that every node
+ * receives the event; each node only enqueues it for its own subscribers. A periodic flush
+ * coalesces the check-ins of each channel into one pre-serialized frame and hands that same frame
+ * to every subscriber's bounded queue, which the dispatcher executor drains. A slow dashboard
+ * therefore never delays the check-in request itself.
+ *
+ * <p>
+ * The last frame of every flush carries the bus sequence of the channel as its event id and is
+ * kept in a per-channel {@link SseReplayBuffer}, which outlives the last subscriber for a while.
+ * A client reconnecting with {@code Last-Event-ID} receives only the frames it missed, from that
+ * buffer or, when it reconnects to a node that has not been serving the channel, from the bus
+ * history. When neither holds them the client is told to resync. Replayed check-ins may repeat
+ * some already seen, which clients apply idempotently.
+ */
 @Service
 @Slf4j
-public class CheckInSseServiceImpl implements CheckInSseService {
-    private final Map<Integer, List<SseEmitter>> emittersByChannelId = new ConcurrentHashMap<>();
+public class CheckInSseServiceImpl implements CheckInSseService, SseConnectionSource {
+
+    static final String TOPIC = "check-in";
+    static final String INIT_EVENT = "INIT";
+    static final String RESYNC_EVENT = "resync-required";
+    static final String CHECKED_IN_EVENT = "participant-checked-in";
+    static final String BATCH_CHECKED_IN_EVENT = "participants-checked-in";
+    private static final String RESYNC_DATA = "{\"status\": \"resync_required\"}";
+
+    private final Map<Integer, Channel> channels = new ConcurrentHashMap<>();
+    private final SseFrameFactory frameFactory;
+    private final SseBroadcastBus broadcastBus;
+    private final Executor dispatchExecutor;
+    private final int clientQueueCapacity;
+    private final int replayBufferSize;
+    private final Duration replayRetention;
+
+    public CheckInSseServiceImpl(final SseFrameFactory frameFactory,
+            final SseBroadcastBus broadcastBus,
+            @Qualifier("sseDispatchExecutor") final Executor dispatchExecutor,
+            @Value("${app.sse.client-queue-capacity:64}") final int clientQueueCapacity,
+            @Value("${app.sse.check-in.replay-buffer-size:256}") final int replayBufferSize,
+            @Value("${app.sse.check-in.replay-retention:PT10M}") final Duration replayRetention) {
+        this.frameFactory = frameFactory;
+        this.broadcastBus = broadcastBus;
+        this.dispatchExecutor = dispatchExecutor;
+        this.clientQueueCapacity = clientQueueCapacity;
+        this.replayBufferSize = replayBufferSize;
+        this.replayRetention = replayRetention;
+    }
+
+    @PostConstruct
+    void subscribeToBus() {
+        broadcastBus.subscribe(TOPIC, this::enqueueLocally);
+    }
 
     @Override
-    public void addEmitter(final Integer channelId, final SseEmitter emitter) {
-        final List<SseEmitter> emitters = this.emittersByChannelId.computeIfAbsent(channelId,
-                k -> new CopyOnWriteArrayList<>());
-        emitters.add(emitter);
+    public void addEmitter(final Integer channelId, final SseEmitter emitter,
+            final String lastEventId) {
+        final SseSubscriber subscriber = new SseSubscriber(emitter, clientQueueCapacity,
+                (closed, reason) -> removeEmitter(channelId, closed, reason));
+        final Channel channel = this.channels.compute(channelId, (k, existing) -> {
+            final Channel ch = existing != null ? existing : new Channel(replayBufferSize);
+            ch.idleSince = null;
+            return ch;
+        });
+
+        final Optional<Long> sequence =
+                lastEventId == null ? Optional.empty() : parseSequence(lastEventId);
+        // Read outside the channel lock so a slow query never holds up the channel's flushes
+        final Optional<List<SseBroadcast>> history = sequence.filter(s -> needsHistory(channel, s))
+                .flatMap(s -> broadcastBus.history(TOPIC, channelId, s));
+
+        synchronized (channel) {
+            channel.subscribers.add(subscriber);
+            final String initId = lastEventId == null ? channel.replayBuffer.lastEventId() : null;
+            subscriber.offer(frameFactory.frame(initId, INIT_EVENT,
+                    "Kết nối SSE thành công tới sự kiện " + channelId), dispatchExecutor);
+            if (lastEventId != null) {
+                replay(channelId, channel, subscriber, lastEventId, history);
+            }
+        }
         log.info("SSE: Client mới đã kết nối tới sự kiện ID {}. Tổng số client: {}", channelId,
-                emitters.size());
+                channel.subscribers.size());
 
-        emitter.onCompletion(() -> removeEmitter(channelId, emitter, "COMPLETED"));
-        emitter.onTimeout(() -> removeEmitter(channelId, emitter, "TIMED_OUT"));
-        emitter.onError(e -> removeEmitter(channelId, emitter, "ERROR"));
+        emitter.onCompletion(() -> subscriber.close("COMPLETED"));
+        emitter.onTimeout(() -> subscriber.close("TIMED_OUT"));
+        emitter.onError(e -> subscriber.close("ERROR"));
     }
 
-    private void removeEmitter(final Integer channelId, final SseEmitter emitter,
+    private static boolean needsHistory(final Channel channel, final long sequence) {
+        synchronized (channel) {
+            return channel.replayBuffer.canReplayFrom(sequence)
+                    && !channel.replayBuffer.covers(sequence);
+        }
+    }
+
+    /**
+     * Sends the frames missed since {@code lastEventId}, or a resync request if they are no longer
+     * available, may miss a late broadcast or would not fit in the client's queue. Called with
+     * the channel lock held, so no flush can interleave between the replay and live frames.
+     * {@code history} was read before the lock was taken, so the frames flushed since its newest
+     * broadcast are taken from the buffer.
+     */
+    private void replay(final Integer channelId, final Channel channel,
+            final SseSubscriber subscriber, final String lastEventId,
+            final Optional<List<SseBroadcast>> history) {
+        final Optional<List<SseFrame>> missed = parseSequence(lastEventId)
+                .filter(channel.replayBuffer::canReplayFrom)
+                .flatMap(sequence -> channel.replayBuffer.framesAfter(sequence)
+                        .or(() -> history.flatMap(h -> withBufferedFrames(channel, sequence, h))));
+        if (missed.isPresent() && missed.get().size() < clientQueueCapacity) {
+            log.info("SSE: Phát lại {} frame cho client của sự kiện ID {} từ ID {}",
+                    missed.get().size(), channelId, lastEventId);
+            for (final SseFrame frame : missed.get()) {
+                subscriber.offer(frame, dispatchExecutor);
+            }
+            return;
+        }
+        log.info("SSE: Không thể phát lại từ ID {} cho sự kiện ID {}, yêu cầu client đồng bộ lại",
+                lastEventId, channelId);
+        subscriber.offer(frameFactory.frame(channel.replayBuffer.lastEventId(), RESYNC_EVENT,
+                RESYNC_DATA), dispatchExecutor);
+    }
+
+    /**
+     * The history frames followed by the buffered frames newer than the history, or empty if the
+     * buffer no longer reaches back to the history's newest broadcast.
+     */
+    private Optional<List<SseFrame>> withBufferedFrames(final Channel channel,
+            final long sequence, final List<SseBroadcast> history) {
+        final long historyHead =
+                history.isEmpty() ? sequence : history.get(history.size() - 1).sequence();
+        return channel.replayBuffer.framesAfterHistory(historyHead).map(newer -> {
+            final List<SseFrame> frames = new ArrayList<>(toFrames(history));
+            frames.addAll(newer);
+            return frames;
+        });
+    }
+
+    @Override
+    public String streamName() {
+        return TOPIC;
+    }
+
+    @Override
+    public Map<String, Collection<SseSubscriber>> connectionsByChannel() {
+        return this.channels.entrySet().stream().collect(Collectors
+                .toMap(entry -> entry.getKey().toString(), entry -> entry.getValue().subscribers));
+    }
+
+    private void removeEmitter(final Integer channelId, final SseSubscriber subscriber,
             final String reason) {
-        final List<SseEmitter> emitters = this.emittersByChannelId.get(channelId);
-        if (emitters != null) {
-            emitters.remove(emitter);
+        final Channel channel = this.channels.get(channelId);
+        if (channel != null && channel.subscribers.remove(subscriber)) {
             log.info(
                     "SSE: Client đã ngắt kết nối khỏi sự kiện ID {} vì lý do: {}. Số client còn lại: {}",
-                    channelId, reason, emitters.size());
+                    channelId, reason, channel.subscribers.size());
 
-            if (emitters.isEmpty()) {
-                this.emittersByChannelId.remove(channelId);
-                log.info("SSE: Kênh ID {} không còn client nào, đã xóa kênh.", channelId);
+            if (channel.subscribers.isEmpty()) {
+                channel.idleSince = Instant.now();
+                log.info("SSE: Kênh ID {} không còn client nào, giữ lại lịch sử để phát lại.",
+                        channelId);
             }
         }
     }
@@ -47,31 +195,136 @@ public class CheckInSseServiceImpl implements CheckInSseService {
     @Override
     public void sendEventToClients(final Integer channelId, final String eventName,
             final Object data) {
-        final List<SseEmitter> emitters = this.emittersByChannelId.get(channelId);
-        if (emitters == null || emitters.isEmpty()) {
+        broadcastBus.publish(new SseBroadcast(TOPIC, channelId, eventName, data));
+    }
+
+    private void enqueueLocally(final SseBroadcast broadcast) {
+        final Channel channel = this.channels.get(broadcast.channelId());
+        if (channel == null) {
             log.debug("SSE: Không tìm thấy client nào cho kênh ID {} để gửi sự kiện '{}'",
-                    channelId, eventName);
+                    broadcast.channelId(), broadcast.eventName());
             return;
         }
+        channel.pending.add(broadcast);
+    }
 
-        log.debug("SSE: Gửi sự kiện '{}' đến {} client(s) của kênh ID {}", eventName,
-                emitters.size(), channelId);
-
-        final List<SseEmitter> deadEmitters = new ArrayList<>();
-        emitters.forEach(emitter -> {
-            try {
-                emitter.send(SseEmitter.event().name(eventName).data(data));
-            } catch (IOException e) {
-                log.warn("SSE: Lỗi khi gửi sự kiện đến 1 client, đánh dấu để xóa. Kênh ID {}",
-                        channelId);
-                deadEmitters.add(emitter);
+    @Scheduled(fixedDelayString = "${app.sse.check-in.flush-interval-ms:250}")
+    public void flushPendingEvents() {
+        this.channels.forEach((channelId, channel) -> {
+            final List<SseBroadcast> broadcasts = new ArrayList<>();
+            SseBroadcast broadcast;
+            while ((broadcast = channel.pending.poll()) != null) {
+                broadcasts.add(broadcast);
+            }
+            if (broadcasts.isEmpty()) {
+                return;
+            }
+            synchronized (channel) {
+                channel.replayBuffer.advance(
+                        broadcasts.stream().map(SseBroadcast::sequence).toList());
+                final List<SseFrame> frames =
+                        toFrames(coalesce(broadcasts), channel.replayBuffer.lastEventId());
+                log.debug("SSE: Gửi {} frame đến {} client(s) của kênh ID {}", frames.size(),
+                        channel.subscribers.size(), channelId);
+                for (final SseFrame frame : frames) {
+                    channel.replayBuffer.record(frame);
+                    for (final SseSubscriber subscriber : channel.subscribers) {
+                        subscriber.offer(frame, dispatchExecutor);
+                    }
+                }
             }
         });
+    }
+
+    /**
+     * Drops channels whose last subscriber left longer than the replay retention ago.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.check-in.idle-channel-sweep-ms:60000}")
+    public void evictIdleChannels() {
+        final Instant cutoff = Instant.now().minus(replayRetention);
+        for (final Integer channelId : this.channels.keySet()) {
+            this.channels.computeIfPresent(channelId, (k, channel) -> channel.isIdleBefore(cutoff)
+                    ? null
+                    : channel);
+        }
+    }
+
+    /**
+     * Frames replayed from the bus history, the last one carrying the newest sequence.
+     */
+    private List<SseFrame> toFrames(final List<SseBroadcast> broadcasts) {
+        final String lastId = broadcasts.isEmpty() ? null
+                : Long.toString(broadcasts.get(broadcasts.size() - 1).sequence());
+        return toFrames(coalesce(broadcasts), lastId);
+    }
+
+    /**
+     * Only the last frame carries the id, so a client that drops mid-flush reconnects from the
+     * previous position and gets the whole flush again instead of losing part of it.
+     */
+    private List<SseFrame> toFrames(final List<PendingEvent> events, final String lastId) {
+        final List<SseFrame> frames = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            final PendingEvent event = events.get(i);
+            frames.add(frameFactory.frame(i == events.size() - 1 ? lastId : null, event.name(),
+                    event.data()));
+        }
+        return frames;
+    }
+
+    private static Optional<Long> parseSequence(final String lastEventId) {
+        try {
+            return Optional.of(Long.parseLong(lastEventId));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Merges every check-in of the given broadcasts into a single batched event. A lone check-in
+     * keeps its original event name so existing clients keep working. Batches relayed from
+     * another node arrive as JSON arrays, hence the {@link Iterable} check.
+     */
+    private List<PendingEvent> coalesce(final List<SseBroadcast> broadcasts) {
+        final List<PendingEvent> events = new ArrayList<>();
+        final List<Object> checkIns = new ArrayList<>();
+        for (final SseBroadcast broadcast : broadcasts) {
+            if (CHECKED_IN_EVENT.equals(broadcast.eventName())) {
+                checkIns.add(broadcast.data());
+            } else if (BATCH_CHECKED_IN_EVENT.equals(broadcast.eventName())
+                    && broadcast.data() instanceof Iterable<?> batch) {
+                batch.forEach(checkIns::add);
+            } else {
+                events.add(new PendingEvent(broadcast.eventName(), broadcast.data()));
+            }
+        }
+        if (checkIns.size() == 1) {
+            events.add(new PendingEvent(CHECKED_IN_EVENT, checkIns.get(0)));
+        } else if (!checkIns.isEmpty()) {
+            events.add(new PendingEvent(BATCH_CHECKED_IN_EVENT, checkIns));
+        }
+        return events;
+    }
+
+    private record PendingEvent(String name, Object data) {
+    }
+
+    /**
+     * Per-event state: live subscribers, events waiting for the next flush and the replay history.
+     */
+    private static final class Channel {
+        private final List<SseSubscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final Queue<SseBroadcast> pending = new ConcurrentLinkedQueue<>();
+        private final SseReplayBuffer replayBuffer;
+        private volatile Instant idleSince;
+
+        private Channel(final int replayBufferSize) {
+            this.replayBuffer = new SseReplayBuffer(replayBufferSize);
+        }
 
-        if (!deadEmitters.isEmpty()) {
-            emitters.removeAll(deadEmitters);
-            log.info("SSE: Đã xóa {} client không hoạt động khỏi kênh ID {}", deadEmitters.size(),
-                    channelId);
+        private boolean isIdleBefore(final Instant cutoff) {
+            final Instant since = idleSince;
+            return subscribers.isEmpty() && since != null && since.isBefore(cutoff);
         }
     }
 }
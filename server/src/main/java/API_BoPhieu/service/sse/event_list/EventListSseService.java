@@ -1,9 +1,11 @@
 package API_BoPhieu.service.sse.event_list;
 
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import API_BoPhieu.constants.EventChangeType;
+import API_BoPhieu.dto.event.EventResponse;
 
 public interface EventListSseService {
     void addEmitter(SseEmitter emitter);
 
-    void dispatchListUpdate();
+    void dispatchEventChange(EventChangeType type, EventResponse event);
 }
@@ -1,32 +1,95 @@
 package API_BoPhieu.service.sse.event_list;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.constants.EventChangeType;
+import API_BoPhieu.dto.event.EventChange;
+import API_BoPhieu.dto.event.EventListUpdate;
+import API_BoPhieu.dto.event.EventResponse;
+import API_BoPhieu.service.event.EventStatusCounters;
+import API_BoPhieu.service.sse.SseConnectionSource;
+import API_BoPhieu.service.sse.SseFrame;
+import API_BoPhieu.service.sse.SseFrameFactory;
+import API_BoPhieu.service.sse.SseSubscriber;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Event-list SSE stream. Changes are collected per event over a short debounce window and sent
+ * as one {@link EventListUpdate} with fresh status counters, so clients patch their list in place
+ * instead of all reloading it after every edit.
+ */
 @Service
 @Slf4j
-public class EventListSseServiceImpl implements EventListSseService {
-    private final List<SseEmitter> globalEmitters = new CopyOnWriteArrayList<>();
+public class EventListSseServiceImpl implements EventListSseService, SseConnectionSource {
+    private final List<SseSubscriber> globalEmitters = new CopyOnWriteArrayList<>();
+    private final Map<Integer, EventChange> pendingChanges = new ConcurrentHashMap<>();
 
+    private static final String TOPIC = "event-list";
     private static final String EVENT_NAME = "event_list_updated";
-    private static final String EVENT_DATA = "{\"status\": \"needs_refresh\"}";
+
+    private final SseBroadcastBus broadcastBus;
+    private final SseFrameFactory frameFactory;
+    private final EventStatusCounters eventStatusCounters;
+    private final ObjectMapper objectMapper;
+    private final Executor dispatchExecutor;
+    private final int clientQueueCapacity;
+
+    public EventListSseServiceImpl(final SseBroadcastBus broadcastBus,
+            final SseFrameFactory frameFactory, final EventStatusCounters eventStatusCounters,
+            final ObjectMapper objectMapper,
+            @Qualifier("sseDispatchExecutor") final Executor dispatchExecutor,
+            @Value("${app.sse.client-queue-capacity:64}") final int clientQueueCapacity) {
+        this.broadcastBus = broadcastBus;
+        this.frameFactory = frameFactory;
+        this.eventStatusCounters = eventStatusCounters;
+        this.objectMapper = objectMapper;
+        this.dispatchExecutor = dispatchExecutor;
+        this.clientQueueCapacity = clientQueueCapacity;
+    }
+
+    @PostConstruct
+    void subscribeToBus() {
+        broadcastBus.subscribe(TOPIC, this::collectChange);
+    }
 
     @Override
     public void addEmitter(SseEmitter emitter) {
-        this.globalEmitters.add(emitter);
+        final SseSubscriber subscriber =
+                new SseSubscriber(emitter, clientQueueCapacity, this::removeEmitter);
+        this.globalEmitters.add(subscriber);
         log.info("SSE-GLOBAL: Client mới đã kết nối. Tổng số: {}", globalEmitters.size());
 
-        emitter.onCompletion(() -> removeEmitter(emitter, "COMPLETED"));
-        emitter.onTimeout(() -> removeEmitter(emitter, "TIMED_OUT"));
-        emitter.onError(e -> removeEmitter(emitter, "ERROR"));
+        emitter.onCompletion(() -> subscriber.close("COMPLETED"));
+        emitter.onTimeout(() -> subscriber.close("TIMED_OUT"));
+        emitter.onError(e -> subscriber.close("ERROR"));
     }
 
-    private void removeEmitter(final SseEmitter emitter, final String reason) {
-        final boolean removed = this.globalEmitters.remove(emitter);
+    @Override
+    public String streamName() {
+        return TOPIC;
+    }
+
+    @Override
+    public Map<String, Collection<SseSubscriber>> connectionsByChannel() {
+        return Map.of("global", globalEmitters);
+    }
+
+    private void removeEmitter(final SseSubscriber subscriber, final String reason) {
+        final boolean removed = this.globalEmitters.remove(subscriber);
         if (removed) {
             log.info("SSE-GLOBAL: Client đã ngắt kết nối (Lý do: {}). Còn lại: {} client(s)",
                     reason, globalEmitters.size());
@@ -34,21 +97,56 @@ public class EventListSseServiceImpl implements EventListSseService {
     }
 
     @Override
-    public void dispatchListUpdate() {
-        log.debug("SSE-GLOBAL: Bắt đầu gửi thông báo '{}' đến {} client(s)", EVENT_NAME,
-                globalEmitters.size());
+    public void dispatchEventChange(final EventChangeType type, final EventResponse event) {
+        broadcastBus.publish(new SseBroadcast(TOPIC, null, type.name(),
+                EventChange.builder().type(type).event(event).build()));
+    }
 
-        for (final SseEmitter emitter : this.globalEmitters) {
-            try {
-                SseEmitter.SseEventBuilder eventBuilder =
-                        SseEmitter.event().name(EVENT_NAME).data(EVENT_DATA);
+    private void collectChange(final SseBroadcast broadcast) {
+        if (globalEmitters.isEmpty()) {
+            return;
+        }
+        final EventChange change = broadcast.data() instanceof EventChange local ? local
+                : objectMapper.convertValue(broadcast.data(), EventChange.class);
+        pendingChanges.merge(change.getEvent().getId(), change, EventListSseServiceImpl::merge);
+    }
 
-                emitter.send(eventBuilder);
-            } catch (IOException e) {
-                log.warn("SSE-GLOBAL: Lỗi khi gửi SSE, có thể client đã ngắt kết nối: {}",
-                        e.getMessage());
-            }
+    /**
+     * An event created and then edited within one window is still reported as created.
+     */
+    private static EventChange merge(final EventChange previous, final EventChange next) {
+        if (previous.getType() == EventChangeType.CREATED
+                && next.getType() == EventChangeType.UPDATED) {
+            return EventChange.builder().type(EventChangeType.CREATED).event(next.getEvent())
+                    .build();
         }
+        return next;
     }
 
+    @Scheduled(fixedDelayString = "${app.sse.event-list.debounce-ms:500}")
+    public void flushPendingChanges() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        final List<EventChange> changes = new ArrayList<>(pendingChanges.size());
+        for (final Integer eventId : pendingChanges.keySet()) {
+            final EventChange change = pendingChanges.remove(eventId);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        if (changes.isEmpty() || globalEmitters.isEmpty()) {
+            return;
+        }
+
+        final EventListUpdate update = EventListUpdate.builder().changes(changes)
+                .counters(eventStatusCounters.statusCounters().build()).build();
+        final SseFrame frame = frameFactory.frame(EVENT_NAME, update);
+        log.debug("SSE-GLOBAL: Gửi {} thay đổi sự kiện đến {} client(s)", changes.size(),
+                globalEmitters.size());
+
+        for (final SseSubscriber subscriber : this.globalEmitters) {
+            subscriber.offer(frame, dispatchExecutor);
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package API_BoPhieu.service.sse.poll_results;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface PollResultsSseService {
+    /**
+     * Streams the results of every poll of the event, including polls created later.
+     */
+    void addEmitter(Integer eventId, SseEmitter emitter);
+
+    /**
+     * Tells every node that a poll of the event was created or changed (title, options,
+     * open/closed), so the next frames are built from fresh metadata.
+     */
+    void dispatchPollChanged(Integer eventId);
+}
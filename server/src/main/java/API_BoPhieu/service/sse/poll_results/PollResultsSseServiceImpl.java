@@ -0,0 +1,228 @@
+package API_BoPhieu.service.sse.poll_results;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import API_BoPhieu.dto.poll.PollStatsResponse;
+import API_BoPhieu.entity.Option;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.exception.EventException;
+import API_BoPhieu.mapper.PollMapper;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.repository.OptionRepository;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.service.poll.PollTally;
+import API_BoPhieu.service.poll.PollTallyService;
+import API_BoPhieu.service.sse.SseConnectionSource;
+import API_BoPhieu.service.sse.SseFrame;
+import API_BoPhieu.service.sse.SseFrameFactory;
+import API_BoPhieu.service.sse.SseSubscriber;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live poll results, one stream per event carrying every poll of it. Every frame interval each
+ * poll's {@link PollStatsResponse} is rebuilt from its in-memory {@link PollTally} and sent only
+ * if it differs from the last frame for that poll, so a results screen costs one connection and
+ * no queries however fast the votes come in. The event's polls and options are read once per
+ * channel and reloaded when a poll is created, edited or closed.
+ *
+ * <p>
+ * Anything that may query the database runs outside the channel lock; the lock only guards what
+ * was last sent and the hand-off to the subscribers' queues.
+ */
+@Service
+@Slf4j
+public class PollResultsSseServiceImpl implements PollResultsSseService, SseConnectionSource {
+    private final Map<Integer, Channel> channels = new ConcurrentHashMap<>();
+
+    private static final String TOPIC = "poll-results";
+    private static final String EVENT_NAME = "poll_stats";
+
+    private final EventRepository eventRepository;
+    private final PollRepository pollRepository;
+    private final OptionRepository optionRepository;
+    private final PollTallyService pollTallyService;
+    private final SseBroadcastBus broadcastBus;
+    private final SseFrameFactory frameFactory;
+    private final Executor dispatchExecutor;
+    private final int clientQueueCapacity;
+
+    public PollResultsSseServiceImpl(final EventRepository eventRepository,
+            final PollRepository pollRepository, final OptionRepository optionRepository,
+            final PollTallyService pollTallyService, final SseBroadcastBus broadcastBus,
+            final SseFrameFactory frameFactory,
+            @Qualifier("sseDispatchExecutor") final Executor dispatchExecutor,
+            @Value("${app.sse.client-queue-capacity:64}") final int clientQueueCapacity) {
+        this.eventRepository = eventRepository;
+        this.pollRepository = pollRepository;
+        this.optionRepository = optionRepository;
+        this.pollTallyService = pollTallyService;
+        this.broadcastBus = broadcastBus;
+        this.frameFactory = frameFactory;
+        this.dispatchExecutor = dispatchExecutor;
+        this.clientQueueCapacity = clientQueueCapacity;
+    }
+
+    private static final class Channel {
+        final List<SseSubscriber> subscribers = new CopyOnWriteArrayList<>();
+        /** Bumped by every change to the event's polls; metadata read before a bump is stale. */
+        final AtomicLong changes = new AtomicLong(1);
+        volatile Metadata metadata = new Metadata(0, List.of());
+        /** Last frame sent per poll, guarded by the channel lock. */
+        final Map<Integer, PollStatsResponse> lastSent = new HashMap<>();
+    }
+
+    private record Metadata(long version, List<PollMetadata> polls) {
+    }
+
+    private record PollMetadata(Poll poll, List<Option> options) {
+    }
+
+    @PostConstruct
+    void subscribeToBus() {
+        broadcastBus.subscribe(TOPIC, broadcast -> {
+            final Channel channel = channels.get(broadcast.channelId());
+            if (channel != null) {
+                channel.changes.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void addEmitter(final Integer eventId, final SseEmitter emitter) {
+        if (!eventRepository.existsById(eventId)) {
+            throw new EventException("Không tìm thấy sự kiện với ID: " + eventId);
+        }
+        final SseSubscriber subscriber = new SseSubscriber(emitter, clientQueueCapacity,
+                (closed, reason) -> removeEmitter(eventId, closed, reason));
+        final Channel channel = channels.compute(eventId, (k, existing) -> {
+            final Channel ch = existing != null ? existing : new Channel();
+            ch.subscribers.add(subscriber);
+            return ch;
+        });
+
+        final List<PollStatsResponse> snapshot = snapshot(eventId, channel);
+        synchronized (channel) {
+            for (final PollStatsResponse stats : snapshot) {
+                subscriber.offer(frameFactory.frame(EVENT_NAME, stats), dispatchExecutor);
+                // A tick may already have sent the newcomer newer results than these; forgetting
+                // what the others were sent makes the next tick send everyone the current ones.
+                if (!stats.equals(channel.lastSent.get(stats.getId()))) {
+                    channel.lastSent.remove(stats.getId());
+                }
+            }
+        }
+        log.info(
+                "SSE-POLL: Client mới theo dõi kết quả poll của sự kiện ID {}. Tổng số client: {}",
+                eventId, channel.subscribers.size());
+
+        emitter.onCompletion(() -> subscriber.close("COMPLETED"));
+        emitter.onTimeout(() -> subscriber.close("TIMED_OUT"));
+        emitter.onError(e -> subscriber.close("ERROR"));
+    }
+
+    @Override
+    public void dispatchPollChanged(final Integer eventId) {
+        broadcastBus.publish(new SseBroadcast(TOPIC, eventId, "poll_changed", eventId));
+    }
+
+    @Override
+    public String streamName() {
+        return TOPIC;
+    }
+
+    @Override
+    public Map<String, Collection<SseSubscriber>> connectionsByChannel() {
+        return channels.entrySet().stream().collect(Collectors.toMap(
+                entry -> String.valueOf(entry.getKey()), entry -> entry.getValue().subscribers));
+    }
+
+    private void removeEmitter(final Integer eventId, final SseSubscriber subscriber,
+            final String reason) {
+        final Channel channel = channels.computeIfPresent(eventId, (k, ch) -> {
+            ch.subscribers.remove(subscriber);
+            return ch.subscribers.isEmpty() ? null : ch;
+        });
+        log.info(
+                "SSE-POLL: Client ngừng theo dõi poll của sự kiện ID {} (Lý do: {}). Còn lại: {} client(s)",
+                eventId, reason, channel != null ? channel.subscribers.size() : 0);
+    }
+
+    @Scheduled(fixedRateString = "${app.sse.poll-results.frame-interval-ms:1000}")
+    public void publishChangedResults() {
+        for (final Map.Entry<Integer, Channel> entry : channels.entrySet()) {
+            final Integer eventId = entry.getKey();
+            final Channel channel = entry.getValue();
+            try {
+                final List<PollStatsResponse> snapshot = snapshot(eventId, channel);
+                synchronized (channel) {
+                    channel.lastSent.keySet().retainAll(
+                            snapshot.stream().map(PollStatsResponse::getId).toList());
+                    for (final PollStatsResponse stats : snapshot) {
+                        if (stats.equals(channel.lastSent.get(stats.getId()))) {
+                            continue;
+                        }
+                        channel.lastSent.put(stats.getId(), stats);
+                        final SseFrame frame = frameFactory.frame(EVENT_NAME, stats);
+                        for (final SseSubscriber subscriber : channel.subscribers) {
+                            subscriber.offer(frame, dispatchExecutor);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.error("SSE-POLL: Lỗi khi gửi kết quả poll của sự kiện ID {}", eventId,
+                        e);
+            }
+        }
+    }
+
+    private List<PollStatsResponse> snapshot(final Integer eventId, final Channel channel) {
+        final List<PollStatsResponse> snapshot = new ArrayList<>();
+        for (final PollMetadata metadata : metadata(eventId, channel)) {
+            final PollTally tally = pollTallyService.tally(metadata.poll().getId());
+            snapshot.add(PollMapper.toPollStatsResponse(metadata.poll(), metadata.options(),
+                    tally.voteCounts(metadata.options()), tally.totalVoters()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * The event's polls and their options, reloaded if a change arrived since they were read. A
+     * read that overlapped a newer change is used once but not kept.
+     */
+    private List<PollMetadata> metadata(final Integer eventId, final Channel channel) {
+        final long version = channel.changes.get();
+        final Metadata current = channel.metadata;
+        if (current.version() == version) {
+            return current.polls();
+        }
+        final List<Poll> polls = pollRepository.findByEventId(eventId);
+        final Map<Integer, List<Option>> optionsByPoll = polls.isEmpty() ? Map.of()
+                : optionRepository
+                        .findByPollIdInOrderByIdAsc(polls.stream().map(Poll::getId).toList())
+                        .stream().collect(Collectors.groupingBy(Option::getPollId));
+        final List<PollMetadata> loaded = polls.stream().map(poll -> new PollMetadata(poll,
+                optionsByPoll.getOrDefault(poll.getId(), List.of()))).toList();
+        synchronized (channel) {
+            if (channel.metadata.version() < version) {
+                channel.metadata = new Metadata(version, loaded);
+            }
+        }
+        return loaded;
+    }
+}
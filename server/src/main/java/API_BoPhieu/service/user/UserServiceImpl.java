@@ -37,6 +37,7 @@ public class UserServiceImpl implements UserService {
     private final UnitMapper unitMapper;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
+    private final UserSnapshotCache userSnapshotCache;
 
     private UserResponseDTO convertToDto(User user, Map<Integer, Unit> unitMap) {
         UserResponseDTO userDto = userMapper.toResponseDTO(user);
@@ -103,6 +104,7 @@ public class UserServiceImpl implements UserService {
                 () -> new ResourceNotFoundException("Không tìm thấy người dùng với ID: " + id));
         user.setEnabled(false);
         userRepository.save(user);
+        userSnapshotCache.evict(user.getEmail());
         log.info("Đã vô hiệu hóa thành công người dùng '{}' (ID: {})", user.getEmail(), id);
     }
 
@@ -114,6 +116,7 @@ public class UserServiceImpl implements UserService {
                 () -> new ResourceNotFoundException("Không tìm thấy người dùng với ID: " + id));
         user.setEnabled(true);
         userRepository.save(user);
+        userSnapshotCache.evict(user.getEmail());
         log.info("Đã kích hoạt thành công người dùng '{}' (ID: {})", user.getEmail(), id);
     }
 
@@ -135,6 +138,7 @@ public class UserServiceImpl implements UserService {
         userToUpdate.setPhoneNumber(userDto.getPhoneNumber());
         userToUpdate.setUnitId(userDto.getUnitId());
         User updatedUser = userRepository.save(userToUpdate);
+        userSnapshotCache.evict(updatedUser.getEmail());
         log.info("Người dùng '{}' đã cập nhật thành công thông tin.", updatedUser.getEmail());
 
         return getUserById(updatedUser.getId());
@@ -173,6 +177,7 @@ public class UserServiceImpl implements UserService {
 
         user.setRoles(new HashSet<>(Collections.singletonList(role)));
         User updatedUser = userRepository.save(user);
+        userSnapshotCache.evict(updatedUser.getEmail());
         log.info("Đã cập nhật thành công vai trò cho người dùng '{}'", updatedUser.getEmail());
 
         return getUserById(updatedUser.getId());
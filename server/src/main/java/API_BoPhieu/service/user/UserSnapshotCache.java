@@ -0,0 +1,65 @@
+package API_BoPhieu.service.user;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import API_BoPhieu.dto.user.UserResponseDTO;
+import API_BoPhieu.entity.User;
+import API_BoPhieu.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches a unit-less user snapshot by email for hot paths such as check-in. Emails never change,
+ * so keys stay valid; services that modify a user must call {@link #evict(String)}.
+ */
+@Component
+@Slf4j
+public class UserSnapshotCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserResponseDTO> snapshots;
+
+    public UserSnapshotCache(final UserRepository userRepository,
+            @Value("${app.cache.user-snapshot.max-size:20000}") final long maxSize,
+            @Value("${app.cache.user-snapshot.ttl:PT30M}") final Duration ttl) {
+        this.userRepository = userRepository;
+        this.snapshots = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public Optional<UserResponseDTO> findByEmail(final String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        // Loaded outside Cache.get(key, loader): the loader runs under a ConcurrentHashMap bin
+        // lock, which would pin a virtual thread for the whole query.
+        final UserResponseDTO cached = snapshots.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        final UserResponseDTO loaded = load(email);
+        if (loaded != null) {
+            snapshots.put(email, loaded);
+        }
+        return Optional.ofNullable(loaded);
+    }
+
+    public void evict(final String email) {
+        if (email != null) {
+            snapshots.invalidate(email);
+        }
+    }
+
+    private UserResponseDTO load(final String email) {
+        log.debug("UserSnapshotCache: cache miss cho email '{}', truy vấn DB", email);
+        return userRepository.findByEmail(email).map(UserSnapshotCache::toSnapshot).orElse(null);
+    }
+
+    private static UserResponseDTO toSnapshot(final User user) {
+        return UserResponseDTO.builder().id(user.getId()).email(user.getEmail())
+                .name(user.getName()).phoneNumber(user.getPhoneNumber())
+                .enabled(user.getEnabled()).roles(user.getRoles()).build();
+    }
+}
@@ -1,5 +1,7 @@
 package API_BoPhieu.specification;
 
+import java.util.Collection;
+
 import org.springframework.data.jpa.domain.Specification;
 
 import API_BoPhieu.constants.EventStatus;
@@ -62,6 +64,15 @@ public class EventSpecification {
         };
     }
 
+    public static Specification<Event> hasIdIn(Collection<Integer> eventIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (eventIds.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            return root.get("id").in(eventIds);
+        };
+    }
+
     public static Specification<Event> searchByKeyword(String keyword) {
         return (root, query, criteriaBuilder) -> {
             if (keyword == null || keyword.trim().isEmpty()) {
@@ -0,0 +1,127 @@
+package API_BoPhieu.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens many check-in SSE subscriptions against a running instance and reports how many connect
+ * and are still receiving heartbeats at the end of the hold period. Run it once against a pod
+ * with the default settings and once with {@code spring.threads.virtual.enabled=true}:
+ *
+ * <pre>
+ * mvn test -Dtest=CheckInSubscriberLoadTest -Dloadtest.base-url=http://localhost:8080/api/v1 \
+ *     -Dloadtest.event-id=1 -Dloadtest.subscribers=5000 -Dloadtest.hold-seconds=60
+ * </pre>
+ *
+ * Skipped unless {@code loadtest.base-url} is set. The hold period should exceed
+ * {@code app.sse.heartbeat.interval-ms} so that every live connection sees at least one heartbeat.
+ */
+@EnabledIfSystemProperty(named = "loadtest.base-url", matches = ".+")
+class CheckInSubscriberLoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckInSubscriberLoadTest.class);
+
+    @Test
+    void holdsConcurrentCheckInSubscribers() throws Exception {
+        final String baseUrl = System.getProperty("loadtest.base-url");
+        final int eventId = Integer.getInteger("loadtest.event-id", 1);
+        final int subscribers = Integer.getInteger("loadtest.subscribers", 2000);
+        final int holdSeconds = Integer.getInteger("loadtest.hold-seconds", 60);
+        final String token = System.getProperty("loadtest.token");
+
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        final HttpRequest.Builder request = HttpRequest
+                .newBuilder(URI.create(baseUrl + "/attendants/subscribe/" + eventId))
+                .header("Accept", "text/event-stream").GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        final AtomicInteger failed = new AtomicInteger();
+        final List<StreamCounter> counters = new ArrayList<>(subscribers);
+        final List<CompletableFuture<?>> responses = new ArrayList<>(subscribers);
+        final long startedAt = System.nanoTime();
+        for (int i = 0; i < subscribers; i++) {
+            final StreamCounter counter = new StreamCounter();
+            counters.add(counter);
+            responses.add(client.sendAsync(request.build(),
+                    HttpResponse.BodyHandlers.fromLineSubscriber(counter)).exceptionally(e -> {
+                        failed.incrementAndGet();
+                        return null;
+                    }));
+        }
+
+        TimeUnit.SECONDS.sleep(holdSeconds);
+        final long heartbeatCutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(holdSeconds / 2);
+
+        final long connected = counters.stream().filter(c -> c.initReceived).count();
+        final long alive = counters.stream()
+                .filter(c -> !c.closed && c.lastHeartbeatNanos > heartbeatCutoff).count();
+        LOG.info(
+                "Check-in SSE load: requested={}, connected={}, alive after {}s={}, failed={}, "
+                        + "elapsed={}s",
+                subscribers, connected, holdSeconds, alive, failed.get(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt));
+
+        counters.forEach(StreamCounter::cancel);
+        responses.forEach(response -> response.cancel(true));
+        assertThat(connected).isPositive();
+    }
+
+    /**
+     * Counts SSE lines without holding a thread per connection.
+     */
+    private static final class StreamCounter implements Flow.Subscriber<String> {
+        private volatile Flow.Subscription subscription;
+        private volatile boolean initReceived;
+        private volatile boolean closed;
+        private volatile long lastHeartbeatNanos;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final String line) {
+            if (line.equals("event:INIT")) {
+                initReceived = true;
+            } else if (line.startsWith(":")) {
+                lastHeartbeatNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            closed = true;
+        }
+
+        @Override
+        public void onComplete() {
+            closed = true;
+        }
+
+        private void cancel() {
+            final Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
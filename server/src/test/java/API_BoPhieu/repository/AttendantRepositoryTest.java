@@ -0,0 +1,57 @@
+package API_BoPhieu.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import API_BoPhieu.entity.Attendant;
+
+@DataJpaTest(
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class AttendantRepositoryTest {
+
+    @Autowired
+    private AttendantRepository attendantRepository;
+
+    @Test
+    void batchCheckInSetsEachUsersTimeOnlyOnRowsNotCheckedIn() {
+        Instant before = Instant.parse("2026-01-01T08:00:00Z");
+        Instant first = before.plusSeconds(60);
+        Instant second = before.plusSeconds(90);
+        save(1, 10, null);
+        save(1, 11, null);
+        save(1, 12, before);
+        save(1, 13, null);
+        save(2, 10, null);
+
+        int updated = attendantRepository.markCheckedInBatch(1,
+                Map.of(10, first, 11, second, 12, second, 14, second));
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(checkedTime(1, 10)).isEqualTo(first);
+        assertThat(checkedTime(1, 11)).isEqualTo(second);
+        assertThat(checkedTime(1, 12)).isEqualTo(before);
+        assertThat(checkedTime(1, 13)).isNull();
+        assertThat(checkedTime(2, 10)).isNull();
+    }
+
+    @Test
+    void emptyBatchUpdatesNothing() {
+        assertThat(attendantRepository.markCheckedInBatch(1, Map.of())).isZero();
+    }
+
+    private void save(Integer eventId, Integer userId, Instant checkedTime) {
+        Attendant attendant = new Attendant();
+        attendant.setEventId(eventId);
+        attendant.setUserId(userId);
+        attendant.setCheckedTime(checkedTime);
+        attendantRepository.saveAndFlush(attendant);
+    }
+
+    private Instant checkedTime(Integer eventId, Integer userId) {
+        return attendantRepository.findByUserIdAndEventId(userId, eventId).orElseThrow()
+                .getCheckedTime();
+    }
+}
@@ -0,0 +1,218 @@
+package API_BoPhieu.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import API_BoPhieu.constants.EventManagement;
+import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.dto.event.EventPageRow;
+import API_BoPhieu.entity.Attendant;
+import API_BoPhieu.entity.Event;
+import API_BoPhieu.entity.EventManager;
+import API_BoPhieu.entity.User;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "API_BoPhieu.repository.EventRepositoryTest$CapturedSql"})
+class EventRepositoryTest {
+
+    public static class CapturedSql implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventManagerRepository eventManagerRepository;
+
+    @Autowired
+    private AttendantRepository attendantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void pageRowsCarryCreatorManagerCountAndRegistration() {
+        User creator = saveUser("creator@example.com");
+        User staff = saveUser("staff@example.com");
+        User manager = saveUser("manager@example.com");
+        User caller = saveUser("caller@example.com");
+        Integer managed = saveEvent(creator.getId());
+        Integer bare = saveEvent(creator.getId());
+        eventManagerRepository.save(
+                new EventManager(null, staff.getId(), managed, EventManagement.STAFF, 1));
+        eventManagerRepository.save(
+                new EventManager(null, manager.getId(), managed, EventManagement.MANAGE, 1));
+        eventManagerRepository.save(
+                new EventManager(null, staff.getId(), managed, EventManagement.MANAGE, 1));
+        register(caller.getId(), managed);
+        register(staff.getId(), managed);
+
+        Map<Integer, EventPageRow> rows = byEvent(
+                eventRepository.findPageRows(List.of(managed, bare), caller.getId()));
+
+        assertThat(rows).hasSize(2);
+        EventPageRow row = rows.get(managed);
+        assertThat(row.getCreatedByName()).isEqualTo("creator@example.com");
+        assertThat(row.getManagerId()).isEqualTo(manager.getId());
+        assertThat(row.getManagerName()).isEqualTo("manager@example.com");
+        assertThat(row.getRegistered()).isTrue();
+        assertThat(rows.get(bare).getManagerId()).isNull();
+        assertThat(rows.get(bare).getRegistered()).isFalse();
+    }
+
+    @Test
+    void anonymousCallersAreNeverRegistered() {
+        User creator = saveUser("creator@example.com");
+        Integer eventId = saveEvent(creator.getId());
+        register(creator.getId(), eventId);
+
+        List<EventPageRow> rows = eventRepository.findPageRows(List.of(eventId), null);
+
+        assertThat(rows).singleElement()
+                .satisfies(row -> assertThat(row.getRegistered()).isFalse());
+    }
+
+    @Test
+    void seatsAreReservedOnlyWhileTheyFitUnderTheMaximum() {
+        Integer eventId = saveEvent(saveUser("creator@example.com").getId(), 3);
+
+        assertThat(eventRepository.reserveSeats(eventId, 2)).isEqualTo(1);
+        assertThat(eventRepository.reserveSeats(eventId, 2)).isZero();
+        assertThat(eventRepository.reserveSeats(eventId, 1)).isEqualTo(1);
+        assertThat(eventRepository.reserveSeats(eventId, 1)).isZero();
+        eventRepository.releaseSeats(eventId, 1, 0);
+        assertThat(eventRepository.reserveSeats(eventId, 1)).isEqualTo(1);
+
+        assertThat(reload(eventId).getParticipantCount()).isEqualTo(3);
+    }
+
+    @Test
+    void savingAStaleEventKeepsTheCounters() {
+        Integer eventId = saveEvent(saveUser("creator@example.com").getId());
+        Event stale = eventRepository.findById(eventId).orElseThrow();
+        entityManager.detach(stale);
+
+        eventRepository.reserveSeats(eventId, 2);
+        eventRepository.addCheckedIn(eventId, 1);
+        stale.setTitle("Hội nghị (đổi tên)");
+        eventRepository.saveAndFlush(stale);
+
+        Event event = reload(eventId);
+        assertThat(event.getTitle()).isEqualTo("Hội nghị (đổi tên)");
+        assertThat(event.getParticipantCount()).isEqualTo(2);
+        assertThat(event.getCheckedInCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reconciliationRecountsOnlyDriftedEvents() {
+        User creator = saveUser("creator@example.com");
+        Integer drifted = saveEvent(creator.getId());
+        Integer accurate = saveEvent(creator.getId());
+        register(creator.getId(), drifted);
+        Attendant checkedIn = register(saveUser("guest@example.com").getId(), drifted);
+        checkedIn.setCheckedTime(Instant.now());
+        attendantRepository.save(checkedIn);
+        eventRepository.reserveSeats(drifted, 5);
+
+        assertThat(eventRepository.reconcileAttendanceCounts(drifted, accurate)).isEqualTo(1);
+
+        Event event = reload(drifted);
+        assertThat(event.getParticipantCount()).isEqualTo(2);
+        assertThat(event.getCheckedInCount()).isEqualTo(1);
+        assertThat(reload(accurate).getParticipantCount()).isZero();
+    }
+
+    @Test
+    void scrollingOrdersByEachSortColumnOnce() {
+        Integer creator = saveUser("creator@example.com").getId();
+        Integer first = saveEvent(creator);
+        Integer second = saveEvent(creator);
+        entityManager.flush();
+        Sort sort = Sort.by("startTime").ascending().and(Sort.by("id").ascending());
+
+        CapturedSql.STATEMENTS.clear();
+        Window<Event> page =
+                eventRepository.scroll(Specification.where(null), sort, 1, ScrollPosition.keyset());
+        Window<Event> next = eventRepository.scroll(Specification.where(null), sort, 1,
+                page.positionAt(0));
+
+        assertThat(page.getContent()).extracting(Event::getId).containsExactly(first);
+        assertThat(next.getContent()).extracting(Event::getId).containsExactly(second);
+        assertThat(CapturedSql.STATEMENTS).hasSize(2).allSatisfy(sql -> {
+            String orderBy = sql.substring(sql.indexOf(" order by "));
+            assertThat(orderBy.split("start_time", -1)).hasSize(2);
+            assertThat(orderBy.split("\\.id\\b", -1)).hasSize(2);
+        });
+    }
+
+    private Event reload(Integer eventId) {
+        entityManager.flush();
+        entityManager.clear();
+        return eventRepository.findById(eventId).orElseThrow();
+    }
+
+    private Map<Integer, EventPageRow> byEvent(List<EventPageRow> rows) {
+        return rows.stream()
+                .collect(Collectors.toMap(EventPageRow::getEventId, Function.identity()));
+    }
+
+    private Attendant register(Integer userId, Integer eventId) {
+        Attendant attendant = new Attendant();
+        attendant.setUserId(userId);
+        attendant.setEventId(eventId);
+        attendant.setJoinedAt(Instant.now());
+        return attendantRepository.save(attendant);
+    }
+
+    private Integer saveEvent(Integer createBy) {
+        return saveEvent(createBy, null);
+    }
+
+    private Integer saveEvent(Integer createBy, Integer maxParticipants) {
+        Event event = new Event();
+        event.setTitle("Hội nghị");
+        event.setDescription("Mô tả");
+        event.setStartTime(Instant.parse("2026-03-01T08:00:00Z"));
+        event.setEndTime(Instant.parse("2026-03-01T10:00:00Z"));
+        event.setLocation("Hội trường A");
+        event.setCreateBy(createBy);
+        event.setStatus(EventStatus.UPCOMING);
+        event.setUrlDocs("");
+        event.setMaxParticipants(maxParticipants);
+        return eventRepository.save(event).getId();
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setHashPassword("x");
+        user.setPhoneNumber("0900000000");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,69 @@
+package API_BoPhieu.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import API_BoPhieu.entity.User;
+import API_BoPhieu.entity.Vote;
+
+@DataJpaTest(
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class VoteRepositoryTest {
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void resubmissionReplacesPreviousSelection() {
+        Instant first = Instant.parse("2026-01-01T00:00:00Z");
+        assertThat(voteRepository.insertSelections(1,
+                Map.of(7, List.of(10, 11, 12), 8, List.of(10)), first)).isEqualTo(4);
+
+        Instant second = first.plusSeconds(30);
+        assertThat(voteRepository.deleteSelections(1, List.of(7))).isEqualTo(3);
+        voteRepository.insertSelections(1, Map.of(7, List.of(12)), second);
+
+        List<Vote> votes = voteRepository.findByPollIdAndUserId(1, 7);
+        assertThat(votes).extracting(Vote::getOptionId).containsExactly(12);
+        assertThat(votes).extracting(Vote::getCreatedAt).containsExactly(second);
+        assertThat(voteRepository.findByPollIdAndUserId(1, 8)).hasSize(1);
+    }
+
+    @Test
+    void emptySelectionInsertsNothing() {
+        assertThat(voteRepository.insertSelections(1, Map.of(7, List.of()), Instant.now()))
+                .isZero();
+        assertThat(voteRepository.countVotesByPollId(1)).isZero();
+    }
+
+    @Test
+    void streamsVoterEmailsByOptionThenEmail() {
+        Integer zoe = saveUser("zoe@example.com");
+        Integer an = saveUser("an@example.com");
+        Instant now = Instant.now();
+        voteRepository.insertSelections(1, Map.of(zoe, List.of(11, 10), an, List.of(11)), now);
+        voteRepository.insertSelections(2, Map.of(an, List.of(20)), now);
+
+        try (Stream<Object[]> rows = voteRepository.streamVoterEmails(1)) {
+            assertThat(rows.map(row -> row[0] + ":" + row[1])).containsExactly(
+                    "10:zoe@example.com", "11:an@example.com", "11:zoe@example.com");
+        }
+    }
+
+    private Integer saveUser(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setHashPassword("x");
+        user.setPhoneNumber("0900000000");
+        return userRepository.save(user).getId();
+    }
+}
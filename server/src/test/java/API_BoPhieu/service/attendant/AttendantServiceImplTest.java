@@ -0,0 +1,162 @@
+package API_BoPhieu.service.attendant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.constants.CheckInOutcome;
+import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.dto.attendant.BulkCheckInItem;
+import API_BoPhieu.dto.attendant.BulkCheckInResponse;
+import API_BoPhieu.dto.attendant.BulkCheckInResult;
+import API_BoPhieu.dto.attendant.ParticipantResponse;
+import API_BoPhieu.entity.Attendant;
+import API_BoPhieu.entity.Event;
+import API_BoPhieu.entity.User;
+import API_BoPhieu.exception.ConflictException;
+import API_BoPhieu.exception.NotFoundException;
+import API_BoPhieu.repository.AttendantRepository;
+import API_BoPhieu.repository.EventManagerRepository;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.repository.UnitRepository;
+import API_BoPhieu.repository.UserRepository;
+import API_BoPhieu.service.email.EmailService;
+import API_BoPhieu.service.event.EventTokenIndex;
+import API_BoPhieu.service.file.FileExportService;
+import API_BoPhieu.service.file.FileImportService;
+import API_BoPhieu.service.import_job.ImportJobService;
+import API_BoPhieu.service.sse.check_in.CheckInSseService;
+import API_BoPhieu.service.user.UserSnapshotCache;
+
+class AttendantServiceImplTest {
+
+    private static final Integer EVENT_ID = 5;
+
+    private final AttendantRepository attendantRepository = mock(AttendantRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final CheckInSseService sseService = mock(CheckInSseService.class);
+    private final Instant now = Instant.now();
+    private AttendantServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AttendantServiceImpl(attendantRepository, sseService,
+                mock(QRCodeService.class), userRepository, eventRepository,
+                mock(EventManagerRepository.class), mock(UnitRepository.class),
+                mock(EmailService.class), mock(FileImportService.class),
+                mock(FileExportService.class), mock(ImportJobService.class), new ObjectMapper(),
+                mock(UserSnapshotCache.class), mock(EventTokenIndex.class),
+                mock(PlatformTransactionManager.class));
+        when(eventRepository.findById(EVENT_ID))
+                .thenReturn(Optional.of(event(EventStatus.ONGOING)));
+        when(attendantRepository.markCheckedInBatch(eq(EVENT_ID), anyMap()))
+                .thenAnswer(invocation -> invocation.<Map<?, ?>>getArgument(1).size());
+    }
+
+    @Test
+    void bulkCheckInReportsEveryOutcomeAndKeepsTheEarliestScan() {
+        final Instant earlier = now.minusSeconds(60);
+        final Instant alreadyCheckedAt = now.minusSeconds(3600);
+        when(userRepository.findAllByEmailIn(anyList())).thenReturn(List.of(user(1, "a@x.vn"),
+                user(2, "b@x.vn"), user(3, "c@x.vn")));
+        when(attendantRepository.lockAllByEventIdAndUserIdIn(eq(EVENT_ID), anyList()))
+                .thenReturn(List.of(attendant(1, null), attendant(2, alreadyCheckedAt)));
+
+        final BulkCheckInResponse response = service.bulkCheckIn(EVENT_ID,
+                List.of(scan("a@x.vn", now.minusSeconds(10)), scan("a@x.vn", earlier),
+                        scan("b@x.vn", now), scan("c@x.vn", now), scan("ghost@x.vn", now)));
+
+        assertThat(response.getResults()).extracting(BulkCheckInResult::getOutcome)
+                .containsExactly(CheckInOutcome.CHECKED_IN, CheckInOutcome.ALREADY_CHECKED_IN,
+                        CheckInOutcome.ALREADY_CHECKED_IN, CheckInOutcome.NOT_REGISTERED,
+                        CheckInOutcome.USER_NOT_FOUND);
+        assertThat(response.getResults()).extracting(BulkCheckInResult::getCheckInTime)
+                .containsExactly(earlier, earlier, alreadyCheckedAt, null, null);
+        assertThat(response.getCheckedIn()).isEqualTo(1);
+        assertThat(response.getAlreadyCheckedIn()).isEqualTo(2);
+        assertThat(response.getNotRegistered()).isEqualTo(1);
+        assertThat(response.getUserNotFound()).isEqualTo(1);
+
+        verify(attendantRepository).markCheckedInBatch(EVENT_ID, Map.of(1, earlier));
+        verify(eventRepository).addCheckedIn(EVENT_ID, 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkCheckInSendsOneMessageForAllCheckIns() {
+        when(userRepository.findAllByEmailIn(anyList()))
+                .thenReturn(List.of(user(1, "a@x.vn"), user(2, "b@x.vn")));
+        when(attendantRepository.lockAllByEventIdAndUserIdIn(eq(EVENT_ID), anyList()))
+                .thenReturn(List.of(attendant(1, null), attendant(2, null)));
+
+        service.bulkCheckIn(EVENT_ID, List.of(scan("a@x.vn", now), scan("b@x.vn", now)));
+
+        final ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(sseService).sendEventToClients(eq(EVENT_ID), eq("participants-checked-in"),
+                sent.capture());
+        verify(sseService, never()).sendEventToClients(anyInt(), eq("participant-checked-in"),
+                any());
+        assertThat((List<ParticipantResponse>) sent.getValue())
+                .extracting(participant -> participant.getUser().getId())
+                .containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void bulkCheckInRejectsMissingAndCancelledEvents() {
+        final List<BulkCheckInItem> scans = List.of(scan("a@x.vn", now));
+        when(eventRepository.findById(EVENT_ID))
+                .thenReturn(Optional.empty(), Optional.of(event(EventStatus.CANCELLED)));
+
+        assertThatThrownBy(() -> service.bulkCheckIn(EVENT_ID, scans))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> service.bulkCheckIn(EVENT_ID, scans))
+                .isInstanceOf(ConflictException.class);
+        verify(userRepository, never()).findAllByEmailIn(anyList());
+        verify(sseService, never()).sendEventToClients(anyInt(), anyString(), any());
+    }
+
+    private static Event event(final EventStatus status) {
+        final Event event = new Event();
+        event.setId(EVENT_ID);
+        event.setStatus(status);
+        return event;
+    }
+
+    private static User user(final Integer id, final String email) {
+        final User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setName(email);
+        return user;
+    }
+
+    private static Attendant attendant(final Integer userId, final Instant checkedTime) {
+        final Attendant attendant = new Attendant();
+        attendant.setEventId(EVENT_ID);
+        attendant.setUserId(userId);
+        attendant.setCheckedTime(checkedTime);
+        return attendant;
+    }
+
+    private static BulkCheckInItem scan(final String email, final Instant scannedAt) {
+        return BulkCheckInItem.builder().email(email).scannedAt(scannedAt).build();
+    }
+}
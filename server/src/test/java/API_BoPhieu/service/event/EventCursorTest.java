@@ -0,0 +1,82 @@
+package API_BoPhieu.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.entity.Event;
+import API_BoPhieu.exception.EventException;
+import API_BoPhieu.repository.EventRepository;
+
+@DataJpaTest(
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class EventCursorTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void scrollingVisitsEveryEventOnceAcrossTiedSortKeys() {
+        Instant start = Instant.parse("2026-03-01T08:00:00Z");
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(saveEvent("Sự kiện " + i, start.plusSeconds(3600L * (i / 3))).getId());
+        }
+
+        Sort sort = EventCursor.sort("startTime", "asc");
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ScrollPosition position = EventCursor.decode(cursor, sort);
+            Window<Event> window =
+                    eventRepository.scroll(Specification.where(null), sort, 3, position);
+            window.forEach(event -> seen.add(event.getId()));
+            cursor = window.hasNext()
+                    ? EventCursor.encode(sort,
+                            (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                    : null;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void rejectsCursorsIssuedForAnotherSortAndUnknownSortKeys() {
+        Event event = saveEvent("Hội thảo", Instant.parse("2026-03-01T08:00:00Z"));
+        Sort byStart = EventCursor.sort("startTime", "desc");
+        String cursor = EventCursor.encode(byStart, ScrollPosition.forward(
+                Map.of("startTime", event.getStartTime(), "id", event.getId())));
+
+        assertThat(EventCursor.decode(cursor, byStart)).isInstanceOf(KeysetScrollPosition.class);
+        assertThatThrownBy(() -> EventCursor.decode(cursor, EventCursor.sort("title", "desc")))
+                .isInstanceOf(EventException.class);
+        assertThatThrownBy(() -> EventCursor.decode("not a cursor", byStart))
+                .isInstanceOf(EventException.class);
+        assertThatThrownBy(() -> EventCursor.sort("description", "asc"))
+                .isInstanceOf(EventException.class);
+    }
+
+    private Event saveEvent(String title, Instant startTime) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setDescription("Mô tả");
+        event.setStartTime(startTime);
+        event.setEndTime(startTime.plusSeconds(7200));
+        event.setLocation("Hội trường A");
+        event.setCreateBy(1);
+        event.setStatus(EventStatus.UPCOMING);
+        event.setUrlDocs("");
+        return eventRepository.save(event);
+    }
+}
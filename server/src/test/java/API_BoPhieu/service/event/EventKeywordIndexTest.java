@@ -0,0 +1,35 @@
+package API_BoPhieu.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class EventKeywordIndexTest {
+
+    @Test
+    void matchesWithoutDiacriticsAndByPrefix() {
+        final EventKeywordIndex index = new EventKeywordIndex();
+        index.put(1, "Hội nghị khoa học", "Đà Nẵng", "Báo cáo thường niên");
+        index.put(2, "Hội thảo sinh viên", "Hà Nội", null);
+
+        assertThat(index.search("hoi")).containsExactlyInAnyOrder(1, 2);
+        assertThat(index.search("HỘI NGH")).containsExactly(1);
+        assertThat(index.search("da nang")).containsExactly(1);
+        assertThat(index.search("thuong nien")).containsExactly(1);
+        assertThat(index.search("hoi ha")).containsExactly(2);
+        assertThat(index.search("nghi ha")).isEmpty();
+    }
+
+    @Test
+    void reindexingDropsWordsTheEventNoLongerHas() {
+        final EventKeywordIndex index = new EventKeywordIndex();
+        index.put(1, "Hội nghị", "Huế", "");
+        index.put(1, "Hội thảo", "Huế", "");
+
+        assertThat(index.search("nghi")).isEmpty();
+        assertThat(index.search("thao")).containsExactly(1);
+
+        index.remove(1);
+        assertThat(index.search("hue")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
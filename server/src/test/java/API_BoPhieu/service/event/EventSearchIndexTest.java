@@ -0,0 +1,73 @@
+package API_BoPhieu.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.entity.Event;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+
+class EventSearchIndexTest {
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private EventSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new EventSearchIndex(eventRepository, new LocalSseBroadcastBus(),
+                new ObjectMapper(), 100);
+        searchIndex.subscribeToBus();
+    }
+
+    @Test
+    void updatesDeliveredDuringWarmUpAreNotOverwrittenByOlderPages() {
+        when(eventRepository.findSearchTextsAfter(eq(0), any())).thenAnswer(invocation -> {
+            // Renamed after the page was read, delivered before the page is indexed
+            searchIndex.dispatchIndexChange(event(1, "Hội thảo"));
+            return rows(new Object[] {1, "Hội nghị", "Huế", null});
+        });
+
+        searchIndex.warmUp();
+
+        assertThat(searchIndex.search("thao")).hasValueSatisfying(ids -> assertThat(ids)
+                .containsExactly(1));
+        assertThat(searchIndex.search("nghi")).hasValueSatisfying(ids -> assertThat(ids)
+                .isEmpty());
+    }
+
+    @Test
+    void reconcileCorrectsMissedUpdatesAndDropsEventsNoLongerStored() {
+        when(eventRepository.findSearchTextsAfter(eq(0), any())).thenReturn(
+                rows(new Object[] {1, "Hội nghị", "Huế", null},
+                        new Object[] {2, "Hội thảo", "Huế", null}));
+        searchIndex.warmUp();
+
+        when(eventRepository.findSearchTextsAfter(eq(0), any()))
+                .thenReturn(rows(new Object[] {1, "Hội nghị", "Đà Nẵng", null}));
+        searchIndex.reconcile();
+
+        assertThat(searchIndex.search("hoi")).hasValueSatisfying(ids -> assertThat(ids)
+                .containsExactly(1));
+        assertThat(searchIndex.search("da nang")).hasValueSatisfying(ids -> assertThat(ids)
+                .containsExactly(1));
+    }
+
+    private static Event event(final Integer id, final String title) {
+        final Event event = new Event();
+        event.setId(id);
+        event.setTitle(title);
+        event.setLocation("Huế");
+        return event;
+    }
+
+    private static List<Object[]> rows(final Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
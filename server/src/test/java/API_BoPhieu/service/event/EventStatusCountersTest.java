@@ -0,0 +1,129 @@
+package API_BoPhieu.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.dto.event.EventCountersDelta;
+import API_BoPhieu.dto.event.EventCountersResponse;
+import API_BoPhieu.entity.EventManager;
+import API_BoPhieu.repository.EventManagerRepository;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventStatusCountersTest {
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final EventManagerRepository eventManagerRepository =
+            mock(EventManagerRepository.class);
+    private EventStatusCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        when(eventRepository.countEventsByStatus()).thenReturn(List.of(
+                new Object[] {EventStatus.UPCOMING, 3L}, new Object[] {EventStatus.ONGOING, 1L}));
+        when(eventRepository.countManagedEventsByStatus(7))
+                .thenReturn(List.<Object[]>of(new Object[] {EventStatus.UPCOMING, 2L}));
+        when(eventRepository.countManagedEventsByUserId(7)).thenReturn(2L);
+        when(eventManagerRepository.findByEventId(1))
+                .thenReturn(List.of(new EventManager(1, 7, 1, null, 1)));
+
+        counters = new EventStatusCounters(eventRepository, eventManagerRepository,
+                new LocalSseBroadcastBus(), new ObjectMapper(), new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10));
+        counters.subscribeToBus();
+        counters.warmUp();
+    }
+
+    @Test
+    void statusChangesAdjustGlobalCountsWithoutQueries() {
+        counters.dispatchCreated(EventStatus.UPCOMING);
+        counters.dispatchStatusChange(1, EventStatus.UPCOMING, EventStatus.CANCELLED);
+        counters.dispatchBulkTransition(EventStatus.UPCOMING, EventStatus.ONGOING, 2);
+
+        EventCountersResponse response = counters.statusCounters().build();
+        assertThat(response.getUpcoming()).isEqualTo(1);
+        assertThat(response.getOngoing()).isEqualTo(3);
+        assertThat(response.getCancelled()).isEqualTo(1);
+        verify(eventRepository, times(1)).countEventsByStatus();
+    }
+
+    @Test
+    void managedCountsAreCachedUntilTheUsersEventsChange() {
+        assertThat(counters.managedCounters(7).getUpcoming()).isEqualTo(2);
+        assertThat(counters.managedCount(7)).isEqualTo(2);
+        verify(eventRepository, times(1)).countManagedEventsByUserId(7);
+
+        counters.dispatchStatusChange(1, EventStatus.UPCOMING, EventStatus.CANCELLED);
+        counters.managedCount(7);
+        verify(eventRepository, times(2)).countManagedEventsByUserId(7);
+
+        counters.dispatchManagersChanged(List.of(7));
+        counters.managedCount(7);
+        verify(eventRepository, times(3)).countManagedEventsByUserId(7);
+    }
+
+    @Test
+    void managedCountsReadBeforeAnInvalidationAreNotKept() {
+        when(eventRepository.countManagedEventsByUserId(7)).thenAnswer(invocation -> {
+            counters.dispatchManagersChanged(List.of(7));
+            return 2L;
+        }).thenReturn(3L);
+
+        assertThat(counters.managedCount(7)).isEqualTo(2);
+        assertThat(counters.managedCount(7)).isEqualTo(3);
+        assertThat(counters.managedCount(7)).isEqualTo(3);
+        verify(eventRepository, times(2)).countManagedEventsByUserId(7);
+    }
+
+    @Test
+    void reconcileSkipsDeltasItsReadIncludedAndKeepsTheOthers() {
+        SseBroadcastBus bus = mock(SseBroadcastBus.class);
+        AtomicReference<Consumer<SseBroadcast>> listener = new AtomicReference<>();
+        doAnswer(invocation -> {
+            listener.set(invocation.getArgument(1));
+            return null;
+        }).when(bus).subscribe(eq(EventStatusCounters.TOPIC), any());
+        when(bus.position()).thenReturn(100L);
+        EventStatusCounters reconciled = new EventStatusCounters(eventRepository,
+                eventManagerRepository, bus, new ObjectMapper(), new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10));
+        reconciled.subscribeToBus();
+        // Published at 101 while the counts are read, and not seen by that read
+        when(eventRepository.countEventsByStatus()).thenAnswer(invocation -> {
+            listener.get().accept(created(101L));
+            return List.<Object[]>of(new Object[] {EventStatus.UPCOMING, 4L});
+        });
+
+        reconciled.reconcile();
+        assertThat(reconciled.statusCounters().build().getUpcoming()).isEqualTo(5);
+
+        // Published at 100, before the read, but delivered late
+        listener.get().accept(created(100L));
+        assertThat(reconciled.statusCounters().build().getUpcoming()).isEqualTo(5);
+
+        listener.get().accept(created(102L));
+        assertThat(reconciled.statusCounters().build().getUpcoming()).isEqualTo(6);
+    }
+
+    private static SseBroadcast created(Long sequence) {
+        return new SseBroadcast(EventStatusCounters.TOPIC, 0, "delta", EventCountersDelta
+                .builder().to(EventStatus.UPCOMING).count(1).managerIds(List.of()).build(),
+                sequence);
+    }
+}
@@ -0,0 +1,72 @@
+package API_BoPhieu.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import API_BoPhieu.constants.EventStatus;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventTokenIndexTest {
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final LocalSseBroadcastBus bus = new LocalSseBroadcastBus();
+    private EventTokenIndex index;
+    private EventTokenIndex otherNode;
+
+    @BeforeEach
+    void setUp() {
+        when(eventRepository.findIdByQrJoinTokenAndStatusNot(anyString(), any()))
+                .thenReturn(Optional.empty());
+        index = newNode();
+        otherNode = newNode();
+    }
+
+    @Test
+    void registrationsReachEveryNodeWithoutQueries() {
+        index.dispatchRegister("tok", 5);
+
+        assertThat(otherNode.resolveEventId("tok")).contains(5);
+        verify(eventRepository, never()).findIdByQrJoinTokenAndStatusNot(anyString(), any());
+    }
+
+    @Test
+    void evictionReachesEveryNodeAndCancelledEventsDoNotReload() {
+        index.dispatchRegister("tok", 5);
+
+        index.dispatchEvict("tok", 5);
+
+        assertThat(otherNode.resolveEventId("tok")).isEmpty();
+        verify(eventRepository).findIdByQrJoinTokenAndStatusNot("tok", EventStatus.CANCELLED);
+    }
+
+    @Test
+    void anEvictionDuringTheLoadIsNotUndone() {
+        when(eventRepository.findIdByQrJoinTokenAndStatusNot("tok", EventStatus.CANCELLED))
+                .thenAnswer(invocation -> {
+                    // Cancelled after this read, evicted before its result is cached
+                    index.dispatchEvict("tok", 5);
+                    return Optional.of(5);
+                }).thenReturn(Optional.empty());
+
+        assertThat(index.resolveEventId("tok")).contains(5);
+
+        assertThat(index.resolveEventId("tok")).isEmpty();
+    }
+
+    private EventTokenIndex newNode() {
+        EventTokenIndex node = new EventTokenIndex(eventRepository, bus,
+                new SimpleMeterRegistry(), 100, Duration.ofDays(1));
+        node.subscribeToBus();
+        return node;
+    }
+}
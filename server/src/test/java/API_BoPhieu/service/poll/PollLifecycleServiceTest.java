@@ -0,0 +1,85 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import API_BoPhieu.service.sse.poll_results.PollResultsSseService;
+import net.javacrumbs.shedlock.core.LockProvider;
+
+class PollLifecycleServiceTest {
+
+    private final PollRepository pollRepository = mock(PollRepository.class);
+    private final Instant now = Instant.now();
+    private PollLifecycleService service;
+
+    @BeforeEach
+    void setUp() {
+        when(pollRepository.findByIsDeleteFalseAndEndTimeGreaterThanEqual(any()))
+                .thenReturn(List.of());
+        service = new PollLifecycleService(pollRepository, mock(PollResultsSseService.class),
+                mock(PollTallyService.class), new LocalSseBroadcastBus(), new ObjectMapper(),
+                mock(LockProvider.class), mock(PlatformTransactionManager.class), 1000, 3600);
+        service.loadWindows();
+    }
+
+    @Test
+    void unknownPollsAreReadOnceAndCached() {
+        when(pollRepository.findById(1)).thenReturn(Optional.of(poll(1, now.minusSeconds(60))));
+        when(pollRepository.findById(2)).thenReturn(Optional.empty());
+
+        assertThat(service.isOpen(1, now)).isTrue();
+        assertThat(service.isOpen(1, now)).isTrue();
+        assertThat(service.isOpen(2, now)).isFalse();
+        assertThat(service.isOpen(2, now)).isFalse();
+
+        verify(pollRepository, times(1)).findById(1);
+        verify(pollRepository, times(1)).findById(2);
+    }
+
+    @Test
+    void reloadPicksUpMissedChanges() {
+        final Poll poll = poll(1, now.plusSeconds(60));
+        when(pollRepository.findByIsDeleteFalseAndEndTimeGreaterThanEqual(any()))
+                .thenReturn(List.of(poll));
+        service.reloadWindows();
+        assertThat(service.isOpen(1, now)).isFalse();
+
+        // Opened earlier by an edit whose change never reached this node
+        poll.setStartTime(now.minusSeconds(60));
+        service.reloadWindows();
+        assertThat(service.isOpen(1, now)).isTrue();
+
+        // Deleted without a change reaching this node
+        when(pollRepository.findByIsDeleteFalseAndEndTimeGreaterThanEqual(any()))
+                .thenReturn(List.of());
+        when(pollRepository.findById(1)).thenReturn(Optional.of(closed(poll)));
+        service.reloadWindows();
+        assertThat(service.isOpen(1, now)).isFalse();
+    }
+
+    private Poll poll(final Integer id, final Instant startTime) {
+        final Poll poll = new Poll();
+        poll.setId(id);
+        poll.setStartTime(startTime);
+        poll.setEndTime(now.plusSeconds(3600));
+        return poll;
+    }
+
+    private static Poll closed(final Poll poll) {
+        poll.setIsDelete(true);
+        return poll;
+    }
+}
@@ -0,0 +1,173 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.constants.PollType;
+import API_BoPhieu.dto.poll.PollResponse;
+import API_BoPhieu.dto.poll.PollStatsResponse;
+import API_BoPhieu.entity.Option;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.repository.OptionRepository;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.repository.VoteRepository;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import API_BoPhieu.service.sse.poll_results.PollResultsSseService;
+import API_BoPhieu.service.user.UserSnapshotCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Listing an event's polls must cost the same number of statements however many polls the event
+ * has, with every tally cold and the counts read from the stored counters.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import({PollServiceImpl.class, PollTallyService.class, PollCountService.class,
+        LocalSseBroadcastBus.class,
+        PollListingQueryCountTest.Config.class})
+class PollListingQueryCountTest {
+
+    private static final int EVENT_ID = 1;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @MockBean
+    private PollResultsSseService pollResultsSseService;
+
+    @MockBean
+    private PollLifecycleService pollLifecycleService;
+
+    @MockBean
+    private VoteAdmissionService voteAdmissionService;
+
+    @MockBean
+    private UserSnapshotCache userSnapshotCache;
+
+    @Autowired
+    private PollService pollService;
+
+    @Autowired
+    private PollTallyService pollTallyService;
+
+    @Autowired
+    private PollCountService pollCountService;
+
+    @Autowired
+    private PollRepository pollRepository;
+
+    @Autowired
+    private OptionRepository optionRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithPolls() {
+        addPoll(1);
+        long withOnePoll = statementsFor(() -> pollService.getPollsByEvent(EVENT_ID));
+        long statsWithOnePoll = statementsFor(() -> pollService.getPollStatsByEvent(EVENT_ID));
+
+        for (int i = 2; i <= 6; i++) {
+            addPoll(i);
+        }
+        long withSixPolls = statementsFor(() -> pollService.getPollsByEvent(EVENT_ID));
+        long statsWithSixPolls = statementsFor(() -> pollService.getPollStatsByEvent(EVENT_ID));
+
+        assertThat(withSixPolls).isEqualTo(withOnePoll);
+        assertThat(statsWithSixPolls).isEqualTo(statsWithOnePoll);
+    }
+
+    @Test
+    void bulkListingReportsEachPollsOwnCounts() {
+        Poll first = addPoll(2);
+        Poll second = addPoll(3);
+        evictTallies();
+
+        List<PollStatsResponse> stats = pollService.getPollStatsByEvent(EVENT_ID);
+        List<PollResponse> polls = pollService.getPollsByEvent(EVENT_ID);
+
+        assertThat(stats).extracting(PollStatsResponse::getId).containsExactly(first.getId(),
+                second.getId());
+        assertThat(stats).extracting(PollStatsResponse::getTotalVoters).containsExactly(2, 3);
+        assertThat(stats).extracting(PollStatsResponse::getTotalVotes).containsExactly(2, 3);
+        assertThat(polls.get(1).getOptions()).hasSize(2);
+    }
+
+    /**
+     * Adds a poll with two options and {@code voters} votes, all for its first option.
+     */
+    private Poll addPoll(int voters) {
+        Instant now = Instant.now();
+        Poll poll = new Poll();
+        poll.setEventId(EVENT_ID);
+        poll.setTitle("Poll " + voters);
+        poll.setPollType(PollType.SINGLE_CHOICE);
+        poll.setStartTime(now);
+        poll.setEndTime(now.plusSeconds(3600));
+        poll.setIsDelete(false);
+        poll.setCreatedBy(1);
+        pollRepository.save(poll);
+
+        Option yes = optionRepository.save(new Option(null, poll.getId(), "Có", null));
+        Option no = optionRepository.save(new Option(null, poll.getId(), "Không", null));
+        pollCountService.initialize(poll.getId(), List.of(yes.getId(), no.getId()));
+        Map<Integer, List<Integer>> selections = new HashMap<>();
+        for (int userId = 1; userId <= voters; userId++) {
+            selections.put(userId, List.of(yes.getId()));
+        }
+        voteRepository.insertSelections(poll.getId(), selections, now);
+        pollCountService.applySelections(poll.getId(), Map.of(), selections);
+        return poll;
+    }
+
+    private long statementsFor(Runnable listing) {
+        evictTallies();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void evictTallies() {
+        pollRepository.findAll().forEach(poll -> pollTallyService.evict(poll.getId()));
+    }
+}
@@ -0,0 +1,94 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.repository.VoteRepository;
+import API_BoPhieu.service.poll.PollCountService.StoredCounts;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PollTallyServiceTest {
+
+    private static final Integer POLL_ID = 7;
+    private static final Instant VOTED_AT = Instant.parse("2026-03-01T08:00:00Z");
+
+    private final VoteRepository voteRepository = mock(VoteRepository.class);
+    private final PollCountService pollCountService = mock(PollCountService.class);
+    private final LocalSseBroadcastBus bus = new LocalSseBroadcastBus();
+    private PollTallyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PollTallyService(voteRepository, mock(PollRepository.class),
+                pollCountService, bus, new ObjectMapper(), new SimpleMeterRegistry(), 100,
+                Duration.ofHours(1));
+        service.subscribeToBus();
+    }
+
+    @Test
+    void votesDeliveredWhileTheTallyIsReadAreKept() {
+        when(voteRepository.findSelectionsByPollId(POLL_ID)).thenAnswer(invocation -> {
+            // Committed after the read's snapshot, delivered before the tally is cached
+            service.recordVote(POLL_ID, 11, List.of(2), VOTED_AT.plusSeconds(1));
+            return rows(new Object[] {10, 1, VOTED_AT});
+        });
+
+        final PollTally tally = service.tally(POLL_ID);
+
+        assertThat(tally.hasVoted(10)).isTrue();
+        assertThat(tally.votedOptionIds(11)).containsExactly(2);
+        assertThat(tally.totalVoters()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyMismatchesSeenOnConsecutiveChecksRebuildOrRepair() {
+        when(voteRepository.findSelectionsByPollId(POLL_ID))
+                .thenReturn(rows(new Object[] {10, 1, VOTED_AT}));
+        service.tally(POLL_ID);
+        // The counters lag one vote behind; the tally has already seen it
+        when(pollCountService.read(POLL_ID)).thenReturn(new StoredCounts(Map.of(1, 0), 0));
+
+        service.verifyConsistency();
+        verify(voteRepository, times(1)).findSelectionsByPollId(POLL_ID);
+
+        service.verifyConsistency();
+        verify(voteRepository, times(2)).findSelectionsByPollId(POLL_ID);
+        verify(pollCountService, never()).repair(POLL_ID);
+
+        service.verifyConsistency();
+        verify(pollCountService).repair(POLL_ID);
+    }
+
+    @Test
+    void aMismatchThatCatchesUpIsForgotten() {
+        when(voteRepository.findSelectionsByPollId(POLL_ID))
+                .thenReturn(rows(new Object[] {10, 1, VOTED_AT}));
+        service.tally(POLL_ID);
+        when(pollCountService.read(POLL_ID)).thenReturn(new StoredCounts(Map.of(1, 0), 0),
+                new StoredCounts(Map.of(1, 1), 1), new StoredCounts(Map.of(1, 0), 0));
+
+        service.verifyConsistency();
+        service.verifyConsistency();
+        service.verifyConsistency();
+
+        verify(voteRepository, times(1)).findSelectionsByPollId(POLL_ID);
+        verify(pollCountService, never()).repair(POLL_ID);
+    }
+
+    private static List<Object[]> rows(final Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,86 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import API_BoPhieu.entity.Option;
+
+class PollTallyTest {
+
+    private final List<Option> options = List.of(option(1), option(2), option(3));
+
+    @Test
+    void revoteMovesTheUsersVotes() {
+        final PollTally tally = new PollTally();
+        tally.apply(10, List.of(1, 2), 100);
+        tally.apply(11, List.of(2), 100);
+        tally.apply(10, List.of(3), 200);
+
+        assertThat(tally.voteCounts(options)).containsExactlyInAnyOrderEntriesOf(
+                Map.of(1, 0, 2, 1, 3, 1));
+        assertThat(tally.totalVoters()).isEqualTo(2);
+    }
+
+    @Test
+    void duplicateAndStaleVotesAreIgnored() {
+        final PollTally tally = new PollTally();
+        tally.apply(10, List.of(1), 200);
+        tally.apply(10, List.of(1), 200);
+        tally.apply(10, List.of(2), 100);
+
+        assertThat(tally.voteCounts(options)).containsExactlyInAnyOrderEntriesOf(
+                Map.of(1, 1, 2, 0, 3, 0));
+        assertThat(tally.totalVoters()).isEqualTo(1);
+    }
+
+    @Test
+    void selectionsAnswerWhatEachUserVotedFor() {
+        final PollTally tally = new PollTally();
+        tally.apply(10, List.of(3, 1, 3), 100);
+        tally.apply(11, List.of(2), 100);
+        tally.apply(11, List.of(), 200);
+
+        assertThat(tally.hasVoted(10)).isTrue();
+        assertThat(tally.votedOptionIds(10)).containsExactly(1, 3);
+        assertThat(tally.hasVoted(11)).isFalse();
+        assertThat(tally.votedOptionIds(11)).isEmpty();
+        assertThat(tally.votedOptionIds(12)).isEmpty();
+    }
+
+    @Test
+    void aRetractionStillBeatsOlderVotes() {
+        final PollTally tally = new PollTally();
+        tally.apply(10, List.of(1), 100);
+        tally.apply(10, List.of(), 200);
+        tally.apply(10, List.of(1), 100);
+
+        assertThat(tally.hasVoted(10)).isFalse();
+        assertThat(tally.votedOptionIds(10)).isEmpty();
+        assertThat(tally.voteCounts(options)).containsExactlyInAnyOrderEntriesOf(
+                Map.of(1, 0, 2, 0, 3, 0));
+        assertThat(tally.totalVoters()).isZero();
+
+        tally.apply(10, List.of(2), 300);
+        assertThat(tally.votedOptionIds(10)).containsExactly(2);
+        assertThat(tally.totalVoters()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesComparesCountsAndVoters() {
+        final PollTally tally = new PollTally();
+        tally.apply(10, List.of(1, 2), 100);
+        tally.apply(11, List.of(2), 100);
+
+        assertThat(tally.matches(Map.of(1, 1, 2, 2), 2)).isTrue();
+        assertThat(tally.matches(Map.of(1, 1, 2, 2), 3)).isFalse();
+        assertThat(tally.matches(Map.of(1, 1, 2, 1), 2)).isFalse();
+        assertThat(tally.matches(Map.of(1, 1, 2, 2, 3, 1), 2)).isFalse();
+    }
+
+    private static Option option(final int id) {
+        final Option option = new Option();
+        option.setId(id);
+        return option;
+    }
+}
@@ -0,0 +1,55 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import API_BoPhieu.service.poll.PollTimingWheel.Entry;
+import API_BoPhieu.service.poll.PollTimingWheel.Transition;
+
+class PollTimingWheelTest {
+
+    @Test
+    void entriesFireInTheirTickAndNeverEarly() {
+        final PollTimingWheel wheel = new PollTimingWheel(1000, 8, 10_000);
+        wheel.schedule(1, Transition.OPEN, 12_500);
+        wheel.schedule(2, Transition.CLOSE, 12_000);
+
+        assertThat(wheel.advance(11_999)).isEmpty();
+        assertThat(wheel.advance(12_000)).extracting(Entry::pollId).containsExactly(2);
+        assertThat(wheel.advance(12_999)).isEmpty();
+        assertThat(wheel.advance(13_000)).extracting(Entry::pollId).containsExactly(1);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void entriesBeyondOneTurnWaitForTheirRound() {
+        final PollTimingWheel wheel = new PollTimingWheel(1000, 8, 0);
+        wheel.schedule(1, Transition.CLOSE, 3_000);
+        wheel.schedule(2, Transition.CLOSE, 11_000);
+
+        assertThat(wheel.advance(3_000)).extracting(Entry::pollId).containsExactly(1);
+        assertThat(wheel.advance(10_999)).isEmpty();
+        assertThat(wheel.advance(11_000)).extracting(Entry::pollId).containsExactly(2);
+    }
+
+    @Test
+    void longPauseFiresEverythingDueInTimeOrder() {
+        final PollTimingWheel wheel = new PollTimingWheel(1000, 8, 0);
+        wheel.schedule(1, Transition.CLOSE, 30_000);
+        wheel.schedule(2, Transition.OPEN, 2_000);
+        wheel.schedule(3, Transition.OPEN, 90_000);
+
+        final List<Entry> due = wheel.advance(60_000);
+
+        assertThat(due).extracting(Entry::pollId).containsExactly(2, 1);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void pastInstantsFireOnTheNextAdvance() {
+        final PollTimingWheel wheel = new PollTimingWheel(1000, 8, 5_000);
+        wheel.schedule(1, Transition.CLOSE, 1_000);
+
+        assertThat(wheel.advance(6_000)).extracting(Entry::pollId).containsExactly(1);
+    }
+}
@@ -0,0 +1,34 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstThenRefillsAtTheRate() {
+        final TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertThat(bucket.tryConsume(0)).isTrue();
+        assertThat(bucket.tryConsume(0)).isTrue();
+        assertThat(bucket.tryConsume(0)).isTrue();
+        assertThat(bucket.tryConsume(0)).isFalse();
+
+        assertThat(bucket.tryConsume(SECOND / 2)).isTrue();
+        assertThat(bucket.tryConsume(SECOND / 2)).isFalse();
+    }
+
+    @Test
+    void neverHoldsMoreThanItsCapacity() {
+        final TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        final long muchLater = 60 * SECOND;
+        assertThat(bucket.tryConsume(muchLater)).isTrue();
+        assertThat(bucket.tryConsume(muchLater)).isTrue();
+        assertThat(bucket.tryConsume(muchLater)).isFalse();
+    }
+}
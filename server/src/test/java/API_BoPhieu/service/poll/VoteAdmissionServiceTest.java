@@ -0,0 +1,55 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import API_BoPhieu.exception.RateLimitExceededException;
+import API_BoPhieu.service.poll.VoteAdmissionService.VoteOutcome;
+import API_BoPhieu.service.poll.VoteWriteQueue.PendingVote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VoteAdmissionServiceTest {
+
+    private final VoteWriteQueue voteWriteQueue = mock(VoteWriteQueue.class);
+    private final List<PendingVote> queued = new ArrayList<>();
+    private VoteAdmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        when(voteWriteQueue.offer(any())).thenAnswer(invocation -> {
+            queued.add(invocation.getArgument(0));
+            return true;
+        });
+        service = new VoteAdmissionService(voteWriteQueue, new SimpleMeterRegistry(), 5, 1, 1,
+                Duration.ofMillis(50));
+    }
+
+    @Test
+    void submitReturnsBeforeTheVoteIsWritten() {
+        final CompletableFuture<VoteOutcome> outcome = service.submit(1, 10, List.of(2), "k");
+
+        assertThat(outcome).isNotDone();
+        queued.get(0).done().complete(null);
+        assertThat(outcome).isCompletedWithValue(VoteOutcome.WRITTEN);
+    }
+
+    @Test
+    void slowWritesArePendingAndKeepTheirPermitUntilWritten() {
+        final CompletableFuture<VoteOutcome> outcome = service.submit(1, 10, List.of(2), "k");
+
+        assertThat(outcome.join()).isEqualTo(VoteOutcome.PENDING);
+        assertThatThrownBy(() -> service.submit(1, 11, List.of(2), null))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        queued.get(0).done().complete(null);
+        assertThat(service.submit(1, 11, List.of(2), null)).isNotDone();
+    }
+}
@@ -0,0 +1,134 @@
+package API_BoPhieu.service.poll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.entity.PollOptionCount;
+import API_BoPhieu.entity.Vote;
+import API_BoPhieu.repository.PollOptionCountRepository;
+import API_BoPhieu.repository.PollVoterCountRepository;
+import API_BoPhieu.repository.VoteReceiptRepository;
+import API_BoPhieu.repository.VoteRepository;
+import API_BoPhieu.service.poll.VoteWriteQueue.PendingVote;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.poll.vote.writer-threads=1"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VoteWriteQueue.class, PollTallyService.class, PollCountService.class,
+        LocalSseBroadcastBus.class,
+        VoteWriteQueueTest.Config.class})
+class VoteWriteQueueTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private VoteWriteQueue voteWriteQueue;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private VoteReceiptRepository voteReceiptRepository;
+
+    @Autowired
+    private PollCountService pollCountService;
+
+    @Autowired
+    private PollOptionCountRepository pollOptionCountRepository;
+
+    @Autowired
+    private PollVoterCountRepository pollVoterCountRepository;
+
+    @AfterEach
+    void tearDown() {
+        voteRepository.deleteAll();
+        voteReceiptRepository.deleteAll();
+        pollOptionCountRepository.deleteAll();
+        pollVoterCountRepository.deleteAll();
+    }
+
+    @Test
+    void laterVoteOfTheSameUserWins() throws Exception {
+        await(submit(1, 7, List.of(10, 11), null), submit(1, 8, List.of(10), null),
+                submit(1, 7, List.of(12), null));
+
+        assertThat(voteRepository.findByPollIdAndUserId(1, 7)).extracting(Vote::getOptionId)
+                .containsExactly(12);
+        assertThat(voteRepository.findByPollIdAndUserId(1, 8)).extracting(Vote::getOptionId)
+                .containsExactly(10);
+    }
+
+    @Test
+    void replayedIdempotencyKeyIsAcknowledgedButNotApplied() throws Exception {
+        await(submit(1, 7, List.of(10), "key-1"));
+        await(submit(1, 7, List.of(11), "key-2"), submit(1, 7, List.of(10), "key-1"));
+
+        assertThat(voteRepository.findByPollIdAndUserId(1, 7)).extracting(Vote::getOptionId)
+                .containsExactly(11);
+        assertThat(voteReceiptRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void storedCountersFollowChangedSelections() throws Exception {
+        pollCountService.initialize(1, List.of(10, 11, 12));
+        await(submit(1, 7, List.of(10, 11), null), submit(1, 8, List.of(10), null));
+        await(submit(1, 7, List.of(12), null), submit(1, 8, List.of(), null));
+
+        PollCountService.StoredCounts counts = pollCountService.read(1);
+        assertThat(counts.countsByOption()).containsOnly(entry(10, 0), entry(11, 0),
+                entry(12, 1));
+        assertThat(counts.totalVoters()).isEqualTo(1);
+        assertThat(pollCountService.repair(1)).isFalse();
+    }
+
+    @Test
+    void repairRecomputesDriftedCounters() throws Exception {
+        pollCountService.initialize(1, List.of(10, 11));
+        await(submit(1, 7, List.of(10), null), submit(1, 8, List.of(10), null));
+        pollOptionCountRepository.save(new PollOptionCount(1, 10, 5));
+
+        assertThat(pollCountService.repair(1)).isTrue();
+        assertThat(pollCountService.read(1).countsByOption()).containsOnly(entry(10, 2),
+                entry(11, 0));
+    }
+
+    private CompletableFuture<Void> submit(int pollId, int userId, List<Integer> optionIds,
+            String key) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        assertThat(voteWriteQueue.offer(new PendingVote(pollId, userId, optionIds, key, done)))
+                .isTrue();
+        return done;
+    }
+
+    @SafeVarargs
+    private static void await(CompletableFuture<Void>... votes) throws Exception {
+        CompletableFuture.allOf(votes).get(10, TimeUnit.SECONDS);
+    }
+}
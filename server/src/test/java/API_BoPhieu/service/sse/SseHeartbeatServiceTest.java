@@ -0,0 +1,108 @@
+package API_BoPhieu.service.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SseHeartbeatServiceTest {
+
+    private static final Duration IDLE_TIMEOUT = Duration.ofMillis(200);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeSource source = new FakeSource();
+    private final List<String> closeReasons = new CopyOnWriteArrayList<>();
+    private final SseHeartbeatService service =
+            new SseHeartbeatService(List.of(source), registry, Runnable::run, IDLE_TIMEOUT);
+
+    @Test
+    void aSubscriberSilentPastTheIdleTimeoutIsReapedAndTheOthersArePinged() throws Exception {
+        final CapturingEmitter stuck = new CapturingEmitter();
+        final CapturingEmitter live = new CapturingEmitter();
+        final SseSubscriber stuckSubscriber = source.connect("7", stuck);
+        final SseSubscriber liveSubscriber = source.connect("7", live);
+
+        Thread.sleep(IDLE_TIMEOUT.multipliedBy(2).toMillis());
+        // Only the live client has completed a write since it connected
+        liveSubscriber.offer(SseFrame.of("message", "hello"), Runnable::run);
+        service.heartbeat();
+
+        assertThat(stuckSubscriber.isClosed()).isTrue();
+        assertThat(closeReasons).containsExactly("IDLE");
+        assertThat(stuck.frames).isEmpty();
+        assertThat(liveSubscriber.isClosed()).isFalse();
+        assertThat(live.frames).last().isEqualTo(":heartbeat\n\n");
+        assertThat(connections("7")).isEqualTo(1);
+    }
+
+    @Test
+    void theGaugeHasOneRowPerLiveChannel() {
+        source.connect("7", new CapturingEmitter());
+        final SseSubscriber leaving = source.connect("8", new CapturingEmitter());
+        source.connect("8", new CapturingEmitter());
+        service.heartbeat();
+
+        assertThat(connections("7")).isEqualTo(1);
+        assertThat(connections("8")).isEqualTo(2);
+
+        source.channels.remove("7").forEach(subscriber -> subscriber.close("COMPLETED"));
+        leaving.close("COMPLETED");
+        service.heartbeat();
+
+        assertThat(registry.find("sse.connections").tag("channel", "7").gauge()).isNull();
+        assertThat(connections("8")).isEqualTo(1);
+    }
+
+    private double connections(final String channel) {
+        final Gauge gauge = registry.find("sse.connections").tag("stream", FakeSource.STREAM)
+                .tag("channel", channel).gauge();
+        assertThat(gauge).isNotNull();
+        return gauge.value();
+    }
+
+    private final class FakeSource implements SseConnectionSource {
+        private static final String STREAM = "check-in";
+        private final Map<String, List<SseSubscriber>> channels = new ConcurrentHashMap<>();
+
+        private SseSubscriber connect(final String channel, final SseEmitter emitter) {
+            final SseSubscriber subscriber = new SseSubscriber(emitter, 8, (closed, reason) -> {
+                closeReasons.add(reason);
+                channels.computeIfPresent(channel, (k, subscribers) -> {
+                    subscribers.remove(closed);
+                    return subscribers;
+                });
+            });
+            channels.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>()).add(subscriber);
+            return subscriber;
+        }
+
+        @Override
+        public String streamName() {
+            return STREAM;
+        }
+
+        @Override
+        public Map<String, ? extends Collection<SseSubscriber>> connectionsByChannel() {
+            return channels;
+        }
+    }
+
+    private static final class CapturingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public synchronized void send(final Set<DataWithMediaType> items) {
+            items.forEach(item -> frames
+                    .add(new String((byte[]) item.getData(), StandardCharsets.UTF_8)));
+        }
+    }
+}
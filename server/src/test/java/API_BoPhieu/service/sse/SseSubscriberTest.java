@@ -0,0 +1,120 @@
+package API_BoPhieu.service.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseSubscriberTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final BlockedEmitter emitter = new BlockedEmitter();
+    private final List<String> closeReasons = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        emitter.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void aBlockedClientNeitherBlocksTheProducerNorGrowsPastItsQueue() throws Exception {
+        final SseSubscriber subscriber = subscriber(2);
+        assertThat(subscriber.offer(frame(1), executor)).isTrue();
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Frame 1 is stuck in the write; the queue takes two more without waiting on it
+        final long start = System.nanoTime();
+        assertThat(subscriber.offer(frame(2), executor)).isTrue();
+        assertThat(subscriber.offer(frame(3), executor)).isTrue();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(subscriber.isClosed()).isFalse();
+
+        emitter.release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.frames).containsExactly(text(1), text(2), text(3));
+        assertThat(closeReasons).isEmpty();
+    }
+
+    @Test
+    void aClientWhoseQueueOverflowsIsDisconnected() throws Exception {
+        final SseSubscriber subscriber = subscriber(2);
+        subscriber.offer(frame(1), executor);
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        subscriber.offer(frame(2), executor);
+        subscriber.offer(frame(3), executor);
+
+        assertThat(subscriber.offer(frame(4), executor)).isFalse();
+        assertThat(subscriber.isClosed()).isTrue();
+        assertThat(closeReasons).containsExactly("QUEUE_OVERFLOW");
+        assertThat(subscriber.offer(frame(5), executor)).isFalse();
+
+        // The write in progress finishes, but nothing queued behind it is sent
+        emitter.release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.frames).containsExactly(text(1));
+        assertThat(closeReasons).containsExactly("QUEUE_OVERFLOW");
+    }
+
+    @Test
+    void aFailedWriteClosesTheSubscriberOnce() {
+        final SseSubscriber subscriber = new SseSubscriber(new SseEmitter() {
+            @Override
+            public synchronized void send(final Set<DataWithMediaType> items) {
+                throw new IllegalStateException("broken pipe");
+            }
+        }, 4, (closed, reason) -> closeReasons.add(reason));
+
+        subscriber.offer(frame(1), Runnable::run);
+        subscriber.offer(frame(2), Runnable::run);
+
+        assertThat(subscriber.isClosed()).isTrue();
+        assertThat(closeReasons).containsExactly("SEND_FAILED");
+    }
+
+    private SseSubscriber subscriber(final int capacity) {
+        return new SseSubscriber(emitter, capacity, (closed, reason) -> closeReasons.add(reason));
+    }
+
+    private static SseFrame frame(final int n) {
+        return SseFrame.of("message", "frame " + n);
+    }
+
+    private static String text(final int n) {
+        return "event:message\ndata:frame " + n + "\n\n";
+    }
+
+    /**
+     * An emitter whose writes hang until {@link #release} is opened, like a client that has
+     * stopped reading.
+     */
+    private static final class BlockedEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(final Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            items.forEach(item -> frames
+                    .add(new String((byte[]) item.getData(), StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package API_BoPhieu.service.sse.bus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.repository.SseBroadcastRepository;
+
+/**
+ * Runs three bus instances against one database, as three replicas would, and checks that a
+ * broadcast published on one node reaches the listeners of every node exactly once.
+ */
+@DataJpaTest(
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcSseBroadcastBusTest {
+
+    private static final String TOPIC = "check-in";
+
+    @Autowired
+    private SseBroadcastRepository broadcastRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JdbcSseBroadcastBus nodeA;
+    private JdbcSseBroadcastBus nodeB;
+    private JdbcSseBroadcastBus nodeC;
+    private final List<SseBroadcast> receivedByA = new CopyOnWriteArrayList<>();
+    private final List<SseBroadcast> receivedByB = new CopyOnWriteArrayList<>();
+    private final List<SseBroadcast> receivedByC = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node("node-a", receivedByA);
+        nodeB = node("node-b", receivedByB);
+        nodeC = node("node-c", receivedByC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcastRepository.deleteAll();
+    }
+
+    @Test
+    void broadcastReachesEveryNodeOnce() {
+        nodeA.publish(new SseBroadcast(TOPIC, 7, "participant-checked-in",
+                Map.of("event_id", 7, "user_id", 42)));
+
+        assertThat(receivedByA).hasSize(1);
+        assertThat(receivedByB).isEmpty();
+
+        pollAll();
+        pollAll();
+
+        assertThat(receivedByA).hasSize(1);
+        assertThat(receivedByB).hasSize(1);
+        assertThat(receivedByC).hasSize(1);
+
+        final SseBroadcast relayed = receivedByB.get(0);
+        assertThat(relayed.channelId()).isEqualTo(7);
+        assertThat(relayed.eventName()).isEqualTo("participant-checked-in");
+        assertThat(relayed.data()).isInstanceOf(JsonNode.class);
+        assertThat(((JsonNode) relayed.data()).get("user_id").asInt()).isEqualTo(42);
+    }
+
+    @Test
+    void preSerializedPayloadIsRelayedVerbatim() {
+        final String payload = "{\"status\": \"needs_refresh\"}";
+        nodeB.publish(new SseBroadcast(TOPIC, null, "event_list_updated", payload));
+
+        pollAll();
+
+        assertThat(receivedByA).singleElement()
+                .satisfies(broadcast -> assertThat(broadcast.data()).isEqualTo(payload));
+        assertThat(receivedByC).singleElement()
+                .satisfies(broadcast -> assertThat(broadcast.channelId()).isNull());
+    }
+
+    @Test
+    void broadcastFromRolledBackTransactionIsDropped() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            nodeA.publish(new SseBroadcast(TOPIC, 7, "participant-checked-in", Map.of()));
+            status.setRollbackOnly();
+        });
+
+        pollAll();
+
+        assertThat(receivedByA).isEmpty();
+        assertThat(receivedByB).isEmpty();
+        assertThat(broadcastRepository.count()).isZero();
+    }
+
+    private JdbcSseBroadcastBus node(final String nodeId, final List<SseBroadcast> received) {
+        final JdbcSseBroadcastBus bus = new JdbcSseBroadcastBus(broadcastRepository,
+                transactionManager, objectMapper, nodeId, Duration.ofSeconds(5),
+                Duration.ofMinutes(10));
+        bus.subscribe(TOPIC, received::add);
+        return bus;
+    }
+
+    private void pollAll() {
+        nodeA.poll();
+        nodeB.poll();
+        nodeC.poll();
+    }
+}
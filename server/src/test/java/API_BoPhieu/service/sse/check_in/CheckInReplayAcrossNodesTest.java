@@ -0,0 +1,129 @@
+package API_BoPhieu.service.sse.check_in;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.repository.SseBroadcastRepository;
+import API_BoPhieu.service.sse.SseFrameFactory;
+import API_BoPhieu.service.sse.bus.JdbcSseBroadcastBus;
+
+/**
+ * A client watching check-ins on one replica reconnects to another, as it would behind a load
+ * balancer without session affinity, and must receive exactly what it missed.
+ */
+@DataJpaTest(
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckInReplayAcrossNodesTest {
+
+    private static final int EVENT_ID = 7;
+
+    @Autowired
+    private SseBroadcastRepository broadcastRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        broadcastRepository.deleteAll();
+    }
+
+    @Test
+    void anotherNodeReplaysTheCheckInsMissedSinceTheLastEventId() {
+        JdbcSseBroadcastBus busA = bus("node-a");
+        JdbcSseBroadcastBus busB = bus("node-b");
+        CheckInSseServiceImpl nodeA = service(busA);
+        CheckInSseServiceImpl nodeB = service(busB);
+
+        CapturingEmitter first = new CapturingEmitter();
+        nodeA.addEmitter(EVENT_ID, first, null);
+        nodeA.sendEventToClients(EVENT_ID, CheckInSseServiceImpl.CHECKED_IN_EVENT,
+                Map.of("user_id", 1));
+        nodeA.flushPendingEvents();
+        String lastEventId = first.lastId();
+        assertThat(lastEventId).isNotNull();
+
+        nodeA.sendEventToClients(EVENT_ID, CheckInSseServiceImpl.CHECKED_IN_EVENT,
+                Map.of("user_id", 2));
+        nodeA.sendEventToClients(EVENT_ID, CheckInSseServiceImpl.CHECKED_IN_EVENT,
+                Map.of("user_id", 3));
+
+        CapturingEmitter reconnected = new CapturingEmitter();
+        nodeB.addEmitter(EVENT_ID, reconnected, lastEventId);
+
+        assertThat(reconnected.frames).hasSize(2);
+        assertThat(reconnected.frames.get(0)).contains("event:INIT").doesNotContain("id:");
+        String replayed = reconnected.frames.get(1);
+        assertThat(replayed).contains("event:" + CheckInSseServiceImpl.BATCH_CHECKED_IN_EVENT)
+                .contains("\"user_id\":2").contains("\"user_id\":3")
+                .doesNotContain("\"user_id\":1");
+        assertThat(Long.parseLong(reconnected.lastId()))
+                .isGreaterThan(Long.parseLong(lastEventId));
+    }
+
+    @Test
+    void idsNoLongerInTheHistoryRequireAResync() {
+        CheckInSseServiceImpl nodeB = service(bus("node-b"));
+
+        CapturingEmitter reconnected = new CapturingEmitter();
+        nodeB.addEmitter(EVENT_ID, reconnected, "424242");
+        CapturingEmitter legacy = new CapturingEmitter();
+        nodeB.addEmitter(EVENT_ID, legacy, "k3x9-12");
+
+        assertThat(reconnected.frames).last().asString()
+                .contains("event:" + CheckInSseServiceImpl.RESYNC_EVENT);
+        assertThat(legacy.frames).last().asString()
+                .contains("event:" + CheckInSseServiceImpl.RESYNC_EVENT);
+    }
+
+    private JdbcSseBroadcastBus bus(String nodeId) {
+        return new JdbcSseBroadcastBus(broadcastRepository, transactionManager, objectMapper,
+                nodeId, Duration.ofSeconds(5), Duration.ofMinutes(10));
+    }
+
+    private CheckInSseServiceImpl service(JdbcSseBroadcastBus bus) {
+        CheckInSseServiceImpl service = new CheckInSseServiceImpl(
+                new SseFrameFactory(objectMapper), bus, Runnable::run, 64, 16,
+                Duration.ofMinutes(10));
+        service.subscribeToBus();
+        return service;
+    }
+
+    private static final class CapturingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            items.forEach(item -> frames
+                    .add(new String((byte[]) item.getData(), StandardCharsets.UTF_8)));
+        }
+
+        private String lastId() {
+            String id = null;
+            for (String frame : frames) {
+                for (String line : frame.split("\n")) {
+                    if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    }
+                }
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package API_BoPhieu.service.sse.check_in;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import API_BoPhieu.service.sse.SseFrameFactory;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+import API_BoPhieu.service.sse.bus.SseBroadcast;
+import API_BoPhieu.service.sse.bus.SseBroadcastBus;
+
+class CheckInSseServiceImplTest {
+
+    private static final int EVENT_ID = 7;
+
+    private final SseBroadcastBus bus = mock(SseBroadcastBus.class);
+    private CheckInSseServiceImpl service;
+    private Consumer<SseBroadcast> delivery;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new CheckInSseServiceImpl(new SseFrameFactory(new ObjectMapper()), bus,
+                Runnable::run, 64, 16, Duration.ofMinutes(10));
+        service.subscribeToBus();
+        final ArgumentCaptor<Consumer<SseBroadcast>> listener =
+                ArgumentCaptor.forClass(Consumer.class);
+        verify(bus).subscribe(eq(CheckInSseServiceImpl.TOPIC), listener.capture());
+        delivery = listener.getValue();
+    }
+
+    @Test
+    void aBroadcastDeliveredAfterANewerOneForcesAResyncFromEarlierIds() {
+        final CapturingEmitter live = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, live, null);
+        deliver(10, 1);
+        service.flushPendingEvents();
+        assertThat(live.lastId()).isEqualTo("10");
+
+        // Row 5 committed on another node after row 10 and reaches this node late
+        deliver(5, 2);
+        service.flushPendingEvents();
+        assertThat(live.frames).last().asString().contains("\"user_id\":2");
+
+        final CapturingEmitter reconnected = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, reconnected, "10");
+        assertThat(reconnected.frames).last().asString()
+                .contains("event:" + CheckInSseServiceImpl.RESYNC_EVENT);
+
+        deliver(11, 3);
+        service.flushPendingEvents();
+        final CapturingEmitter caughtUp = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, caughtUp, "10");
+        final CapturingEmitter current = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, current, "11");
+        assertThat(caughtUp.frames).last().asString()
+                .contains("event:" + CheckInSseServiceImpl.RESYNC_EVENT);
+        assertThat(current.frames).hasSize(1).first().asString().contains("event:INIT");
+    }
+
+    @Test
+    void checkInsBetweenFlushesAreSentAsOneBatchedFrame() throws Exception {
+        final CapturingEmitter live = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, live, null);
+        for (int userId = 1; userId <= 5; userId++) {
+            deliver(userId, userId);
+        }
+        assertThat(live.frames).hasSize(1);
+
+        service.flushPendingEvents();
+        service.flushPendingEvents();
+
+        assertThat(live.frames).hasSize(2);
+        assertThat(live.frames.get(1))
+                .contains("event:" + CheckInSseServiceImpl.BATCH_CHECKED_IN_EVENT)
+                .contains("\"user_id\":1").contains("\"user_id\":5").contains("id:5");
+        assertThat(CheckInSseServiceImpl.class.getMethod("flushPendingEvents")
+                .getAnnotation(Scheduled.class).fixedDelayString())
+                .isEqualTo("${app.sse.check-in.flush-interval-ms:250}");
+    }
+
+    @Test
+    void outOfOrderSequencesWithinOneFlushAreNotLate() {
+        final CapturingEmitter live = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, live, null);
+        deliver(10, 1);
+        service.flushPendingEvents();
+
+        deliver(12, 2);
+        deliver(11, 3);
+        service.flushPendingEvents();
+
+        final CapturingEmitter reconnected = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, reconnected, "10");
+        assertThat(reconnected.frames).hasSize(2);
+        assertThat(reconnected.frames.get(1))
+                .contains("event:" + CheckInSseServiceImpl.BATCH_CHECKED_IN_EVENT)
+                .contains("\"user_id\":2").contains("\"user_id\":3").contains("id:12");
+    }
+
+    @Test
+    void historyIsReadWithoutBlockingFlushesAndMergedWithWhatTheyBuffered() {
+        service.addEmitter(EVENT_ID, new CapturingEmitter(), null);
+        deliver(10, 1);
+        service.flushPendingEvents();
+        when(bus.history(CheckInSseServiceImpl.TOPIC, EVENT_ID, 5L)).thenAnswer(invocation -> {
+            // A flush on another thread while the history query is running
+            deliver(12, 3);
+            CompletableFuture.runAsync(service::flushPendingEvents).get(5, TimeUnit.SECONDS);
+            return Optional.of(List.of(broadcast(8, 2), broadcast(10, 1)));
+        });
+
+        final CapturingEmitter reconnected = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, reconnected, "5");
+
+        assertThat(reconnected.frames).hasSize(3);
+        assertThat(reconnected.frames.get(1))
+                .contains("event:" + CheckInSseServiceImpl.BATCH_CHECKED_IN_EVENT)
+                .contains("\"user_id\":2").contains("\"user_id\":1").contains("id:10");
+        assertThat(reconnected.frames.get(2)).contains("\"user_id\":3").contains("id:12");
+    }
+
+    @Test
+    void aFlushSerializesOnceAndWritesTheSameBytesToEverySubscriber() {
+        final AtomicInteger serializations = new AtomicInteger();
+        final ObjectMapper countingMapper = new ObjectMapper() {
+            @Override
+            public String writeValueAsString(final Object value) throws JsonProcessingException {
+                serializations.incrementAndGet();
+                return super.writeValueAsString(value);
+            }
+        };
+        final CheckInSseServiceImpl counted = new CheckInSseServiceImpl(
+                new SseFrameFactory(countingMapper), new LocalSseBroadcastBus(), Runnable::run,
+                64, 16, Duration.ofMinutes(10));
+        counted.subscribeToBus();
+        final List<CapturingEmitter> emitters =
+                List.of(new CapturingEmitter(), new CapturingEmitter(), new CapturingEmitter());
+        emitters.forEach(emitter -> counted.addEmitter(EVENT_ID, emitter, null));
+
+        counted.sendEventToClients(EVENT_ID, CheckInSseServiceImpl.CHECKED_IN_EVENT,
+                Map.of("user_id", 1));
+        counted.flushPendingEvents();
+
+        assertThat(serializations).hasValue(1);
+        final Object bytes = emitters.get(0).payloads.get(1);
+        assertThat(emitters).allSatisfy(emitter -> assertThat(emitter.payloads).hasSize(2)
+                .last().isSameAs(bytes));
+    }
+
+    private void deliver(final long sequence, final int userId) {
+        delivery.accept(broadcast(sequence, userId));
+    }
+
+    private static SseBroadcast broadcast(final long sequence, final int userId) {
+        return new SseBroadcast(CheckInSseServiceImpl.TOPIC, EVENT_ID,
+                CheckInSseServiceImpl.CHECKED_IN_EVENT, Map.of("user_id", userId), sequence);
+    }
+
+    private static final class CapturingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final List<Object> payloads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public synchronized void send(final Set<DataWithMediaType> items) {
+            items.forEach(item -> {
+                payloads.add(item.getData());
+                frames.add(new String((byte[]) item.getData(), StandardCharsets.UTF_8));
+            });
+        }
+
+        private String lastId() {
+            String id = null;
+            for (final String frame : frames) {
+                for (final String line : frame.split("\n")) {
+                    if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    }
+                }
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package API_BoPhieu.service.sse.poll_results;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import API_BoPhieu.entity.Poll;
+import API_BoPhieu.repository.EventRepository;
+import API_BoPhieu.repository.OptionRepository;
+import API_BoPhieu.repository.PollRepository;
+import API_BoPhieu.service.poll.PollTally;
+import API_BoPhieu.service.poll.PollTallyService;
+import API_BoPhieu.service.sse.SseFrameFactory;
+import API_BoPhieu.service.sse.bus.LocalSseBroadcastBus;
+
+class PollResultsSseServiceImplTest {
+
+    private static final int EVENT_ID = 3;
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final PollRepository pollRepository = mock(PollRepository.class);
+    private final PollTallyService pollTallyService = mock(PollTallyService.class);
+    private final Map<Integer, PollTally> tallies = new HashMap<>();
+    private final List<Poll> polls = new ArrayList<>();
+    private PollResultsSseServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(eventRepository.existsById(EVENT_ID)).thenReturn(true);
+        when(pollRepository.findByEventId(EVENT_ID)).thenAnswer(invocation -> List.copyOf(polls));
+        when(pollTallyService.tally(anyInt())).thenAnswer(invocation -> tallies
+                .computeIfAbsent(invocation.getArgument(0), k -> new PollTally()));
+        service = new PollResultsSseServiceImpl(eventRepository, pollRepository,
+                mock(OptionRepository.class), pollTallyService, new LocalSseBroadcastBus(),
+                new SseFrameFactory(new ObjectMapper().registerModule(new JavaTimeModule())),
+                Runnable::run, 64);
+        service.subscribeToBus();
+    }
+
+    @Test
+    void oneStreamCarriesEveryPollOfTheEventIncludingNewOnes() {
+        polls.add(poll(1));
+        polls.add(poll(2));
+        final CapturingEmitter emitter = new CapturingEmitter();
+        service.addEmitter(EVENT_ID, emitter);
+        assertThat(emitter.frames).hasSize(2);
+
+        service.publishChangedResults();
+        final int sent = emitter.frames.size();
+        service.publishChangedResults();
+        assertThat(emitter.frames).hasSize(sent);
+
+        polls.add(poll(5));
+        service.dispatchPollChanged(EVENT_ID);
+        tallies.get(1).apply(10, List.of(7), 100);
+        service.publishChangedResults();
+
+        final List<String> changed = emitter.frames.subList(sent, emitter.frames.size());
+        assertThat(changed).hasSize(2);
+        assertThat(changed).anySatisfy(frame -> assertThat(frame).contains("\"id\":1")
+                .contains("\"totalVoters\":1"));
+        assertThat(changed).anySatisfy(frame -> assertThat(frame).contains("\"id\":5"));
+        verify(pollRepository, times(2)).findByEventId(EVENT_ID);
+    }
+
+    private static Poll poll(final int id) {
+        final Poll poll = new Poll();
+        poll.setId(id);
+        poll.setEventId(EVENT_ID);
+        poll.setTitle("Poll " + id);
+        poll.setIsDelete(false);
+        poll.setStartTime(Instant.now().minusSeconds(60));
+        poll.setEndTime(Instant.now().plusSeconds(3600));
+        return poll;
+    }
+
+    private static final class CapturingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public synchronized void send(final Set<DataWithMediaType> items) {
+            items.forEach(item -> frames
+                    .add(new String((byte[]) item.getData(), StandardCharsets.UTF_8)));
+        }
+    }
+}